@@ -0,0 +1,42 @@
+package me.dalianmao.benchmark;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行基准测试，参数和{@code org.openjdk.jmh.Main}一样，比如：
+ *
+ * <pre>
+ * java -jar benchmarks.jar ArrayUtilBenchmark -p size=1000
+ * </pre>
+ *
+ * 默认加上GC profiler，每个结果都带上{@code gc.alloc.rate.norm}(每次操作分配的字节数)，分配的回归和耗时的回归一样能看出来
+ *
+ * @author xiezhenzong
+ *
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions options;
+        try {
+            options = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (options.shouldHelp()) {
+            options.showHelp();
+            return;
+        }
+        new Runner(new OptionsBuilder().parent(options).addProfiler(GCProfiler.class).build()).run();
+    }
+
+}
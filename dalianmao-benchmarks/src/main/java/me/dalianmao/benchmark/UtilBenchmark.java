@@ -0,0 +1,78 @@
+package me.dalianmao.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.Constants;
+import me.dalianmao.util.Util;
+
+/**
+ * {@code Util.filterOffUtf8Mb4}过滤纯英文、中文、带emoji的昵称，以及{@code Util.createNonce}
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilBenchmark {
+
+    @Benchmark
+    public String filterOffUtf8Mb4(Text text) {
+        return Util.filterOffUtf8Mb4(text.input);
+    }
+
+    @Benchmark
+    public String createNonce() {
+        return Util.createNonce(Constants.UNDERLINE);
+    }
+
+    /**
+     * 只有{@code filterOffUtf8Mb4}用到，参数不会乘到{@code createNonce}上
+     */
+    @State(Scope.Benchmark)
+    public static class Text {
+
+        @Param({ "16", "1024" })
+        private int length;
+
+        @Param({ "ascii", "chinese", "emoji" })
+        private String text;
+
+        private String input;
+
+        @Setup
+        public void setUp() {
+            String unit;
+            switch (text) {
+            case "ascii":
+                unit = "dalianmao";
+                break;
+            case "chinese":
+                unit = "大脸猫爱吃鱼";
+                break;
+            default:
+                unit = "大脸猫😀cat"; // U+1F600，4字节的utf-8
+            }
+            StringBuilder builder = new StringBuilder(length + unit.length());
+            while (builder.length() < length) {
+                builder.append(unit);
+            }
+            input = builder.toString();
+        }
+    }
+
+}
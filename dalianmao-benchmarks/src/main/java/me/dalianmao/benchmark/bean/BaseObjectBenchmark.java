@@ -0,0 +1,66 @@
+package me.dalianmao.benchmark.bean;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.bean.BaseObject;
+
+/**
+ * {@code BaseObject.toString}基于反射，对比手写的{@code toString}，比如打日志时的开销
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BaseObjectBenchmark {
+
+    private final User user = new User(10086L, "dalianmao", "13800138000", 3, new Date(1500000000000L));
+
+    @Benchmark
+    public String reflectionToString() {
+        return user.toString();
+    }
+
+    @Benchmark
+    public String handwrittenToString() {
+        return user.handwrittenToString();
+    }
+
+    public static class User extends BaseObject {
+
+        private final long id;
+        private final String name;
+        private final String mobile;
+        private final int level;
+        private final Date createTime;
+
+        User(long id, String name, String mobile, int level, Date createTime) {
+            this.id = id;
+            this.name = name;
+            this.mobile = mobile;
+            this.level = level;
+            this.createTime = createTime;
+        }
+
+        String handwrittenToString() {
+            return "BaseObjectBenchmark.User[id=" + id + ",name=" + name + ",mobile=" + mobile + ",level=" + level
+                    + ",createTime=" + createTime + "]";
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package me.dalianmao.benchmark.collection;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.collection.ArrayUtil;
+
+/**
+ * {@code ArrayUtil}的过滤和去重，元素取自{@code [0, size / 2)}，大约一半重复；判断重复用没有重复的数组，要遍历完整个数组
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArrayUtilBenchmark {
+
+    private static final IntPredicate EVEN = x -> (x & 1) == 0;
+    private static final Predicate<Integer> BOXED_EVEN = x -> (x & 1) == 0;
+
+    @Param({ "100", "10000", "1000000" })
+    private int size;
+
+    private int[] ints;
+    private Integer[] boxed;
+    private int[] distinct;
+
+    @Setup
+    public void setUp() {
+        ints = new Random(42).ints(size, 0, Math.max(size / 2, 1)).toArray();
+        boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = ints[i];
+        }
+        distinct = new Random(42).ints(0, Integer.MAX_VALUE).distinct().limit(size).toArray();
+    }
+
+    // 过滤
+
+    @Benchmark
+    public int[] filterInts() {
+        return ArrayUtil.filter(EVEN, ints);
+    }
+
+    @Benchmark
+    public Integer[] filterBoxed() {
+        return ArrayUtil.filter(BOXED_EVEN, boxed);
+    }
+
+    @Benchmark
+    public long count() {
+        return ArrayUtil.count(EVEN, ints);
+    }
+
+    // 去重
+
+    @Benchmark
+    public Integer[] removeDuplicate() {
+        return ArrayUtil.removeDuplicate(Integer[]::new, boxed);
+    }
+
+    @Benchmark
+    public Integer[] removeDuplicateGuaranteeOrder() {
+        return ArrayUtil.removeDuplicateGuaranteeOrder(Integer[]::new, boxed);
+    }
+
+    @Benchmark
+    public int[] removeDuplicateGuaranteeOrderInts() {
+        return ArrayUtil.removeDuplicateGuaranteeOrder(ints);
+    }
+
+    @Benchmark
+    public int indexOfDuplicate() {
+        return ArrayUtil.indexOfDuplicate(distinct);
+    }
+
+    @Benchmark
+    public boolean hasDuplicateBySort() {
+        return ArrayUtil.hasDuplicateBySort(distinct.clone()); // 会原地排序，包含复制的耗时
+    }
+
+}
@@ -0,0 +1,85 @@
+package me.dalianmao.benchmark.collection;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.collection.SetUtil;
+import me.dalianmao.util.collection.StripedLongHashSet;
+
+/**
+ * 多线程add/contains/remove进行中的请求id，对比各个并发集合的吞吐；默认和核数一样多的线程，用{@code -t}修改线程数
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class ConcurrentSetBenchmark {
+
+    @Param({ "synchronizedSet", "newConcurrentSet", "StripedLongHashSet" })
+    private String set;
+
+    private IdSet ids;
+
+    @Setup
+    public void setUp() {
+        switch (set) {
+        case "synchronizedSet":
+            ids = of(Collections.synchronizedSet(new HashSet<>()));
+            break;
+        case "newConcurrentSet":
+            ids = of(SetUtil.newConcurrentSet(1024));
+            break;
+        default:
+            StripedLongHashSet striped = SetUtil.newConcurrentLongSet(1024, StripedLongHashSet.UNBOUNDED);
+            ids = id -> {
+                striped.add(id);
+                boolean next = striped.contains(id + 1);
+                striped.remove(id);
+                return next;
+            };
+        }
+    }
+
+    @Benchmark
+    public boolean addContainsRemove() {
+        return ids.addContainsRemove(ThreadLocalRandom.current().nextLong(1 << 20));
+    }
+
+    private static IdSet of(Set<Long> set) {
+        return id -> {
+            set.add(id);
+            boolean next = set.contains(id + 1);
+            set.remove(id);
+            return next;
+        };
+    }
+
+    private interface IdSet {
+
+        boolean addContainsRemove(long id);
+
+    }
+
+}
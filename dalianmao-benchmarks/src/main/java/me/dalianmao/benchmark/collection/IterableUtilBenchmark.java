@@ -0,0 +1,83 @@
+package me.dalianmao.benchmark.collection;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.collection.IterableUtil;
+import me.dalianmao.util.collection.LongObjectMap;
+
+/**
+ * {@code IterableUtil}的拼接和转成{@code Map}，对比{@code Collectors.joining}和{@code Collectors.toMap}
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IterableUtilBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    private List<Long> list;
+
+    @Setup
+    public void setUp() {
+        list = new Random(42).longs(1000000L, 100000000L).distinct().limit(size).boxed().collect(Collectors.toList());
+    }
+
+    // 拼接
+
+    @Benchmark
+    public String join() {
+        return IterableUtil.join(list, ',');
+    }
+
+    @Benchmark
+    public String joinWithPrinter() {
+        return IterableUtil.join(list, ", ", id -> "#" + id);
+    }
+
+    @Benchmark
+    public String collectorsJoining() {
+        return list.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    // 转成Map
+
+    @Benchmark
+    public Map<Long, Long> toMap() {
+        return IterableUtil.toMap(list, Function.identity(), id -> id + 1);
+    }
+
+    @Benchmark
+    public LongObjectMap<Long> toLongMap() {
+        return IterableUtil.toLongMap(list, Long::longValue);
+    }
+
+    @Benchmark
+    public Map<Long, Long> collectorsToMap() {
+        return list.stream().collect(Collectors.toMap(Function.identity(), id -> id + 1));
+    }
+
+}
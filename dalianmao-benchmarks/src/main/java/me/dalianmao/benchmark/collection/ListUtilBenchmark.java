@@ -0,0 +1,75 @@
+package me.dalianmao.benchmark.collection;
+
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.collection.ListUtil;
+
+/**
+ * {@code ListUtil}的拆分和转换，拆分的是逗号分隔的id，如请求参数中的{@code ids=1000001,1000002,...}
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListUtilBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    private String ids;
+    private List<Long> list;
+
+    @Setup
+    public void setUp() {
+        list = new Random(42).longs(size, 1000000L, 100000000L).boxed().collect(Collectors.toList());
+        StringJoiner joiner = new StringJoiner(",");
+        list.forEach(id -> joiner.add(String.valueOf(id)));
+        ids = joiner.toString();
+    }
+
+    // 拆分
+
+    @Benchmark
+    public List<String> split() {
+        return ListUtil.split(ids, ',');
+    }
+
+    @Benchmark
+    public List<Long> splitToLong() {
+        return ListUtil.split(ids, ",", Long::valueOf);
+    }
+
+    // 转换
+
+    @Benchmark
+    public List<String> convert() {
+        return ListUtil.convert(list, String::valueOf);
+    }
+
+    @Benchmark
+    public List<String> parallelConvert() {
+        return ListUtil.parallelConvert(list, String::valueOf);
+    }
+
+}
@@ -0,0 +1,82 @@
+package me.dalianmao.benchmark.collection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.collection.Splitter;
+
+/**
+ * {@code Splitter}和{@code String.split}的对比，单字符和多字符分隔符
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SplitterBenchmark {
+
+    private static final Splitter COMMA_SPACE = Splitter.on(", ");
+
+    @Param({ "10", "100" })
+    private int size;
+
+    private String ids;
+    private String multi;
+
+    @Setup
+    public void setUp() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < size; i++) {
+            joiner.add(String.valueOf(1000000L + i * 7919L));
+        }
+        ids = joiner.toString();
+        multi = ids.replace(",", ", ");
+    }
+
+    /**
+     * 原来{@code ListUtil.split}的实现
+     */
+    @Benchmark
+    public Long[] stringSplitToLongs() {
+        return Arrays.stream(ids.split(",")).map(Long::valueOf).toArray(Long[]::new);
+    }
+
+    @Benchmark
+    public long[] splitToLongs() {
+        return Splitter.COMMA.splitToLongs(ids);
+    }
+
+    @Benchmark
+    public String[] stringSplitMulti() {
+        return multi.split(", ");
+    }
+
+    @Benchmark
+    public List<String> splitMulti() {
+        return COMMA_SPACE.split(multi);
+    }
+
+    @Benchmark
+    public long[] splitToLongsMulti() {
+        return COMMA_SPACE.splitToLongs(multi);
+    }
+
+}
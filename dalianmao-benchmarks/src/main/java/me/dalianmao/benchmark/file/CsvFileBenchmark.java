@@ -0,0 +1,119 @@
+package me.dalianmao.benchmark.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.file.CsvFile;
+import me.dalianmao.util.file.CsvWriter;
+
+/**
+ * {@code CsvFile.write}导出订单，写到只计数的输出流，只看编码和拼接的耗时、分配<br/>
+ *
+ * {@code writeRows}按类型直接写列，对比{@code write}每一行的{@code List}和字符串，{@code gc.alloc.rate.norm}除以{@code rows}就是每行的分配
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvFileBenchmark {
+
+    private static final List<String> HEADER = Arrays.asList("订单号", "用户id", "商品", "数量", "金额", "下单时间");
+
+    @Param({ "100", "10000", "100000" })
+    private int rows;
+
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        orders = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            orders.add(new Order(20180000000000L + i, 1000000L + random.nextInt(1000000), "大脸猫抱枕-" + random.nextInt(100),
+                    1 + random.nextInt(5), random.nextInt(100000), 1500000000000L + random.nextInt(86400000)));
+        }
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        CsvFile.write(output, HEADER, orders, Order::toRow);
+        return output.count;
+    }
+
+    @Benchmark
+    public long writeRows() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        CsvFile.writeRows(output, HEADER, orders.iterator(), Order::encode);
+        return output.count;
+    }
+
+    private static class Order {
+
+        private final long id;
+        private final long userId;
+        private final String item;
+        private final int quantity;
+        private final long amount; // 分
+        private final long createTime;
+
+        Order(long id, long userId, String item, int quantity, long amount, long createTime) {
+            this.id = id;
+            this.userId = userId;
+            this.item = item;
+            this.quantity = quantity;
+            this.amount = amount;
+            this.createTime = createTime;
+        }
+
+        List<String> toRow() {
+            return Arrays.asList(String.valueOf(id), String.valueOf(userId), item, String.valueOf(quantity),
+                    String.valueOf(amount / 100.0), String.valueOf(createTime));
+        }
+
+        void encode(CsvWriter writer) throws IOException {
+            writer.field(id).field(userId).field(item).field(quantity).field(amount, 2).dateTime(createTime);
+        }
+    }
+
+    /**
+     * 丢弃写入的字节，只计数
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+}
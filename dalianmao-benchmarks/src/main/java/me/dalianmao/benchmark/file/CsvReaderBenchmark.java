@@ -0,0 +1,102 @@
+package me.dalianmao.benchmark.file;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.file.CsvReader;
+import me.dalianmao.util.file.CsvWriter;
+
+/**
+ * 读订单导出的csv，把金额加起来；对比原来导入任务中{@code BufferedReader}加{@code split}的写法
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvReaderBenchmark {
+
+    @Param({ "10000", "1000000" })
+    private int rows;
+
+    private Path file;
+    private final CsvReader reader = new CsvReader();
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("csv-reader-benchmark", ".csv");
+        Random random = new Random(42);
+        try (CsvWriter writer = new CsvWriter(Files.newOutputStream(file))) {
+            for (int i = 0; i < rows; i++) {
+                writer.field(20180000000000L + i).field(1000000L + random.nextInt(1000000))
+                        .field("大脸猫抱枕-" + random.nextInt(100)).field(1 + random.nextInt(5))
+                        .field(random.nextInt(100000), 2).dateTime(1500000000000L + random.nextInt(86400000)).endRow();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public long bufferedReaderSplit() throws IOException {
+        long sum = 0;
+        try (BufferedReader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = input.readLine()) != null) {
+                sum += Math.round(Double.parseDouble(line.split(",")[4]) * 100);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readMapped() throws IOException {
+        long[] sum = { 0 };
+        reader.read(file, row -> sum[0] += row.getDecimal(4, 2));
+        return sum[0];
+    }
+
+    @Benchmark
+    public long readStream() throws IOException {
+        long[] sum = { 0 };
+        try (InputStream input = Files.newInputStream(file)) {
+            reader.read(input, row -> sum[0] += row.getDecimal(4, 2));
+        }
+        return sum[0];
+    }
+
+    @Benchmark
+    public long readParallel() throws IOException {
+        long[] sums = new long[Runtime.getRuntime().availableProcessors()]; // 每一段一个，不用同步
+        reader.readParallel(file, sums.length, i -> row -> sums[i] += row.getDecimal(4, 2));
+        return LongStream.of(sums).sum();
+    }
+
+}
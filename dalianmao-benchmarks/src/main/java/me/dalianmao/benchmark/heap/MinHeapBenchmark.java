@@ -0,0 +1,144 @@
+package me.dalianmao.benchmark.heap;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.study.MinHeap;
+import me.dalianmao.util.heap.IntMinHeap;
+import me.dalianmao.util.heap.ObjectMinHeap;
+
+/**
+ * 对比{@code study.MinHeap}、{@code PriorityQueue}和各个堆的插入/弹出全部元素、建堆、保留最大的1000个
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MinHeapBenchmark {
+
+    private static final int TOP = 1000;
+
+    @Param({ "1000", "100000", "1048576" })
+    private int size;
+
+    private int[] values;
+    private Integer[] boxed;
+
+    @Setup
+    public void setUp() {
+        values = new Random(42).ints(size).toArray();
+        boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = values[i];
+        }
+    }
+
+    // 插入/弹出全部元素
+
+    @Benchmark
+    public long studyMinHeap() {
+        MinHeap heap = new MinHeap(size);
+        for (int value : values) {
+            heap.add(value);
+        }
+        long sum = 0;
+        while (heap.size() > 0) {
+            sum += heap.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long priorityQueue() {
+        PriorityQueue<Integer> queue = new PriorityQueue<>();
+        for (Integer value : boxed) {
+            queue.add(value);
+        }
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.poll();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long intMinHeap() {
+        IntMinHeap heap = new IntMinHeap();
+        for (int value : values) {
+            heap.add(value);
+        }
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long objectMinHeap() {
+        ObjectMinHeap<Integer> heap = new ObjectMinHeap<>();
+        for (Integer value : boxed) {
+            heap.add(value);
+        }
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.pop();
+        }
+        return sum;
+    }
+
+    // 建堆
+
+    @Benchmark
+    public int heapify() {
+        return new IntMinHeap(values, IntMinHeap.DEFAULT_ARITY).top();
+    }
+
+    // 保留最大的TOP个：PriorityQueue只能poll再offer，堆可以replaceTop
+
+    @Benchmark
+    public int priorityQueueTop() {
+        PriorityQueue<Integer> queue = new PriorityQueue<>(TOP);
+        for (Integer value : boxed) {
+            if (queue.size() < TOP) {
+                queue.add(value);
+            } else if (value > queue.peek()) {
+                queue.poll();
+                queue.add(value);
+            }
+        }
+        return queue.peek();
+    }
+
+    @Benchmark
+    public int intMinHeapTop() {
+        IntMinHeap heap = new IntMinHeap(TOP);
+        for (int value : values) {
+            if (heap.size() < TOP) {
+                heap.add(value);
+            } else if (value > heap.top()) {
+                heap.replaceTop(value);
+            }
+        }
+        return heap.top();
+    }
+
+}
@@ -0,0 +1,76 @@
+package me.dalianmao.benchmark.heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.heap.TopKUtil;
+
+/**
+ * 选出最大的k个，对比全部排序再取前k个
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+
+    @Param({ "10000", "1048576" })
+    private int size;
+
+    @Param({ "10", "100", "1000" })
+    private int k;
+
+    private int[] values;
+    private List<Integer> boxed;
+
+    @Setup
+    public void setUp() {
+        values = new Random(42).ints(size).toArray();
+        boxed = IntStream.of(values).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int arraysSort() {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[size - k];
+    }
+
+    @Benchmark
+    public int[] largest() {
+        return TopKUtil.largest(values, k);
+    }
+
+    @Benchmark
+    public List<Integer> streamSortedLimit() {
+        return boxed.stream().sorted(Comparator.reverseOrder()).limit(k).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> streamToLargest() {
+        return boxed.stream().collect(TopKUtil.toLargest(k, Comparator.naturalOrder()));
+    }
+
+}
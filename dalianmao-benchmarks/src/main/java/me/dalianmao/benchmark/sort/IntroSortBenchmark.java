@@ -0,0 +1,96 @@
+package me.dalianmao.benchmark.sort;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.study.QuickSort;
+import me.dalianmao.util.sort.IntroSort;
+import me.dalianmao.util.sort.QuickSelect;
+
+/**
+ * 对比{@code Arrays.sort}、{@code IntroSort}和{@code study.QuickSort}在随机、有序、逆序、大量重复输入上的耗时，以及快速选择中位数<br/>
+ *
+ * 每次都先复制输入，所有方法都包含复制的耗时；{@code study.QuickSort}在有序输入上退化成O(n^2)，递归深度是n，所以加大了线程栈
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+@State(Scope.Benchmark)
+public class IntroSortBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    @Param({ "random", "sorted", "reversed", "duplicates" })
+    private String input;
+
+    private int[] values;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new int[size];
+        switch (input) {
+        case "random":
+            values = random.ints(size).toArray();
+            break;
+        case "sorted":
+            for (int i = 0; i < size; i++) {
+                values[i] = i;
+            }
+            break;
+        case "reversed":
+            for (int i = 0; i < size; i++) {
+                values[i] = size - i;
+            }
+            break;
+        default:
+            values = random.ints(size, 0, 16).toArray();
+        }
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        int[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] introSort() {
+        int[] copy = values.clone();
+        IntroSort.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] studyQuickSort() {
+        int[] copy = values.clone();
+        QuickSort.sort(copy, 0, copy.length - 1);
+        return copy;
+    }
+
+    @Benchmark
+    public int quickSelectMedian() {
+        return QuickSelect.median(values.clone());
+    }
+
+}
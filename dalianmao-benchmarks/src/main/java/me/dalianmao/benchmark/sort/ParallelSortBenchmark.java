@@ -0,0 +1,72 @@
+package me.dalianmao.benchmark.sort;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.util.sort.ParallelSort;
+
+/**
+ * 在{@code threads}个线程的{@code ForkJoinPool}中并行排序，观察耗时随核数的变化；{@code Arrays.parallelSort}用公共线程池，不受{@code threads}影响
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ParallelSortBenchmark {
+
+    @Param({ "1048576", "16777216" })
+    private int size;
+
+    @Param({ "1", "2", "4", "8" })
+    private int threads;
+
+    private int[] values;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        values = new Random(42).ints(size).toArray();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] parallelSort() throws InterruptedException, ExecutionException {
+        int[] copy = values.clone();
+        pool.submit(() -> ParallelSort.sort(copy)).get();
+        return copy;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        int[] copy = values.clone();
+        Arrays.parallelSort(copy);
+        return copy;
+    }
+
+}
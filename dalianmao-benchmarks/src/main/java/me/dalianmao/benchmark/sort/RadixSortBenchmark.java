@@ -0,0 +1,156 @@
+package me.dalianmao.benchmark.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dalianmao.study.QuickSort;
+import me.dalianmao.util.sort.IntroSort;
+import me.dalianmao.util.sort.RadixSort;
+
+/**
+ * 对比{@code Arrays.sort}、{@code IntroSort}、{@code study.QuickSort}和{@code RadixSort}排序随机的int、id、最近30天的时间戳，以及按key排序对象；都包含复制输入的耗时
+ *
+ * @author xiezhenzong
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class RadixSortBenchmark {
+
+    private static final long NOW = 1500000000000L;
+    private static final Comparator<Item> BY_TIME = Comparator.comparingLong(Item::getTime);
+
+    @Param({ "1000", "100000", "8388608" })
+    private int size;
+
+    private int[] ints;
+    private long[] ids;
+    private long[] timestamps;
+    private Item[] items;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ints = random.ints(size).toArray();
+        ids = random.longs(size).toArray();
+        timestamps = random.longs(size, NOW - 30 * 86400000L, NOW).toArray();
+        items = new Item[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = new Item(timestamps[i]);
+        }
+    }
+
+    // int
+
+    @Benchmark
+    public int[] arraysSortInt() {
+        int[] copy = ints.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] introSortInt() {
+        int[] copy = ints.clone();
+        IntroSort.sort(copy);
+        return copy;
+    }
+
+    /**
+     * 输入是随机的，递归深度是O(log n)，不需要像{@code IntroSortBenchmark}那样加大线程栈
+     */
+    @Benchmark
+    public int[] studyQuickSortInt() {
+        int[] copy = ints.clone();
+        QuickSort.sort(copy, 0, copy.length - 1);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] radixSortInt() {
+        int[] copy = ints.clone();
+        RadixSort.sort(copy);
+        return copy;
+    }
+
+    // long
+
+    @Benchmark
+    public long[] arraysSortId() {
+        long[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public long[] radixSortId() {
+        long[] copy = ids.clone();
+        RadixSort.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public long[] arraysSortTimestamp() {
+        long[] copy = timestamps.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * 时间戳的高字节都一样，能跳过好几趟
+     */
+    @Benchmark
+    public long[] radixSortTimestamp() {
+        long[] copy = timestamps.clone();
+        RadixSort.sort(copy);
+        return copy;
+    }
+
+    // 按key排序
+
+    @Benchmark
+    public Item[] arraysSortByKey() {
+        Item[] copy = items.clone();
+        Arrays.sort(copy, BY_TIME);
+        return copy;
+    }
+
+    @Benchmark
+    public Item[] radixSortByKey() {
+        Item[] copy = items.clone();
+        RadixSort.sortByKey(copy, Item::getTime);
+        return copy;
+    }
+
+    public static class Item {
+
+        private final long time;
+
+        Item(long time) {
+            this.time = time;
+        }
+
+        long getTime() {
+            return time;
+        }
+    }
+
+}
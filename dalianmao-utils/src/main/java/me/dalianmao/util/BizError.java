@@ -17,5 +17,6 @@ public interface BizError extends Status {
     int NAME_TOO_SHORT = 106;
     int PASSWORD_TOO_WEAK = 107;
     int PASSWORD_INVALID = 108;
+    int DUPLICATE = 109;
 
 }
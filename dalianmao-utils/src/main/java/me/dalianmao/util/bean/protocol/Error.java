@@ -1,5 +1,6 @@
 package me.dalianmao.util.bean.protocol;
 
+import me.dalianmao.util.BizError;
 import me.dalianmao.util.bean.BaseObject;
 
 /**
@@ -39,4 +40,16 @@ public class Error extends BaseObject {
         this.message = message;
     }
 
+    /**
+     * 重复元素的错误，错误码是{@link BizError#DUPLICATE}，信息中带第一个重复元素的下标，如：{@code "ids[3] is duplicate"}
+     *
+     * @param name
+     *            参数名
+     * @param index
+     *            第一个重复元素的下标，一般是{@code indexOfDuplicate}的返回值
+     */
+    public static Error duplicate(String name, int index) {
+        return new Error(BizError.DUPLICATE, name + "[" + index + "] is duplicate");
+    }
+
 }
@@ -6,6 +6,7 @@ import org.springframework.util.Assert;
 
 import me.dalianmao.util.Status;
 import me.dalianmao.util.bean.BaseObject;
+import me.dalianmao.util.collection.ArrayUtil;
 import me.dalianmao.util.collection.ListUtil;
 
 /**
@@ -63,6 +64,26 @@ public class Response extends BaseObject {
         return addError(new Error(error));
     }
 
+    /**
+     * 有重复元素时添加{@link Error#duplicate(String, int)}，遇到第一个重复元素就停止检查
+     *
+     * @param name
+     *            参数名，用在错误信息里
+     * @param target
+     *            请求中的列表
+     */
+    public Response checkDuplicate(String name, List<?> target) {
+        return checkDuplicate(name, ListUtil.indexOfDuplicate(target));
+    }
+
+    public Response checkDuplicate(String name, long[] target) {
+        return checkDuplicate(name, target == null ? -1 : ArrayUtil.indexOfDuplicate(target));
+    }
+
+    private Response checkDuplicate(String name, int index) {
+        return index < 0 ? this : addError(Error.duplicate(name, index));
+    }
+
     public Response addData(Object item) {
         data.add(item);
         return this;
@@ -2,12 +2,20 @@ package me.dalianmao.util.collection;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoublePredicate;
 import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import me.dalianmao.util.Util;
@@ -17,6 +25,8 @@ import me.dalianmao.util.function.FunctionUtil;
  *
  * 数组常用操作方法，主要借助Java 8中{@code Stream}的API<br/>
  *
+ * {@code int[]}、{@code long[]}、{@code double[]}的重载方法不借助{@code Stream}，直接遍历基本类型数组，不装箱<br/>
+ *
  * 注意：因为各个方法中接受可变长度方法参数，并且不检查null，所以目标数组不要传null，会得到编译警告和{@code NullPointerException}，建议：
  *
  * <pre>{@code
@@ -38,6 +48,11 @@ import me.dalianmao.util.function.FunctionUtil;
  */
 public abstract class ArrayUtil {
 
+    /**
+     * 开放寻址哈希索引最多索引的元素个数，这时索引的容量是{@code 1 << 30}，负载因子正好是0.5
+     */
+    static final int MAX_INDEXED_SIZE = 1 << 29;
+
     // has方法
 
     /**
@@ -63,8 +78,146 @@ public abstract class ArrayUtil {
         return has(t -> t.isEmpty(), target);
     }
 
+    /**
+     * 检查是否有重复元素，包括重复的null，遇到第一个重复元素就返回
+     *
+     * @param target
+     *            目标数组
+     * @return true 有重复元素，false 没有
+     *
+     * @see ArrayUtil#indexOfDuplicate(Object...)
+     */
     public static boolean hasDuplicate(Object... target) {
-        return target.length != toSet(target).size();
+        return indexOfDuplicate(target) >= 0;
+    }
+
+    /**
+     * 查找第一个重复元素的下标，即第一个和前面某个元素相等的元素的下标，包括重复的null
+     *
+     * <ol>
+     * <li>遍历时用一个记录元素下标的哈希索引来判断是否重复，遇到第一个重复元素就返回，不会为每个元素分配对象
+     * <li>返回的下标可以直接用在错误信息里，如：{@code "ids[" + index + "] is duplicate"}
+     * <li>超过{@code 1 << 29}个元素时哈希索引放不下，改用{@code HashSet}，基本类型会装箱
+     * <li>基本类型数组没有{@code hasDuplicate}重载（会让{@code hasDuplicate(null)}产生歧义），请用{@code indexOfDuplicate(ids) >= 0}
+     * </ol>
+     *
+     * @param target
+     *            目标数组
+     * @return 第一个重复元素的下标，没有重复元素则返回-1
+     */
+    public static int indexOfDuplicate(Object... target) {
+        if (target.length > MAX_INDEXED_SIZE) {
+            return indexOfDuplicateBySet(target.length, i -> target[i]);
+        }
+        int[] index = new int[indexCapacity(target.length)]; // 保存目标数组的下标 + 1，0表示空位
+        int mask = index.length - 1;
+        for (int i = 0, n = target.length; i < n; i++) {
+            Object t = target[i];
+            int slot = mix(Objects.hashCode(t)) & mask;
+            while (index[slot] != 0) {
+                if (Objects.equals(t, target[index[slot] - 1])) {
+                    return i;
+                }
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return -1;
+    }
+
+    public static int indexOfDuplicate(int[] target) {
+        if (target.length > MAX_INDEXED_SIZE) {
+            return indexOfDuplicateBySet(target.length, i -> target[i]);
+        }
+        int[] index = new int[indexCapacity(target.length)];
+        int mask = index.length - 1;
+        for (int i = 0, n = target.length; i < n; i++) {
+            int t = target[i];
+            int slot = mix(t) & mask;
+            while (index[slot] != 0) {
+                if (target[index[slot] - 1] == t) {
+                    return i;
+                }
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return -1;
+    }
+
+    public static int indexOfDuplicate(long[] target) {
+        if (target.length > MAX_INDEXED_SIZE) {
+            return indexOfDuplicateBySet(target.length, i -> target[i]);
+        }
+        int[] index = new int[indexCapacity(target.length)];
+        int mask = index.length - 1;
+        for (int i = 0, n = target.length; i < n; i++) {
+            long t = target[i];
+            int slot = mix(Long.hashCode(t)) & mask;
+            while (index[slot] != 0) {
+                if (target[index[slot] - 1] == t) {
+                    return i;
+                }
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * 通过排序来检查是否有重复元素，不需要额外的哈希索引，适合内存紧张的场景
+     *
+     * 注意：会直接对{@code target}进行排序，如果需要保留原来的顺序，请先复制一份
+     *
+     * @param target
+     *            目标数组
+     * @return true 有重复元素，false 没有
+     *
+     * @see Arrays#sort(int[])
+     */
+    public static boolean hasDuplicateBySort(int[] target) {
+        Arrays.sort(target);
+        for (int i = 1, n = target.length; i < n; i++) {
+            if (target[i - 1] == target[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean hasDuplicateBySort(long[] target) {
+        Arrays.sort(target);
+        for (int i = 1, n = target.length; i < n; i++) {
+            if (target[i - 1] == target[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 通过排序来检查是否有重复元素，{@code comparator}返回0即认为重复
+     *
+     * 注意：会直接对{@code target}进行排序；如果有null元素，{@code comparator}需要能处理null，如：{@code Comparator.nullsFirst}
+     *
+     * @param comparator
+     *            比较器
+     * @param target
+     *            目标数组
+     * @return true 有重复元素，false 没有
+     *
+     * @see Arrays#sort(Object[], Comparator)
+     */
+    @SafeVarargs
+    public static <T> boolean hasDuplicateBySort(Comparator<? super T> comparator, T... target) {
+        Arrays.sort(target, comparator);
+        for (int i = 1, n = target.length; i < n; i++) {
+            if (comparator.compare(target[i - 1], target[i]) == 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     // filter方法
@@ -129,6 +282,95 @@ public abstract class ArrayUtil {
         return filter(t -> t < 0, Double[]::new, target);
     }
 
+    /**
+     * 构造新数组，包含原数组中满足条件的所有元素，不装箱
+     *
+     * <ol>
+     * <li>遍历一遍，每个元素只调用一次{@code predicate}，所以有状态的条件也能用，如：{@code IntHashSet::add}去重
+     * <li>满足条件的元素先放到和原数组一样大的临时数组中：所有元素都满足条件时直接返回临时数组，只分配一次；否则再截取成结果数组，多分配一次
+     * <li>先数个数再分配刚好大小的结果数组可以省掉临时数组，但每个元素要调用两次{@code predicate}，有状态的条件会出错，所以不这么做
+     * </ol>
+     *
+     * @param predicate
+     *            条件
+     * @param target
+     *            目标数组
+     * @return 新数组
+     *
+     * @see ArrayUtil#filter(Predicate, Integer...)
+     */
+    public static int[] filter(IntPredicate predicate, int[] target) {
+        return filter(predicate, target, 0, target.length);
+    }
+
+    public static long[] filter(LongPredicate predicate, long[] target) {
+        return filter(predicate, target, 0, target.length);
+    }
+
+    public static double[] filter(DoublePredicate predicate, double[] target) {
+        return filter(predicate, target, 0, target.length);
+    }
+
+    /**
+     * 过滤{@code target}的[from, to)区间
+     */
+    private static int[] filter(IntPredicate predicate, int[] target, int from, int to) {
+        int[] scratch = new int[to - from];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            if (predicate.test(target[i])) {
+                scratch[size++] = target[i];
+            }
+        }
+        return size == scratch.length ? scratch : Arrays.copyOf(scratch, size);
+    }
+
+    private static long[] filter(LongPredicate predicate, long[] target, int from, int to) {
+        long[] scratch = new long[to - from];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            if (predicate.test(target[i])) {
+                scratch[size++] = target[i];
+            }
+        }
+        return size == scratch.length ? scratch : Arrays.copyOf(scratch, size);
+    }
+
+    private static double[] filter(DoublePredicate predicate, double[] target, int from, int to) {
+        double[] scratch = new double[to - from];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            if (predicate.test(target[i])) {
+                scratch[size++] = target[i];
+            }
+        }
+        return size == scratch.length ? scratch : Arrays.copyOf(scratch, size);
+    }
+
+    public static int[] positive(int[] target) {
+        return filter(t -> t >= 0, target);
+    }
+
+    public static long[] positive(long[] target) {
+        return filter(t -> t >= 0, target);
+    }
+
+    public static double[] positive(double[] target) {
+        return filter(t -> t >= 0, target);
+    }
+
+    public static int[] negative(int[] target) {
+        return filter(t -> t < 0, target);
+    }
+
+    public static long[] negative(long[] target) {
+        return filter(t -> t < 0, target);
+    }
+
+    public static double[] negative(double[] target) {
+        return filter(t -> t < 0, target);
+    }
+
     // remove方法
 
     /**
@@ -152,6 +394,18 @@ public abstract class ArrayUtil {
         return filter(predicate.negate(), generator, target);
     }
 
+    public static int[] remove(IntPredicate predicate, int[] target) {
+        return filter(predicate.negate(), target);
+    }
+
+    public static long[] remove(LongPredicate predicate, long[] target) {
+        return filter(predicate.negate(), target);
+    }
+
+    public static double[] remove(DoublePredicate predicate, double[] target) {
+        return filter(predicate.negate(), target);
+    }
+
     @SafeVarargs
     public static <T> T[] removeNull(IntFunction<T[]> generator, T... target) {
         return Arrays.stream(target).filter(FunctionUtil.<T> nonNull()).toArray(generator);
@@ -181,6 +435,58 @@ public abstract class ArrayUtil {
         return removeNull(Boolean[]::new, target);
     }
 
+    /**
+     * 去除null元素并拆箱为基本类型数组，只分配一次结果数组
+     *
+     * @param target
+     *            目标数组
+     * @return 基本类型数组
+     *
+     * @see ArrayUtil#removeNull(Integer...)
+     */
+    public static int[] toIntArray(Integer... target) {
+        int[] result = new int[target.length - countNull(target)];
+        int index = 0;
+        for (Integer t : target) {
+            if (t != null) {
+                result[index++] = t;
+            }
+        }
+        return result;
+    }
+
+    public static long[] toLongArray(Long... target) {
+        long[] result = new long[target.length - countNull(target)];
+        int index = 0;
+        for (Long t : target) {
+            if (t != null) {
+                result[index++] = t;
+            }
+        }
+        return result;
+    }
+
+    public static double[] toDoubleArray(Double... target) {
+        double[] result = new double[target.length - countNull(target)];
+        int index = 0;
+        for (Double t : target) {
+            if (t != null) {
+                result[index++] = t;
+            }
+        }
+        return result;
+    }
+
+    private static int countNull(Object[] target) {
+        int count = 0;
+        for (Object t : target) {
+            if (t == null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     public static String[] removeEmpty(String... target) {
         return remove(t -> t.isEmpty(), String[]::new, target);
     }
@@ -204,7 +510,14 @@ public abstract class ArrayUtil {
     }
 
     /**
-     * 通过遍历来去重数组中的重复元素，故能维持数组顺序
+     * 遍历一遍数组，用一个记录元素在结果数组中位置的哈希索引来判断是否重复，故能维持数组顺序，时间复杂度O(n)
+     *
+     * <ol>
+     * <li>保留第一次出现的元素，包括null
+     * <li>先按原数组长度构造结果数组，最后再截取到去重后的长度
+     * <li>哈希索引只保存下标，不会为每个元素分配对象
+     * <li>超过{@code 1 << 29}个元素时哈希索引放不下，改用{@code Stream.distinct}
+     * </ol>
      *
      * @param generator
      *            新数组构造方法
@@ -216,19 +529,92 @@ public abstract class ArrayUtil {
      */
     @SafeVarargs
     public static <T> T[] removeDuplicateGuaranteeOrder(IntFunction<T[]> generator, T... target) {
-        T[] result = generator.apply(toSet(target).size());
-        int index = 0;
-        for (int i = 0, n = target.length; i < n; i++) {
-            T t = target[i];
-            int j = 0;
-            while (j < index && Util.nonEqual(t, result[j])) {
-                j++;
+        if (target.length > MAX_INDEXED_SIZE) {
+            return Stream.of(target).distinct().toArray(generator);
+        }
+        T[] result = generator.apply(target.length);
+        int[] index = new int[indexCapacity(target.length)]; // 保存结果数组的下标 + 1，0表示空位
+        int mask = index.length - 1, size = 0;
+        for (T t : target) {
+            int slot = mix(Objects.hashCode(t)) & mask;
+            while (index[slot] != 0 && Util.nonEqual(t, result[index[slot] - 1])) {
+                slot = (slot + 1) & mask;
             }
-            if (j == index) {
-                result[index++] = t;
+            if (index[slot] == 0) {
+                result[size++] = t;
+                index[slot] = size;
             }
         }
-        return result;
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    public static int[] removeDuplicateGuaranteeOrder(int[] target) {
+        if (target.length > MAX_INDEXED_SIZE) {
+            return IntStream.of(target).distinct().toArray();
+        }
+        int[] result = new int[target.length];
+        int[] index = new int[indexCapacity(target.length)];
+        int mask = index.length - 1, size = 0;
+        for (int t : target) {
+            int slot = mix(t) & mask;
+            while (index[slot] != 0 && result[index[slot] - 1] != t) {
+                slot = (slot + 1) & mask;
+            }
+            if (index[slot] == 0) {
+                result[size++] = t;
+                index[slot] = size;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    public static long[] removeDuplicateGuaranteeOrder(long[] target) {
+        if (target.length > MAX_INDEXED_SIZE) {
+            return LongStream.of(target).distinct().toArray();
+        }
+        long[] result = new long[target.length];
+        int[] index = new int[indexCapacity(target.length)];
+        int mask = index.length - 1, size = 0;
+        for (long t : target) {
+            int slot = mix(Long.hashCode(t)) & mask;
+            while (index[slot] != 0 && result[index[slot] - 1] != t) {
+                slot = (slot + 1) & mask;
+            }
+            if (index[slot] == 0) {
+                result[size++] = t;
+                index[slot] = size;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * 开放寻址哈希索引的容量，2的幂，{@code size}不超过{@link ArrayUtil#MAX_INDEXED_SIZE}时负载因子不超过0.5；再大也只返回{@code 1 << 30}，
+     * 这时索引可能被填满，线性探测会死循环，所以去重等方法在元素超过{@code MAX_INDEXED_SIZE}时改用{@code HashSet}
+     */
+    static int indexCapacity(int size) {
+        return size > MAX_INDEXED_SIZE >>> 1 ? 1 << 30 : Integer.highestOneBit(Math.max(size, 1)) << 2;
+    }
+
+    /**
+     * 超过{@link ArrayUtil#MAX_INDEXED_SIZE}个元素时用{@code HashSet}查找第一个重复元素的下标
+     */
+    private static int indexOfDuplicateBySet(int size, IntFunction<?> element) {
+        Set<Object> seen = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            if (!seen.add(element.apply(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 打散hashCode，避免连续的id都落在相邻的槽位上
+     */
+    static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 
     // count方法
@@ -251,6 +637,36 @@ public abstract class ArrayUtil {
         return Arrays.stream(target).filter(FunctionUtil.<T> nonNull().and(predicate)).count();
     }
 
+    public static long count(IntPredicate predicate, int[] target) {
+        long count = 0;
+        for (int t : target) {
+            if (predicate.test(t)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static long count(LongPredicate predicate, long[] target) {
+        long count = 0;
+        for (long t : target) {
+            if (predicate.test(t)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static long count(DoublePredicate predicate, double[] target) {
+        long count = 0;
+        for (double t : target) {
+            if (predicate.test(t)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     @SafeVarargs
     public static <T> List<T> toList(T... target) {
         List<T> result = new ArrayList<>(target.length);
@@ -265,6 +681,14 @@ public abstract class ArrayUtil {
         return toSet(new HashSet<>(target.length), target);
     }
 
+    public static IntHashSet toIntSet(int[] target) {
+        return new IntHashSet(target);
+    }
+
+    public static LongHashSet toLongSet(long[] target) {
+        return new LongHashSet(target);
+    }
+
     /**
      * 将数组转为有顺序的集合
      *
@@ -287,4 +711,190 @@ public abstract class ArrayUtil {
         return container;
     }
 
+    // parallel方法
+
+    /**
+     * 并行检查数组中是否有符合条件的元素，数组长度不超过{@code threshold}时等同于{@link ArrayUtil#has(Predicate, Object...)}
+     *
+     * @param predicate
+     *            条件，注意：在调用{@code predicate}之前先调用{@code nonNull}，并且会在多个线程中调用
+     * @param threshold
+     *            并行阈值
+     * @param target
+     *            目标数组
+     * @return true 存在符合条件的元素，false不存在
+     *
+     * @see ForkJoinUtil
+     */
+    public static <T> boolean parallelHas(Predicate<T> predicate, int threshold, T[] target) {
+        if (!ForkJoinUtil.shouldFork(target.length, threshold)) {
+            return has(predicate, target);
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ForkJoinUtil.forkRanges(target.length, threshold, (from, to) -> {
+            for (int i = from; i < to && !found.get(); i++) {
+                T t = target[i];
+                if (t != null && predicate.test(t)) {
+                    found.set(true);
+                }
+            }
+            return null;
+        });
+        return found.get();
+    }
+
+    public static <T> boolean parallelHas(Predicate<T> predicate, T[] target) {
+        return parallelHas(predicate, ForkJoinUtil.DEFAULT_THRESHOLD, target);
+    }
+
+    /**
+     * 并行构造新数组，包含原数组中满足条件的所有非null元素，并且维持原数组的顺序
+     *
+     * @param predicate
+     *            条件，注意：在调用{@code predicate}之前先调用{@code nonNull}，并且会在多个线程中调用
+     * @param generator
+     *            新数组构造方法
+     * @param threshold
+     *            并行阈值，数组长度不超过该值时等同于{@link ArrayUtil#filter(Predicate, IntFunction, Object...)}
+     * @param target
+     *            目标数组
+     * @return 新数组
+     *
+     * @see ForkJoinUtil
+     */
+    public static <T> T[] parallelFilter(Predicate<T> predicate, IntFunction<T[]> generator, int threshold, T[] target) {
+        if (!ForkJoinUtil.shouldFork(target.length, threshold)) {
+            return filter(predicate, generator, target);
+        }
+        List<Object[]> chunks = ForkJoinUtil.forkRanges(target.length, threshold, (from, to) -> {
+            Object[] chunk = new Object[to - from];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                T t = target[i];
+                if (t != null && predicate.test(t)) {
+                    chunk[size++] = t;
+                }
+            }
+            return Arrays.copyOf(chunk, size);
+        });
+        T[] result = generator.apply(chunks.stream().mapToInt(c -> c.length).sum());
+        int index = 0;
+        for (Object[] chunk : chunks) {
+            System.arraycopy(chunk, 0, result, index, chunk.length);
+            index += chunk.length;
+        }
+        return result;
+    }
+
+    public static <T> T[] parallelFilter(Predicate<T> predicate, IntFunction<T[]> generator, T[] target) {
+        return parallelFilter(predicate, generator, ForkJoinUtil.DEFAULT_THRESHOLD, target);
+    }
+
+    public static int[] parallelFilter(IntPredicate predicate, int threshold, int[] target) {
+        if (!ForkJoinUtil.shouldFork(target.length, threshold)) {
+            return filter(predicate, target);
+        }
+        List<int[]> chunks = ForkJoinUtil.forkRanges(target.length, threshold, (from, to) -> filter(predicate, target, from, to));
+        int[] result = new int[chunks.stream().mapToInt(c -> c.length).sum()];
+        int index = 0;
+        for (int[] chunk : chunks) {
+            System.arraycopy(chunk, 0, result, index, chunk.length);
+            index += chunk.length;
+        }
+        return result;
+    }
+
+    public static int[] parallelFilter(IntPredicate predicate, int[] target) {
+        return parallelFilter(predicate, ForkJoinUtil.DEFAULT_THRESHOLD, target);
+    }
+
+    public static long[] parallelFilter(LongPredicate predicate, int threshold, long[] target) {
+        if (!ForkJoinUtil.shouldFork(target.length, threshold)) {
+            return filter(predicate, target);
+        }
+        List<long[]> chunks = ForkJoinUtil.forkRanges(target.length, threshold, (from, to) -> filter(predicate, target, from, to));
+        long[] result = new long[chunks.stream().mapToInt(c -> c.length).sum()];
+        int index = 0;
+        for (long[] chunk : chunks) {
+            System.arraycopy(chunk, 0, result, index, chunk.length);
+            index += chunk.length;
+        }
+        return result;
+    }
+
+    public static long[] parallelFilter(LongPredicate predicate, long[] target) {
+        return parallelFilter(predicate, ForkJoinUtil.DEFAULT_THRESHOLD, target);
+    }
+
+    /**
+     * 并行计算满足条件的非null元素个数
+     *
+     * @param predicate
+     *            条件，注意：在调用{@code predicate}之前先调用{@code nonNull}，并且会在多个线程中调用
+     * @param threshold
+     *            并行阈值，数组长度不超过该值时等同于{@link ArrayUtil#count(Predicate, Object...)}
+     * @param target
+     *            目标数组
+     * @return 个数
+     *
+     * @see ForkJoinUtil
+     */
+    public static <T> long parallelCount(Predicate<T> predicate, int threshold, T[] target) {
+        if (!ForkJoinUtil.shouldFork(target.length, threshold)) {
+            return count(predicate, target);
+        }
+        return ForkJoinUtil.forkRanges(target.length, threshold, (from, to) -> {
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                T t = target[i];
+                if (t != null && predicate.test(t)) {
+                    count++;
+                }
+            }
+            return count;
+        }).stream().mapToLong(Long::longValue).sum();
+    }
+
+    public static <T> long parallelCount(Predicate<T> predicate, T[] target) {
+        return parallelCount(predicate, ForkJoinUtil.DEFAULT_THRESHOLD, target);
+    }
+
+    public static long parallelCount(IntPredicate predicate, int threshold, int[] target) {
+        if (!ForkJoinUtil.shouldFork(target.length, threshold)) {
+            return count(predicate, target);
+        }
+        return ForkJoinUtil.forkRanges(target.length, threshold, (from, to) -> {
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                if (predicate.test(target[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }).stream().mapToLong(Long::longValue).sum();
+    }
+
+    public static long parallelCount(IntPredicate predicate, int[] target) {
+        return parallelCount(predicate, ForkJoinUtil.DEFAULT_THRESHOLD, target);
+    }
+
+    public static long parallelCount(LongPredicate predicate, int threshold, long[] target) {
+        if (!ForkJoinUtil.shouldFork(target.length, threshold)) {
+            return count(predicate, target);
+        }
+        return ForkJoinUtil.forkRanges(target.length, threshold, (from, to) -> {
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                if (predicate.test(target[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }).stream().mapToLong(Long::longValue).sum();
+    }
+
+    public static long parallelCount(LongPredicate predicate, long[] target) {
+        return parallelCount(predicate, ForkJoinUtil.DEFAULT_THRESHOLD, target);
+    }
+
 }
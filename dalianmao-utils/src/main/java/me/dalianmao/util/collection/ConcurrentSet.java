@@ -0,0 +1,176 @@
+package me.dalianmao.util.collection;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于{@code ConcurrentHashMap<T, T>}的线程安全集合，在{@code SetUtil.newConcurrentSet}之外提供：
+ *
+ * <ol>
+ * <li>{@link ConcurrentSet#addIfAbsent(Object)}：元素已经存在时返回已有的元素，可以用来合并进行中的相同请求
+ * <li>可选的容量上限，达到上限后{@code add}会抛出{@code IllegalStateException}，和{@code Queue.add}一致
+ * </ol>
+ *
+ * 注意：不支持null元素
+ *
+ * @author xiezhenzong
+ *
+ * @see SetUtil#newConcurrentSet(int, int)
+ * @see StripedLongHashSet
+ */
+public class ConcurrentSet<T> extends AbstractSet<T> {
+
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final ConcurrentHashMap<T, T> map;
+    private final int maxSize;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ConcurrentSet() {
+        this(16, UNBOUNDED);
+    }
+
+    /**
+     * @param expectedSize
+     *            预计的元素个数
+     * @param maxSize
+     *            容量上限，{@link ConcurrentSet#UNBOUNDED}表示没有上限
+     */
+    public ConcurrentSet(int expectedSize, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.map = new ConcurrentHashMap<>(Math.min(expectedSize, maxSize));
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 元素不存在时添加，存在时返回已有的元素
+     *
+     * @param element
+     *            元素
+     * @return 已有的元素，添加成功则返回null
+     * @throws IllegalStateException
+     *             已经达到容量上限
+     */
+    public T addIfAbsent(T element) {
+        T existing = map.get(element);
+        if (existing != null) {
+            return existing;
+        }
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            existing = map.get(element); // 满了之后再确认一次，已经存在的元素不应该抛出异常
+            if (existing != null) {
+                return existing;
+            }
+            throw new IllegalStateException("set is full, maxSize: " + maxSize);
+        }
+        existing = map.putIfAbsent(element, element);
+        if (existing != null) {
+            size.decrementAndGet();
+        }
+        return existing;
+    }
+
+    /**
+     * @return true 添加成功，false 已经存在
+     * @throws IllegalStateException
+     *             已经达到容量上限
+     */
+    @Override
+    public boolean add(T element) {
+        return addIfAbsent(element) == null;
+    }
+
+    /**
+     * 批量添加，不是原子的
+     *
+     * @throws IllegalStateException
+     *             达到容量上限，前面的元素已经添加成功
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> elements) {
+        boolean changed = false;
+        for (T element : elements) {
+            changed |= add(element);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return map.containsKey(element);
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        if (map.remove(element) != null) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 批量移除，不是原子的
+     */
+    @Override
+    public boolean removeAll(Collection<?> elements) {
+        boolean changed = false;
+        for (Object element : elements) {
+            changed |= remove(element);
+        }
+        return changed;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public void clear() {
+        for (T element : map.keySet()) {
+            remove(element);
+        }
+    }
+
+    /**
+     * @return 弱一致的迭代器，{@code remove}会同步更新集合大小
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<T> iterator = map.keySet().iterator();
+        return new Iterator<T>() {
+
+            private T current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return current = iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentSet.this.remove(current);
+                current = null;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package me.dalianmao.util.collection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 集合工具类中{@code parallel}系列方法的公共部分，基于{@code ForkJoinPool.commonPool()}
+ *
+ * <ol>
+ * <li>数组和{@code RandomAccess}链表按下标切成若干区间，每个区间由一个子任务顺序处理
+ * <li>元素个数不超过{@code threshold}时，直接调用对应的顺序方法，不会提交任何任务
+ * <li>各区间的结果按区间顺序合并，所以结果的顺序和顺序方法一致
+ * </ol>
+ *
+ * @author xiezhenzong
+ *
+ * @see ArrayUtil#parallelFilter(java.util.function.Predicate, java.util.function.IntFunction, int, Object[])
+ * @see ListUtil#parallelConvert(List, java.util.function.Function, int)
+ * @see IterableUtil#parallelToMap(Iterable, java.util.function.Function, java.util.function.Function, int)
+ */
+public abstract class ForkJoinUtil {
+
+    /**
+     * 默认的并行阈值，元素个数超过该值才会并行处理，同时也是每个区间的最小大小
+     */
+    public static final int DEFAULT_THRESHOLD = 8192;
+
+    /**
+     * 是否需要并行处理
+     *
+     * @param target
+     *            目标，只有{@code RandomAccess}的链表才能按下标切分
+     * @param threshold
+     *            并行阈值
+     * @return true 需要并行处理，false 顺序处理即可
+     */
+    static boolean shouldFork(Iterable<?> target, int threshold) {
+        return target instanceof List && target instanceof RandomAccess && shouldFork(((List<?>) target).size(), threshold);
+    }
+
+    static boolean shouldFork(int size, int threshold) {
+        return size > Math.max(threshold, 1);
+    }
+
+    /**
+     * 将[0, size)切成若干区间，并行调用{@code leaf}处理每个区间
+     *
+     * @param size
+     *            元素个数
+     * @param threshold
+     *            每个区间的最小大小
+     * @param leaf
+     *            区间处理方法
+     * @return 按区间顺序排列的结果
+     */
+    @SuppressWarnings("unchecked")
+    static <R> List<R> forkRanges(int size, int threshold, RangeFunction<R> leaf) {
+        int chunks = ForkJoinPool.getCommonPoolParallelism() << 2;
+        int chunkSize = Math.max(Math.max(threshold, 1), (size + chunks - 1) / chunks);
+        Object[] results = new Object[(size + chunkSize - 1) / chunkSize];
+        ForkJoinPool.commonPool().invoke(new RangeTask(0, results.length, size, chunkSize, leaf, results));
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * 处理[from, to)区间的方法
+     */
+    @FunctionalInterface
+    interface RangeFunction<R> {
+
+        R apply(int from, int to);
+
+    }
+
+    /**
+     * 二分区间编号，直到只剩一个区间时调用{@code leaf}，结果按区间编号放到{@code results}中
+     */
+    @SuppressWarnings("serial")
+    private static class RangeTask extends RecursiveAction {
+
+        private final int low;
+        private final int high;
+        private final int size;
+        private final int chunkSize;
+        private final RangeFunction<?> leaf;
+        private final Object[] results;
+
+        RangeTask(int low, int high, int size, int chunkSize, RangeFunction<?> leaf, Object[] results) {
+            this.low = low;
+            this.high = high;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.leaf = leaf;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low == 1) {
+                int from = low * chunkSize;
+                results[low] = leaf.apply(from, Math.min(size, from + chunkSize));
+            } else {
+                int middle = (low + high) >>> 1;
+                invokeAll(new RangeTask(low, middle, size, chunkSize, leaf, results),
+                        new RangeTask(middle, high, size, chunkSize, leaf, results));
+            }
+        }
+    }
+}
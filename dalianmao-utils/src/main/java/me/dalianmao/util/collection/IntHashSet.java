@@ -0,0 +1,262 @@
+package me.dalianmao.util.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * 元素为{@code int}的集合，开放寻址、线性探测，元素不装箱，也不会为每个元素分配对象<br/>
+ *
+ * 每个元素只占用{@code int}数组中的一个槽位，负载因子不超过0.5，百万个id大约8M，而{@code HashSet<Integer>}大约50M<br/>
+ *
+ * 注意：不是线程安全的
+ *
+ * @author xiezhenzong
+ *
+ * @see SetUtil#newIntSet(int)
+ * @see LongHashSet
+ */
+public class IntHashSet {
+
+    private int[] table; // 0表示空槽位，元素0用hasZero单独记录
+    private boolean hasZero;
+    private int size;
+
+    public IntHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize
+     *            预计的元素个数，放入这么多元素之前不会扩容
+     */
+    public IntHashSet(int expectedSize) {
+        this.table = new int[ArrayUtil.indexCapacity(expectedSize)];
+    }
+
+    /**
+     * 用数组中的元素构造集合，按数组长度预先设置容量
+     *
+     * @param elements
+     *            元素
+     */
+    public IntHashSet(int[] elements) {
+        this(elements.length);
+        addAll(elements);
+    }
+
+    /**
+     * @return true 集合中原来没有该元素，false 已经存在
+     */
+    public boolean add(int element) {
+        if (element == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int slot = hash(element) & mask;
+        while (table[slot] != 0) {
+            if (table[slot] == element) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = element;
+        if (++size > table.length >>> 1) {
+            resize(table.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @return true 集合有变化
+     */
+    public boolean addAll(int... elements) {
+        boolean changed = false;
+        for (int element : elements) {
+            changed |= add(element);
+        }
+        return changed;
+    }
+
+    public boolean contains(int element) {
+        return element == 0 ? hasZero : slot(element) >= 0;
+    }
+
+    /**
+     * @return true 集合中原来有该元素
+     */
+    public boolean remove(int element) {
+        if (element == 0) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int gap = slot(element);
+        if (gap < 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        table[gap] = 0;
+        size--;
+        // 后移删除：把后面探测链上的元素往前挪，填上空出来的槽位，不需要墓碑
+        for (int i = (gap + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int home = hash(table[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                table[gap] = table[i];
+                table[i] = 0;
+                gap = i;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * @return 所有元素，顺序不确定
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int j = 0;
+        if (hasZero) {
+            j++; // result[0]已经是0
+        }
+        for (int i = 0; j < size; i++) {
+            if (table[i] != 0) {
+                result[j++] = table[i];
+            }
+        }
+        return result;
+    }
+
+    public void forEach(IntConsumer consumer) {
+        if (hasZero) {
+            consumer.accept(0);
+        }
+        for (int element : table) {
+            if (element != 0) {
+                consumer.accept(element);
+            }
+        }
+    }
+
+    /**
+     * @return 不装箱的迭代器，使用{@code nextInt()}遍历，不支持{@code remove}
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+
+            private int index = hasZero ? -1 : 0; // -1表示元素0
+            private int remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                if (index < 0) {
+                    index = 0;
+                    return 0;
+                }
+                while (table[index] == 0) {
+                    index++;
+                }
+                return table[index++];
+            }
+        };
+    }
+
+    private int slot(int element) {
+        int mask = table.length - 1;
+        int slot = hash(element) & mask;
+        while (table[slot] != 0) {
+            if (table[slot] == element) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int element : old) {
+            if (element != 0) {
+                int slot = hash(element) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = element;
+            }
+        }
+    }
+
+    private static int hash(int element) {
+        return ArrayUtil.mix(element);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IntHashSet)) {
+            return false;
+        }
+        IntHashSet other = (IntHashSet) obj;
+        if (other.size != size || other.hasZero != hasZero) {
+            return false;
+        }
+        for (int element : table) {
+            if (element != 0 && !other.contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int element : table) {
+            hashCode += element;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        forEach(element -> builder.append(builder.length() > 1 ? ", " : "").append(element));
+        return builder.append(']').toString();
+    }
+}
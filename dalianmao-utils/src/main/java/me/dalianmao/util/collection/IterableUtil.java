@@ -1,11 +1,20 @@
 package me.dalianmao.util.collection;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.StreamSupport;
 
 import org.slf4j.Logger;
@@ -24,6 +33,8 @@ public abstract class IterableUtil {
 
     private static final Logger LOG = LoggerFactory.getLogger(IterableUtil.class);
 
+    private static final int MAX_ESTIMATE_LENGTH = 1 << 20;
+
     // join 方法
 
     /**
@@ -38,22 +49,14 @@ public abstract class IterableUtil {
      * @return 拼接后的字符串
      *
      * @see ListUtil#split(String, String, Function)
+     * @see IterableUtil#joinTo(Appendable, Iterable, String, Function)
      */
     public static <T> String join(Iterable<T> target, String separator, Function<T, String> printer) {
-        Iterator<T> iterator = target.iterator();
-        StringBuilder builder = new StringBuilder();
-        iterator.forEachRemaining(item -> {
-            if (item != null) {
-                builder.append(printer.apply(item)).append(separator);
-            } else {
-                LOG.debug("[IterableUtil#join] skip a null item ");
-            }
-        });
-        if (builder.length() > 0) {
-            int length = builder.length();
-            builder.delete(length - separator.length(), length);
+        try {
+            return joinTo(new StringBuilder(estimateLength(target, separator)), target, separator, printer).toString();
+        } catch (IOException e) { // StringBuilder不会抛出IOException
+            throw new UncheckedIOException(e);
         }
-        return builder.toString();
     }
 
     /**
@@ -88,23 +91,15 @@ public abstract class IterableUtil {
      *            默认字符串
      * @return 拼接后的字符串
      *
+     * @see IterableUtil#joinWithDefaultTo(Appendable, Iterable, String, Function, String)
      */
     public static <T> String joinWithDefault(Iterable<T> target, String separator, Function<T, String> printer, String defaultValue) {
-        Iterator<T> iterator = target.iterator();
-        StringBuilder builder = new StringBuilder();
-        iterator.forEachRemaining(t -> {
-            if (t != null) {
-                builder.append(printer.apply(t));
-            } else {
-                builder.append(defaultValue);
-            }
-            builder.append(separator);
-        });
-        if (builder.length() > 0) {
-            int length = builder.length();
-            builder.delete(length - separator.length(), length);
+        try {
+            return joinWithDefaultTo(new StringBuilder(estimateLength(target, separator)), target, separator, printer, defaultValue)
+                    .toString();
+        } catch (IOException e) { // StringBuilder不会抛出IOException
+            throw new UncheckedIOException(e);
         }
-        return builder.toString();
     }
 
     public static <T> String joinWithDefault(Iterable<T> target, String separator, String defaultValue) {
@@ -115,6 +110,94 @@ public abstract class IterableUtil {
         return joinWithDefault(target, String.valueOf(separator), defaultValue);
     }
 
+    /**
+     * 将对象直接拼接到{@code output}中，并且跳过null元素，只在元素之间写分隔符，不会写末尾的分隔符
+     *
+     * 拼接CSV的一行、日志、SQL的IN列表等较大的内容时，可以直接写到{@code Writer}或者已有的{@code StringBuilder}中，不需要中间的字符串
+     *
+     * @param output
+     *            输出目标，如：{@code Writer}、{@code StringBuilder}
+     * @param target
+     *            拼接的目标
+     * @param separator
+     *            分隔符
+     * @param printer
+     *            打印器
+     * @return {@code output}
+     * @throws IOException
+     *             {@code output}写入失败
+     */
+    public static <T, A extends Appendable> A joinTo(A output, Iterable<T> target, CharSequence separator, Function<T, ? extends CharSequence> printer)
+            throws IOException {
+        boolean first = true;
+        for (T item : target) {
+            if (item == null) {
+                LOG.debug("[IterableUtil#joinTo] skip a null item ");
+                continue;
+            }
+            if (!first) {
+                output.append(separator);
+            }
+            output.append(printer.apply(item));
+            first = false;
+        }
+        return output;
+    }
+
+    public static <T, A extends Appendable> A joinTo(A output, Iterable<T> target, CharSequence separator) throws IOException {
+        return joinTo(output, target, separator, t -> t.toString());
+    }
+
+    public static <T, A extends Appendable> A joinTo(A output, Iterable<T> target, char separator) throws IOException {
+        return joinTo(output, target, String.valueOf(separator));
+    }
+
+    /**
+     * 将对象直接拼接到{@code output}中，当遇到null元素，使用{@code defaultValue}替代，不会写末尾的分隔符
+     *
+     * @param output
+     *            输出目标，如：{@code Writer}、{@code StringBuilder}
+     * @param target
+     *            拼接的目标
+     * @param separator
+     *            分隔符
+     * @param printer
+     *            打印器
+     * @param defaultValue
+     *            默认字符串
+     * @return {@code output}
+     * @throws IOException
+     *             {@code output}写入失败
+     */
+    public static <T, A extends Appendable> A joinWithDefaultTo(A output, Iterable<T> target, CharSequence separator,
+            Function<T, ? extends CharSequence> printer, CharSequence defaultValue) throws IOException {
+        boolean first = true;
+        for (T item : target) {
+            if (!first) {
+                output.append(separator);
+            }
+            output.append(item != null ? printer.apply(item) : defaultValue);
+            first = false;
+        }
+        return output;
+    }
+
+    public static <T, A extends Appendable> A joinWithDefaultTo(A output, Iterable<T> target, CharSequence separator, CharSequence defaultValue)
+            throws IOException {
+        return joinWithDefaultTo(output, target, separator, t -> t.toString(), defaultValue);
+    }
+
+    /**
+     * 预估拼接后的长度，{@code Collection}按每个元素16个字符估算，其他的使用{@code StringBuilder}的默认大小
+     */
+    private static int estimateLength(Iterable<?> target, CharSequence separator) {
+        if (!(target instanceof Collection)) {
+            return 16;
+        }
+        long length = (long) ((Collection<?>) target).size() * (16 + separator.length());
+        return (int) Math.min(length, MAX_ESTIMATE_LENGTH);
+    }
+
     // has方法
 
     /**
@@ -134,6 +217,41 @@ public abstract class IterableUtil {
         return StreamSupport.stream(target.spliterator(), false).anyMatch(FunctionUtil.isNull());
     }
 
+    /**
+     * 并行检查迭代器中是否有符合条件的元素，某个区间找到后其他区间会尽快结束
+     *
+     * @param target
+     *            目标，只有{@code RandomAccess}的链表并且元素个数超过{@code threshold}时才并行检查，否则等同于{@link IterableUtil#has(Iterable, Predicate)}
+     * @param predicate
+     *            条件，注意：在调用{@code predicate}之前先调用{@code nonNull}，并且会在多个线程中调用
+     * @param threshold
+     *            并行阈值
+     * @return true 存在符合条件的元素，false不存在
+     *
+     * @see ForkJoinUtil
+     */
+    public static <T> boolean parallelHas(Iterable<T> target, Predicate<T> predicate, int threshold) {
+        if (!ForkJoinUtil.shouldFork(target, threshold)) {
+            return has(target, predicate);
+        }
+        List<T> list = (List<T>) target;
+        AtomicBoolean found = new AtomicBoolean();
+        ForkJoinUtil.forkRanges(list.size(), threshold, (from, to) -> {
+            for (int i = from; i < to && !found.get(); i++) {
+                T t = list.get(i);
+                if (t != null && predicate.test(t)) {
+                    found.set(true);
+                }
+            }
+            return null;
+        });
+        return found.get();
+    }
+
+    public static <T> boolean parallelHas(Iterable<T> target, Predicate<T> predicate) {
+        return parallelHas(target, predicate, ForkJoinUtil.DEFAULT_THRESHOLD);
+    }
+
     /**
      * 检查是否有空的字符串
      *
@@ -148,23 +266,70 @@ public abstract class IterableUtil {
     // filter方法
 
     /**
-     * 筛选迭代器中符合条件的元素
+     * 就地筛选迭代器中符合条件的元素，移除null和不符合条件的元素
+     *
+     * <ol>
+     * <li>{@code Collection}使用{@link Collection#removeIf(Predicate)}，其他的使用{@link Iterator#remove()}，不会复制元素
+     * <li>目标需要是可修改的，否则会抛出{@code UnsupportedOperationException}
+     * </ol>
      *
      * @param predicate
      *            条件，注意：在调用{@code predicate}之前先调用{@code nonNull}，即： nonNull && predicate
      * @param target
      *            目标迭代器
+     * @return true 移除了元素，false 没有移除任何元素
+     *
+     * @see IterableUtil#filterView(Iterable, Predicate)
      */
-    public static <T> void filter(Iterable<T> target, Predicate<T> predicate) {
-        StreamSupport.stream(target.spliterator(), false).filter(FunctionUtil.<T> nonNull().and(predicate));
+    public static <T> boolean filter(Iterable<T> target, Predicate<T> predicate) {
+        if (target instanceof Collection) {
+            return ((Collection<T>) target).removeIf(t -> t == null || !predicate.test(t));
+        }
+        boolean removed = false;
+        for (Iterator<T> iterator = target.iterator(); iterator.hasNext();) {
+            T t = iterator.next();
+            if (t == null || !predicate.test(t)) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
     }
 
-    public static <T> void filterNonNull(Iterable<T> target) {
-        StreamSupport.stream(target.spliterator(), false).filter(FunctionUtil.<T> nonNull());
+    public static <T> boolean filterNonNull(Iterable<T> target) {
+        return filter(target, t -> true);
     }
 
-    public static void filterNonEmpty(Iterable<String> target) {
-        filter(target, t -> t.length() > 0);
+    public static boolean filterNonEmpty(Iterable<String> target) {
+        return filter(target, t -> t.length() > 0);
+    }
+
+    /**
+     * 构造一个延迟筛选的视图，遍历时才跳过null和不符合条件的元素
+     *
+     * <ol>
+     * <li>不复制元素，每次遍历只分配一个迭代器，可以在转化之前先筛选DAO返回的大结果集，而不需要中间链表
+     * <li>视图反映{@code target}的最新内容，视图的迭代器不支持{@code remove}
+     * </ol>
+     *
+     * @param target
+     *            目标迭代器
+     * @param predicate
+     *            条件，注意：在调用{@code predicate}之前先调用{@code nonNull}，即： nonNull && predicate
+     * @return 筛选视图
+     *
+     * @see IterableUtil#filter(Iterable, Predicate)
+     */
+    public static <T> Iterable<T> filterView(Iterable<T> target, Predicate<T> predicate) {
+        return () -> new FilterIterator<>(target.iterator(), predicate);
+    }
+
+    public static <T> Iterable<T> filterNonNullView(Iterable<T> target) {
+        return filterView(target, t -> true);
+    }
+
+    public static Iterable<String> filterNonEmptyView(Iterable<String> target) {
+        return filterView(target, t -> t.length() > 0);
     }
 
     // toMap方法
@@ -199,14 +364,201 @@ public abstract class IterableUtil {
      *          收集元素到map中也可以使用{@code Collectors}中各种{@code toMap}方法
      */
     public static <K, V, T> Map<K, V> toMap(Iterable<T> target, Function<T, K> keyMapper, Function<T, V> valueMapper) {
-        Iterator<T> iterator = target.iterator();
-        Map<K, V> result = new HashMap<>();
-        while (iterator.hasNext()) {
-            T item = iterator.next();
+        Map<K, V> result = new HashMap<>(mapCapacity(target));
+        for (T item : target) {
             if (item != null) {
                 result.put(keyMapper.apply(item), valueMapper.apply(item));
             }
         }
         return result;
     }
+
+    /**
+     * 将链表中的元素转化为map，并且跳过null元素，如果key一样的则使用{@code merger}合并新旧两个值
+     *
+     * 和{@code Map.merge}不同，value可以为null，{@code merger}返回null时也会放入null，而不是移除key
+     *
+     * @param target
+     *            目标链表，{@code Collection}会按{@code size()}预先设置map的容量
+     * @param keyMapper
+     *            key映射
+     * @param valueMapper
+     *            value映射
+     * @param merger
+     *            合并方法，参数依次为旧值和新值
+     * @return 结果map
+     *
+     * @see java.util.stream.Collectors#toMap(Function, Function, BinaryOperator)
+     */
+    public static <K, V, T> Map<K, V> toMap(Iterable<T> target, Function<T, K> keyMapper, Function<T, V> valueMapper,
+            BinaryOperator<V> merger) {
+        Map<K, V> result = new HashMap<>(mapCapacity(target));
+        for (T item : target) {
+            if (item != null) {
+                K key = keyMapper.apply(item);
+                V value = valueMapper.apply(item), old = result.get(key);
+                if (old != null || result.containsKey(key)) {
+                    value = merger.apply(old, value);
+                }
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按{@code long}类型的key建立索引，如：按id索引实体，跳过null元素，如果key一样的则使用最新的值
+     *
+     * @param target
+     *            目标链表，{@code Collection}会按{@code size()}预先设置map的容量
+     * @param keyMapper
+     *            key映射
+     * @param valueMapper
+     *            value映射
+     * @return 结果map，key不装箱
+     *
+     * @see LongObjectMap
+     */
+    public static <V, T> LongObjectMap<V> toLongMap(Iterable<T> target, ToLongFunction<T> keyMapper, Function<T, V> valueMapper) {
+        LongObjectMap<V> result = new LongObjectMap<>(expectedSize(target));
+        for (T item : target) {
+            if (item != null) {
+                result.put(keyMapper.applyAsLong(item), valueMapper.apply(item));
+            }
+        }
+        return result;
+    }
+
+    public static <T> LongObjectMap<T> toLongMap(Iterable<T> target, ToLongFunction<T> keyMapper) {
+        return toLongMap(target, keyMapper, Function.identity());
+    }
+
+    /**
+     * 按{@code int}类型的key建立索引，跳过null元素，如果key一样的则使用最新的值
+     *
+     * @param target
+     *            目标链表，{@code Collection}会按{@code size()}预先设置map的容量
+     * @param keyMapper
+     *            key映射
+     * @param valueMapper
+     *            value映射
+     * @return 结果map，key不装箱
+     *
+     * @see IntObjectMap
+     */
+    public static <V, T> IntObjectMap<V> toIntMap(Iterable<T> target, ToIntFunction<T> keyMapper, Function<T, V> valueMapper) {
+        IntObjectMap<V> result = new IntObjectMap<>(expectedSize(target));
+        for (T item : target) {
+            if (item != null) {
+                result.put(keyMapper.applyAsInt(item), valueMapper.apply(item));
+            }
+        }
+        return result;
+    }
+
+    public static <T> IntObjectMap<T> toIntMap(Iterable<T> target, ToIntFunction<T> keyMapper) {
+        return toIntMap(target, keyMapper, Function.identity());
+    }
+
+    private static int expectedSize(Iterable<?> target) {
+        return target instanceof Collection ? ((Collection<?>) target).size() : 16;
+    }
+
+    /**
+     * 按{@code HashMap}默认的负载因子计算容量，放入{@code expectedSize}个元素之前不会扩容
+     */
+    private static int mapCapacity(Iterable<?> target) {
+        return (int) (expectedSize(target) / 0.75f) + 1;
+    }
+
+    /**
+     * 并行计算key和value，再按原顺序放到map中，跳过null元素，如果key一样的则使用最新的值
+     *
+     * <ol>
+     * <li>只有{@code RandomAccess}的链表并且元素个数超过{@code threshold}时才并行计算，否则等同于{@link IterableUtil#toMap(Iterable, Function, Function)}
+     * <li>{@code keyMapper}和{@code valueMapper}会在多个线程中调用，需要是线程安全的
+     * </ol>
+     *
+     * @param target
+     *            目标链表
+     * @param keyMapper
+     *            key映射
+     * @param valueMapper
+     *            value映射
+     * @param threshold
+     *            并行阈值
+     * @return 结果map
+     *
+     * @see ForkJoinUtil
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V, T> Map<K, V> parallelToMap(Iterable<T> target, Function<T, K> keyMapper, Function<T, V> valueMapper,
+            int threshold) {
+        if (!ForkJoinUtil.shouldFork(target, threshold)) {
+            return toMap(target, keyMapper, valueMapper);
+        }
+        List<T> list = (List<T>) target;
+        List<Object[]> chunks = ForkJoinUtil.forkRanges(list.size(), threshold, (from, to) -> {
+            Object[] entries = new Object[(to - from) << 1]; // key和value交替存放
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                T item = list.get(i);
+                if (item != null) {
+                    entries[size++] = keyMapper.apply(item);
+                    entries[size++] = valueMapper.apply(item);
+                }
+            }
+            return size == entries.length ? entries : Arrays.copyOf(entries, size);
+        });
+        Map<K, V> result = new HashMap<>(mapCapacity(list));
+        for (Object[] entries : chunks) {
+            for (int i = 0; i < entries.length; i += 2) {
+                result.put((K) entries[i], (V) entries[i + 1]);
+            }
+        }
+        return result;
+    }
+
+    public static <K, V, T> Map<K, V> parallelToMap(Iterable<T> target, Function<T, K> keyMapper, Function<T, V> valueMapper) {
+        return parallelToMap(target, keyMapper, valueMapper, ForkJoinUtil.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 预读下一个符合条件的元素的迭代器
+     */
+    private static class FilterIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> iterator;
+        private final Predicate<T> predicate;
+        private T next;
+        private boolean ready;
+
+        FilterIterator(Iterator<T> iterator, Predicate<T> predicate) {
+            this.iterator = iterator;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!ready && iterator.hasNext()) {
+                T t = iterator.next();
+                if (t != null && predicate.test(t)) {
+                    next = t;
+                    ready = true;
+                }
+            }
+            return ready;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T t = next;
+            next = null;
+            ready = false;
+            return t;
+        }
+    }
 }
@@ -2,15 +2,22 @@ package me.dalianmao.util.collection;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.CollectionUtils;
-import org.springframework.util.StringUtils;
+
+import me.dalianmao.util.Util;
 
 /**
  * 链表常用方法
@@ -24,6 +31,11 @@ public abstract class ListUtil {
 
     private static final Logger LOG = LoggerFactory.getLogger(ListUtil.class);
 
+    /**
+     * {@code batchConvert}默认的每批元素个数
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
     public static <T> List<T> empty() {
         return newList(0);
     }
@@ -33,14 +45,93 @@ public abstract class ListUtil {
     }
 
     /**
-     * 检查是否有重复元素，包括重复的null
+     * 检查是否有重复元素，包括重复的null，遇到第一个重复元素就返回
      *
      * @param target
-     *            目标集合
+     *            目标集合, null则返回false
      * @return true 有重复元素，false 没有
+     *
+     * @see ListUtil#indexOfDuplicate(List)
      */
     public static <T> boolean hasDuplicate(List<T> target) {
-        return target.size() != toSetWithDefaultFactory(target, i -> null).size();
+        return indexOfDuplicate(target) >= 0;
+    }
+
+    /**
+     * 查找第一个重复元素的下标，包括重复的null，遇到第一个重复元素就返回
+     *
+     * <ol>
+     * <li>{@code RandomAccess}的链表用一个记录下标的哈希索引来判断是否重复，不会为每个元素分配对象
+     * <li>其他链表，以及超过哈希索引上限（{@code 1 << 29}个元素）的链表，只遍历一遍，用{@code HashSet}判断是否重复
+     * </ol>
+     *
+     * @param target
+     *            目标链表, null则返回-1
+     * @return 第一个重复元素的下标，没有重复元素则返回-1
+     *
+     * @see ArrayUtil#indexOfDuplicate(Object...)
+     */
+    public static <T> int indexOfDuplicate(List<T> target) {
+        if (CollectionUtils.isEmpty(target)) {
+            return -1;
+        }
+        if (!(target instanceof RandomAccess) || target.size() > ArrayUtil.MAX_INDEXED_SIZE) {
+            Set<T> seen = SetUtil.newSet(target.size());
+            int i = 0;
+            for (T t : target) {
+                if (!seen.add(t)) {
+                    return i;
+                }
+                i++;
+            }
+            return -1;
+        }
+        int[] index = new int[ArrayUtil.indexCapacity(target.size())]; // 保存链表的下标 + 1，0表示空位
+        int mask = index.length - 1;
+        for (int i = 0, n = target.size(); i < n; i++) {
+            T t = target.get(i);
+            int slot = ArrayUtil.mix(Objects.hashCode(t)) & mask;
+            while (index[slot] != 0) {
+                if (Objects.equals(t, target.get(index[slot] - 1))) {
+                    return i;
+                }
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * 去除链表中的重复元素，并维持原来的顺序，包括重复的null，时间复杂度O(n)
+     *
+     * @param source
+     *            目标链表, null则返回一个empty链表
+     * @return 去重后的新链表
+     *
+     * @see ArrayUtil#removeDuplicateGuaranteeOrder(IntFunction, Object...)
+     */
+    public static <T> List<T> removeDuplicateGuaranteeOrder(List<T> source) {
+        if (CollectionUtils.isEmpty(source)) {
+            return empty();
+        }
+        if (source.size() > ArrayUtil.MAX_INDEXED_SIZE) {
+            return new ArrayList<>(new LinkedHashSet<>(source));
+        }
+        List<T> result = newList(source.size());
+        int[] index = new int[ArrayUtil.indexCapacity(source.size())]; // 保存结果链表的下标 + 1，0表示空位
+        int mask = index.length - 1;
+        for (T t : source) {
+            int slot = ArrayUtil.mix(Objects.hashCode(t)) & mask;
+            while (index[slot] != 0 && Util.nonEqual(t, result.get(index[slot] - 1))) {
+                slot = (slot + 1) & mask;
+            }
+            if (index[slot] == 0) {
+                result.add(t);
+                index[slot] = result.size();
+            }
+        }
+        return result;
     }
 
     // split方法
@@ -48,6 +139,8 @@ public abstract class ListUtil {
     /**
      * 将字符串{@code target}进行拆分，并将每个item用{@code parser}进行转化，最后放到{@code List}中
      *
+     * 注意：分隔符按字面值匹配，不是正则表达式；需要重复拆分时请直接使用{@link Splitter}
+     *
      * @param target
      *            目标字符串, null或者empty则返回一个empty链表
      * @param separator
@@ -55,19 +148,15 @@ public abstract class ListUtil {
      * @param parser
      *            解析器
      * @return 结果链表
+     *
+     * @see Splitter#split(String, Function)
      */
     public static <T> List<T> split(String target, String separator, Function<String, T> parser) {
-        if (StringUtils.isEmpty(target)) {
-            return new ArrayList<>(0);
-        }
-        String[] items = target.split(separator);
-        List<T> result = new ArrayList<>(items.length);
-        Arrays.stream(items).forEach(i -> result.add(parser.apply(i)));
-        return result;
+        return Splitter.on(separator).split(target, parser);
     }
 
     public static List<String> split(String string, char separator) {
-        return split(string, String.valueOf(separator), Function.identity());
+        return Splitter.on(separator).split(string);
     }
 
     public static List<String> split(String string, String separator) {
@@ -99,13 +188,98 @@ public abstract class ListUtil {
         for (S s : source) {
             if (s != null) {
                 targets.add(converter.apply(s));
-            } else {
-                LOG.debug("[ListUtil#convert] skip a null item");
             }
         }
+        logSkipped("convert", source.size() - targets.size());
+        return targets;
+    }
+
+    /**
+     * 批量转化链表，跳过原链表中的null，{@code converter}每次收到一批元素，可以一次批量查询，而不是每个元素查询一次
+     *
+     * <ol>
+     * <li>{@code RandomAccess}的链表按下标分批，一批中没有null时直接传{@code subList}视图，不复制
+     * <li>每批最多{@code batchSize}个非null元素，{@code converter}返回的元素按批次顺序加到结果中，个数可以和这批元素不一致，如：批量查询时跳过不存在的
+     * <li>跳过的null只汇总记录一条debug日志
+     * </ol>
+     *
+     * 如：
+     *
+     * <pre>{@code
+     *     List<OrderDTO> orders = ListUtil.batchConvert(orderIds, ids -> orderDao.findByIds(ids), 500);
+     * }</pre>
+     *
+     * @param <S>
+     *            原类型
+     * @param <T>
+     *            目标类型
+     * @param source
+     *            原链表, null则返回一个empty链表
+     * @param converter
+     *            批量转换器，注意：不要修改或者保存收到的链表
+     * @param batchSize
+     *            每批的最大元素个数
+     * @return target 目标链表
+     *
+     * @see ListUtil#convert(List, Function)
+     */
+    public static <S, T> List<T> batchConvert(List<S> source, Function<List<S>, ? extends Collection<? extends T>> converter,
+            int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (CollectionUtils.isEmpty(source)) {
+            return empty();
+        }
+        List<T> targets = newList(source.size());
+        int skipped = 0;
+        if (source instanceof RandomAccess) {
+            for (int from = 0, n = source.size(); from < n; from += batchSize) {
+                int to = Math.min(n, from + batchSize), nulls = 0;
+                for (int i = from; i < to; i++) {
+                    if (source.get(i) == null) {
+                        nulls++;
+                    }
+                }
+                if (nulls == 0) {
+                    targets.addAll(converter.apply(source.subList(from, to)));
+                } else if (nulls < to - from) {
+                    List<S> batch = newList(to - from - nulls);
+                    for (int i = from; i < to; i++) {
+                        S s = source.get(i);
+                        if (s != null) {
+                            batch.add(s);
+                        }
+                    }
+                    targets.addAll(converter.apply(batch));
+                }
+                skipped += nulls;
+            }
+        } else {
+            List<S> batch = newList(Math.min(batchSize, source.size()));
+            for (S s : source) {
+                if (s == null) {
+                    skipped++;
+                    continue;
+                }
+                batch.add(s);
+                if (batch.size() == batchSize) {
+                    targets.addAll(converter.apply(batch));
+                    batch = newList(Math.min(batchSize, source.size()));
+                }
+            }
+            if (!batch.isEmpty()) {
+                targets.addAll(converter.apply(batch));
+            }
+        }
+        logSkipped("batchConvert", skipped);
         return targets;
     }
 
+    public static <S, T> List<T> batchConvert(List<S> source, Function<List<S>, ? extends Collection<? extends T>> converter) {
+        return batchConvert(source, converter, DEFAULT_BATCH_SIZE);
+    }
+
     /**
      * 一对一转化链表，检查原链表中的null，遇到null时，调用{@code defaultFactory}生成一个默认值加到链表中
      *
@@ -142,6 +316,64 @@ public abstract class ListUtil {
         return targets;
     }
 
+    /**
+     * 并行转化链表，跳过原链表中的null，并且维持原链表的顺序
+     *
+     * <ol>
+     * <li>只有{@code RandomAccess}的链表并且元素个数超过{@code threshold}时才并行转化，否则等同于{@link ListUtil#convert(List, Function)}
+     * <li>{@code converter}会在多个线程中调用，需要是线程安全的
+     * </ol>
+     *
+     * @param <S>
+     *            原类型
+     * @param <T>
+     *            目标类型
+     * @param source
+     *            原链表, null则返回一个empty链表
+     * @param converter
+     *            转换器
+     * @param threshold
+     *            并行阈值
+     * @return target 目标链表
+     *
+     * @see ForkJoinUtil
+     */
+    public static <S, T> List<T> parallelConvert(List<S> source, Function<S, T> converter, int threshold) {
+        if (!ForkJoinUtil.shouldFork(source, threshold)) {
+            return convert(source, converter);
+        }
+        List<Object[]> chunks = ForkJoinUtil.forkRanges(source.size(), threshold, (from, to) -> convert(source, from, to, converter));
+        List<T> targets = newList(chunks.stream().mapToInt(c -> c.length).sum());
+        for (Object[] chunk : chunks) {
+            for (Object t : chunk) {
+                @SuppressWarnings("unchecked")
+                T target = (T) t;
+                targets.add(target);
+            }
+        }
+        logSkipped("parallelConvert", source.size() - targets.size());
+        return targets;
+    }
+
+    public static <S, T> List<T> parallelConvert(List<S> source, Function<S, T> converter) {
+        return parallelConvert(source, converter, ForkJoinUtil.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 转化[from, to)区间内的非null元素
+     */
+    private static <S, T> Object[] convert(List<S> source, int from, int to, Function<S, T> converter) {
+        Object[] targets = new Object[to - from];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            S s = source.get(i);
+            if (s != null) {
+                targets[size++] = converter.apply(s);
+            }
+        }
+        return size == targets.length ? targets : Arrays.copyOf(targets, size);
+    }
+
     // toSet
 
     /**
@@ -171,13 +403,15 @@ public abstract class ListUtil {
             return SetUtil.empty();
         }
         Set<T> targets = SetUtil.newSet(source.size());
+        int skipped = 0;
         for (S s : source) {
             if (s != null) {
                 targets.add(converter.apply(s));
             } else {
-                LOG.debug("[ListUtil#toSet] skip a null item");
+                skipped++;
             }
         }
+        logSkipped("toSet", skipped);
         return targets;
     }
 
@@ -194,6 +428,111 @@ public abstract class ListUtil {
         return toSet(source, Function.identity());
     }
 
+    /**
+     * 并行转化元素，再放到结果集合中，跳过null元素
+     *
+     * <ol>
+     * <li>只有{@code RandomAccess}的链表并且元素个数超过{@code threshold}时才并行转化，否则等同于{@link ListUtil#toSet(List, Function)}
+     * <li>{@code converter}在多个线程中并行调用，需要是线程安全的；转化后的元素按原链表的顺序加到集合中
+     * </ol>
+     *
+     * @param <S>
+     *            原类型
+     * @param <T>
+     *            目标类型
+     * @param source
+     *            目标链表, null则返回一个empty集合
+     * @param converter
+     *            转换器
+     * @param threshold
+     *            并行阈值
+     * @return 结果集合
+     *
+     * @see ForkJoinUtil
+     */
+    public static <S, T> Set<T> parallelToSet(List<S> source, Function<S, T> converter, int threshold) {
+        if (!ForkJoinUtil.shouldFork(source, threshold)) {
+            return toSet(source, converter);
+        }
+        List<Object[]> chunks = ForkJoinUtil.forkRanges(source.size(), threshold, (from, to) -> convert(source, from, to, converter));
+        Set<T> targets = SetUtil.newSet(source.size());
+        int converted = 0;
+        for (Object[] chunk : chunks) {
+            for (Object t : chunk) {
+                @SuppressWarnings("unchecked")
+                T target = (T) t;
+                targets.add(target);
+            }
+            converted += chunk.length;
+        }
+        logSkipped("parallelToSet", source.size() - converted);
+        return targets;
+    }
+
+    public static <S, T> Set<T> parallelToSet(List<S> source, Function<S, T> converter) {
+        return parallelToSet(source, converter, ForkJoinUtil.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 将{@code source}转化为一个{@code long}集合，并且跳过null元素，如：收集实体的id
+     *
+     * @param <S>
+     *            原类型
+     * @param source
+     *            目标链表, null则返回一个empty集合
+     * @param converter
+     *            转换器
+     * @return 结果集合，元素不装箱
+     *
+     * @see LongHashSet
+     */
+    public static <S> LongHashSet toLongSet(List<S> source, ToLongFunction<S> converter) {
+        if (CollectionUtils.isEmpty(source)) {
+            return SetUtil.newLongSet(0);
+        }
+        LongHashSet targets = SetUtil.newLongSet(source.size());
+        for (S s : source) {
+            if (s != null) {
+                targets.add(converter.applyAsLong(s));
+            }
+        }
+        return targets;
+    }
+
+    public static LongHashSet toLongSet(List<Long> source) {
+        return toLongSet(source, Long::longValue);
+    }
+
+    /**
+     * 将{@code source}转化为一个{@code int}集合，并且跳过null元素
+     *
+     * @param <S>
+     *            原类型
+     * @param source
+     *            目标链表, null则返回一个empty集合
+     * @param converter
+     *            转换器
+     * @return 结果集合，元素不装箱
+     *
+     * @see IntHashSet
+     */
+    public static <S> IntHashSet toIntSet(List<S> source, ToIntFunction<S> converter) {
+        if (CollectionUtils.isEmpty(source)) {
+            return SetUtil.newIntSet(0);
+        }
+        IntHashSet targets = SetUtil.newIntSet(source.size());
+        for (S s : source) {
+            if (s != null) {
+                targets.add(converter.applyAsInt(s));
+            }
+        }
+        return targets;
+    }
+
+    public static IntHashSet toIntSet(List<Integer> source) {
+        return toIntSet(source, Integer::intValue);
+    }
+
     /**
      * 将{@code source}转化为一个集合，遇到null时，调用{@code defaultFactory}生成一个默认值加到集合中
      *
@@ -244,4 +583,13 @@ public abstract class ListUtil {
     public static <T> Set<T> toSetWithDefaultFactory(List<T> source, IntFunction<T> defaultFactory) {
         return toSetWithDefaultFactory(source, Function.identity(), defaultFactory);
     }
+
+    /**
+     * 汇总记录跳过的null元素，而不是每个元素记录一条
+     */
+    private static void logSkipped(String method, int skipped) {
+        if (skipped > 0) {
+            LOG.debug("[ListUtil#{}] skip {} null items", method, skipped);
+        }
+    }
 }
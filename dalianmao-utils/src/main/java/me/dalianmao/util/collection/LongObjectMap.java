@@ -0,0 +1,195 @@
+package me.dalianmao.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * key为{@code long}的map，开放寻址、线性探测，key不装箱，也不会为每个entry分配对象<br/>
+ *
+ * 每个entry只占用一个{@code long}和一个引用的槽位，负载因子不超过0.5，内存大约是{@code HashMap<Long, V>}的一半；value可以为null<br/>
+ *
+ * 注意：不是线程安全的
+ *
+ * @author xiezhenzong
+ *
+ * @see IterableUtil#toLongMap(Iterable, java.util.function.ToLongFunction, java.util.function.Function)
+ * @see IntObjectMap
+ */
+public class LongObjectMap<V> {
+
+    private static final Object NULL_VALUE = new Object(); // 代替null的value，values中的null表示空槽位
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize
+     *            预计的entry个数，放入这么多entry之前不会扩容
+     */
+    public LongObjectMap(int expectedSize) {
+        int capacity = ArrayUtil.indexCapacity(expectedSize);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    public V get(long key) {
+        return getOrDefault(key, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        int slot = slot(key);
+        return slot >= 0 ? (V) unmask(values[slot]) : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return slot(key) >= 0;
+    }
+
+    /**
+     * @return 原来的value，没有则返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                Object old = values[slot];
+                values[slot] = mask(value);
+                return (V) unmask(old);
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = mask(value);
+        if (++size > keys.length >>> 1) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * @return 被移除的value，没有则返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int gap = slot(key);
+        if (gap < 0) {
+            return null;
+        }
+        Object old = values[gap];
+        int mask = keys.length - 1;
+        values[gap] = null;
+        size--;
+        // 后移删除：把后面探测链上的entry往前挪，填上空出来的槽位，不需要墓碑
+        for (int i = (gap + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                values[i] = null;
+                gap = i;
+            }
+        }
+        return (V) unmask(old);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * @return 所有key，顺序不确定
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        for (int i = 0, j = 0; j < size; i++) {
+            if (values[i] != null) {
+                result[j++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                consumer.accept(keys[i], (V) unmask(values[i]));
+            }
+        }
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        return ArrayUtil.mix(Long.hashCode(key));
+    }
+
+    private static Object mask(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    private static Object unmask(Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> builder.append(builder.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return builder.append('}').toString();
+    }
+
+    /**
+     * 遍历entry的回调，key不装箱
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        void accept(long key, V value);
+
+    }
+}
@@ -0,0 +1,87 @@
+package me.dalianmao.util.collection;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 分页查询的惰性迭代器，需要下一个元素时才查询下一页，内存中只有当前这一页，适合导出大量数据<br/>
+ *
+ * {@code fetcher}的参数是上一页的最后一个元素，第一页是null，方便按主键翻页(keyset)，如：
+ *
+ * <pre>
+ * new PagedIterator&lt;&gt;(last -&gt; jdbcTemplate.query("select * from orders where id &gt; ? order by id limit 1000",
+ *         mapper, last == null ? 0 : last.getId()), 1000)
+ * </pre>
+ *
+ * <ol>
+ * <li>返回空页或者null时结束
+ * <li>指定了{@code pageSize}时，不满一页也结束，省掉最后一次查询
+ * </ol>
+ *
+ * 注意：每页的最后一个元素不能是null
+ *
+ * @author xiezhenzong
+ *
+ */
+public class PagedIterator<T> implements Iterator<T> {
+
+    private final Function<? super T, ? extends List<? extends T>> fetcher;
+    private final int pageSize;
+
+    private List<? extends T> page = Collections.emptyList();
+    private int index = 0;
+    private T last = null;
+    private boolean finished = false;
+
+    public PagedIterator(Function<? super T, ? extends List<? extends T>> fetcher) {
+        this(fetcher, 0);
+    }
+
+    /**
+     * @param fetcher
+     *            根据上一页的最后一个元素查询下一页
+     * @param pageSize
+     *            每页的大小，小于等于0时只在返回空页时结束
+     */
+    public PagedIterator(Function<? super T, ? extends List<? extends T>> fetcher, int pageSize) {
+        this.fetcher = Objects.requireNonNull(fetcher, "fetcher");
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (index >= page.size()) {
+            if (finished) {
+                return false;
+            }
+            fetch();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(index++);
+    }
+
+    private void fetch() {
+        List<? extends T> next = fetcher.apply(last);
+        index = 0;
+        if (next == null || next.isEmpty()) {
+            page = Collections.emptyList();
+            finished = true;
+            return;
+        }
+        page = next;
+        last = Objects.requireNonNull(next.get(next.size() - 1), "the last element of a page must not be null");
+        finished = pageSize > 0 && next.size() < pageSize;
+    }
+
+}
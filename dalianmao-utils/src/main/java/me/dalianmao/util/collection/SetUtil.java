@@ -26,11 +26,75 @@ public abstract class SetUtil {
         return Collections.newSetFromMap(new ConcurrentHashMap<T, Boolean>(size));
     }
 
+    /**
+     * 可以设置容量上限，并且支持{@code addIfAbsent}的线程安全集合
+     *
+     * @param size
+     *            预计的元素个数
+     * @param maxSize
+     *            容量上限，{@link ConcurrentSet#UNBOUNDED}表示没有上限
+     * @return 新集合
+     *
+     * @see ConcurrentSet
+     */
+    public static <T> ConcurrentSet<T> newConcurrentSet(int size, int maxSize) {
+        return new ConcurrentSet<>(size, maxSize);
+    }
+
+    /**
+     * 分段加锁的线程安全{@code long}集合，元素不装箱
+     *
+     * @param size
+     *            预计的元素个数
+     * @param maxSize
+     *            容量上限，{@link StripedLongHashSet#UNBOUNDED}表示没有上限
+     * @return 新集合
+     *
+     * @see StripedLongHashSet
+     */
+    public static StripedLongHashSet newConcurrentLongSet(int size, int maxSize) {
+        return new StripedLongHashSet(size, maxSize);
+    }
+
     @SafeVarargs
     public static <T> Set<T> asSet(T... elements) {
         return new HashSet<>(Arrays.asList(elements));
     }
 
+    /**
+     * 元素为{@code int}的集合，不装箱
+     *
+     * @param size
+     *            预计的元素个数
+     * @return 新集合
+     *
+     * @see IntHashSet
+     */
+    public static IntHashSet newIntSet(int size) {
+        return new IntHashSet(size);
+    }
+
+    public static IntHashSet asIntSet(int... elements) {
+        return new IntHashSet(elements);
+    }
+
+    /**
+     * 元素为{@code long}的集合，不装箱
+     *
+     * @param size
+     *            预计的元素个数
+     * @return 新集合
+     *
+     * @see LongHashSet
+     */
+    public static LongHashSet newLongSet(int size) {
+        return new LongHashSet(size);
+    }
+
+    public static LongHashSet asLongSet(long... elements) {
+        return new LongHashSet(elements);
+    }
+
     // convert方法
 
     // toList
@@ -0,0 +1,207 @@
+package me.dalianmao.util.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.util.Assert;
+
+import me.dalianmao.util.Constants;
+
+/**
+ * 按固定分隔符拆分字符串，不使用正则表达式，创建后可以重复使用，并且是线程安全的<br/>
+ *
+ * 拆分规则和{@code String.split(separator)}一致，只是分隔符按字面值匹配：
+ *
+ * <ol>
+ * <li>保留中间的空字段，去掉末尾的空字段，如：{@code "1,,2,,"}拆成{@code ["1", "", "2"]}
+ * <li>null或者empty的字符串拆成一个empty的结果
+ * </ol>
+ *
+ * 解析数字列表时可以直接拆成{@code int[]}/{@code long[]}，不会为每个字段创建子字符串：
+ *
+ * <pre>{@code
+ *     long[] ids = Splitter.COMMA.splitToLongs(request.getParameter("ids"));
+ * }</pre>
+ *
+ * @author xiezhenzong
+ *
+ * @see ListUtil#split(String, String, Function)
+ */
+public final class Splitter {
+
+    public static final Splitter COMMA = on(Constants.COMMA);
+
+    public static final Splitter SEMICOLON = on(Constants.SEMICOLON);
+
+    private final String separator;
+    private final char separatorChar; // 单字符分隔符时使用String.indexOf(int, int)
+
+    private Splitter(String separator) {
+        this.separator = separator;
+        this.separatorChar = separator.charAt(0);
+    }
+
+    public static Splitter on(char separator) {
+        return new Splitter(String.valueOf(separator));
+    }
+
+    /**
+     * @param separator
+     *            分隔符，按字面值匹配，不能为null或者empty
+     * @return 拆分器
+     */
+    public static Splitter on(String separator) {
+        Assert.hasLength(separator, "separator must not be empty");
+        return new Splitter(separator);
+    }
+
+    public List<String> split(String target) {
+        return split(target, Function.identity());
+    }
+
+    /**
+     * 拆分字符串，并将每个字段用{@code parser}进行转化
+     *
+     * @param target
+     *            目标字符串, null或者empty则返回一个empty链表
+     * @param parser
+     *            解析器
+     * @return 结果链表
+     */
+    public <T> List<T> split(String target, Function<String, T> parser) {
+        if (target == null || target.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        long scan = scan(target);
+        int count = (int) (scan >>> 32), end = (int) scan;
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0, from = 0; i < count; i++) {
+            int to = i == count - 1 ? end : indexOf(target, from);
+            result.add(parser.apply(target.substring(from, to)));
+            from = to + separator.length();
+        }
+        return result;
+    }
+
+    /**
+     * 拆分字符串，并直接将每个字段解析为{@code int}，只分配一次结果数组
+     *
+     * @param target
+     *            目标字符串, null或者empty则返回一个empty数组
+     * @return 结果数组
+     * @throws NumberFormatException
+     *             某个字段不是合法的{@code int}，包括中间的空字段
+     *
+     * @see Integer#parseInt(String)
+     */
+    public int[] splitToInts(String target) {
+        if (target == null || target.isEmpty()) {
+            return new int[0];
+        }
+        long scan = scan(target);
+        int count = (int) (scan >>> 32), end = (int) scan;
+        int[] result = new int[count];
+        for (int i = 0, from = 0; i < count; i++) {
+            int to = i == count - 1 ? end : indexOf(target, from);
+            result[i] = (int) parseLong(target, from, to, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            from = to + separator.length();
+        }
+        return result;
+    }
+
+    /**
+     * 拆分字符串，并直接将每个字段解析为{@code long}，只分配一次结果数组
+     *
+     * @param target
+     *            目标字符串, null或者empty则返回一个empty数组
+     * @return 结果数组
+     * @throws NumberFormatException
+     *             某个字段不是合法的{@code long}，包括中间的空字段
+     *
+     * @see Long#parseLong(String)
+     */
+    public long[] splitToLongs(String target) {
+        if (target == null || target.isEmpty()) {
+            return new long[0];
+        }
+        long scan = scan(target);
+        int count = (int) (scan >>> 32), end = (int) scan;
+        long[] result = new long[count];
+        for (int i = 0, from = 0; i < count; i++) {
+            int to = i == count - 1 ? end : indexOf(target, from);
+            result[i] = parseLong(target, from, to, Long.MIN_VALUE, Long.MAX_VALUE);
+            from = to + separator.length();
+        }
+        return result;
+    }
+
+    private int indexOf(String target, int from) {
+        return separator.length() == 1 ? target.indexOf(separatorChar, from) : target.indexOf(separator, from);
+    }
+
+    /**
+     * 遍历一遍字段，找到最后一个非空字段
+     *
+     * @return 高32位是去掉末尾空字段后的字段个数，低32位是最后一个非空字段的结束位置
+     */
+    private long scan(String target) {
+        int count = 0, end = 0, index = 0, from = 0, length = target.length();
+        while (true) {
+            int to = indexOf(target, from);
+            if (to < 0) {
+                to = length;
+            }
+            index++;
+            if (to > from) {
+                count = index;
+                end = to;
+            }
+            if (to == length) {
+                return ((long) count << 32) | end;
+            }
+            from = to + separator.length();
+        }
+    }
+
+    /**
+     * 解析[from, to)区间内的十进制整数，和{@code Long.parseLong}一样使用负数累加，避免最小值溢出
+     */
+    private static long parseLong(String target, int from, int to, long min, long max) {
+        if (from >= to) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        boolean negative = false;
+        int i = from;
+        char first = target.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == to) {
+                throw numberFormatException(target, from, to);
+            }
+        }
+        long limit = negative ? min : -max;
+        long multiplyLimit = limit / 10, result = 0;
+        for (; i < to; i++) {
+            int digit = target.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw numberFormatException(target, from, to);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(target, from, to);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static NumberFormatException numberFormatException(String target, int from, int to) {
+        return new NumberFormatException("For input string: \"" + target.substring(from, to) + "\"");
+    }
+
+    @Override
+    public String toString() {
+        return "Splitter[" + separator + "]";
+    }
+}
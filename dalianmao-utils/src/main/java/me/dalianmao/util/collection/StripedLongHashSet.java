@@ -0,0 +1,229 @@
+package me.dalianmao.util.collection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 线程安全的{@code long}集合，按元素的哈希值分成若干段，每段是一个{@link LongHashSet}，并由自己的锁保护<br/>
+ *
+ * <ol>
+ * <li>不同段上的操作互不阻塞，元素不装箱，适合对进行中的请求id去重
+ * <li>{@code addAll}/{@code removeAll}先按段分组，每段只加一次锁
+ * <li>可以设置容量上限，达到上限后{@code add}会抛出{@code IllegalStateException}，和{@code Queue.add}一致
+ * </ol>
+ *
+ * @author xiezhenzong
+ *
+ * @see SetUtil#newConcurrentLongSet(int, int)
+ * @see ConcurrentSet
+ */
+public class StripedLongHashSet {
+
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final LongHashSet[] stripes;
+    private final int shift;
+    private final int maxSize;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public StripedLongHashSet() {
+        this(16, UNBOUNDED);
+    }
+
+    /**
+     * @param expectedSize
+     *            预计的元素个数
+     * @param maxSize
+     *            容量上限，{@link StripedLongHashSet#UNBOUNDED}表示没有上限
+     */
+    public StripedLongHashSet(int expectedSize, int maxSize) {
+        this(expectedSize, maxSize, Runtime.getRuntime().availableProcessors() << 2);
+    }
+
+    /**
+     * @param expectedSize
+     *            预计的元素个数
+     * @param maxSize
+     *            容量上限，{@link StripedLongHashSet#UNBOUNDED}表示没有上限
+     * @param concurrencyLevel
+     *            预计的并发线程数，段数为不小于它的2的幂
+     */
+    public StripedLongHashSet(int expectedSize, int maxSize, int concurrencyLevel) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(concurrencyLevel, 1) - 1);
+        this.stripes = new LongHashSet[1 << bits];
+        this.shift = 32 - bits;
+        this.maxSize = maxSize;
+        int stripeSize = Math.max(Math.min(expectedSize, maxSize) >> bits, 1);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new LongHashSet(stripeSize);
+        }
+    }
+
+    /**
+     * @return true 添加成功，false 已经存在
+     * @throws IllegalStateException
+     *             已经达到容量上限
+     */
+    public boolean add(long element) {
+        LongHashSet stripe = stripeOf(element);
+        synchronized (stripe) {
+            if (stripe.contains(element)) {
+                return false;
+            }
+            reserve(1);
+            return stripe.add(element);
+        }
+    }
+
+    public boolean contains(long element) {
+        LongHashSet stripe = stripeOf(element);
+        synchronized (stripe) {
+            return stripe.contains(element);
+        }
+    }
+
+    public boolean remove(long element) {
+        LongHashSet stripe = stripeOf(element);
+        synchronized (stripe) {
+            if (stripe.remove(element)) {
+                size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 批量添加，先按段分组，每段只加一次锁；不同段之间不是原子的
+     *
+     * @param elements
+     *            元素
+     * @return 新添加的元素个数
+     * @throws IllegalStateException
+     *             达到容量上限，前面的元素已经添加成功
+     */
+    public int addAll(long... elements) {
+        int[] order = groupByStripe(elements);
+        int added = 0;
+        for (int i = 0, n = elements.length; i < n;) {
+            LongHashSet stripe = stripes[stripeIndex(elements[order[i]])];
+            synchronized (stripe) {
+                do {
+                    long element = elements[order[i++]];
+                    if (!stripe.contains(element)) {
+                        reserve(1);
+                        stripe.add(element);
+                        added++;
+                    }
+                } while (i < n && stripes[stripeIndex(elements[order[i]])] == stripe);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * 批量移除，先按段分组，每段只加一次锁；不同段之间不是原子的
+     *
+     * @param elements
+     *            元素
+     * @return 被移除的元素个数
+     */
+    public int removeAll(long... elements) {
+        int[] order = groupByStripe(elements);
+        int removed = 0;
+        for (int i = 0, n = elements.length; i < n;) {
+            LongHashSet stripe = stripes[stripeIndex(elements[order[i]])];
+            synchronized (stripe) {
+                do {
+                    if (stripe.remove(elements[order[i++]])) {
+                        removed++;
+                    }
+                } while (i < n && stripes[stripeIndex(elements[order[i]])] == stripe);
+            }
+        }
+        size.addAndGet(-removed);
+        return removed;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 逐段清空，不是原子的
+     */
+    public void clear() {
+        for (LongHashSet stripe : stripes) {
+            synchronized (stripe) {
+                size.addAndGet(-stripe.size());
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * 逐段复制出所有元素，是一个弱一致的快照
+     *
+     * @return 所有元素，顺序不确定
+     */
+    public long[] toArray() {
+        LongHashSet result = new LongHashSet(size());
+        for (LongHashSet stripe : stripes) {
+            synchronized (stripe) {
+                result.addAll(stripe.toArray());
+            }
+        }
+        return result.toArray();
+    }
+
+    private void reserve(int count) {
+        if (size.addAndGet(count) > maxSize) {
+            size.addAndGet(-count);
+            throw new IllegalStateException("set is full, maxSize: " + maxSize);
+        }
+    }
+
+    private LongHashSet stripeOf(long element) {
+        return stripes[stripeIndex(element)];
+    }
+
+    /**
+     * 用哈希值的高位选段，段内的{@code LongHashSet}用低位选槽位，两者互不影响
+     */
+    private int stripeIndex(long element) {
+        return shift == 32 ? 0 : ArrayUtil.mix(Long.hashCode(element)) >>> shift;
+    }
+
+    /**
+     * 按段号对下标做计数排序
+     */
+    private int[] groupByStripe(long[] elements) {
+        int[] starts = new int[stripes.length + 1];
+        for (long element : elements) {
+            starts[stripeIndex(element) + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] order = new int[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            order[starts[stripeIndex(elements[i])]++] = i;
+        }
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return "StripedLongHashSet[size=" + size() + ", stripes=" + stripes.length + "]";
+    }
+}
@@ -0,0 +1,27 @@
+package me.dalianmao.util.concurrent;
+
+/**
+ * {@link TimingWheel#schedule(Runnable, long, java.util.concurrent.TimeUnit)}返回的句柄
+ *
+ * @author xiezhenzong
+ *
+ */
+public interface Timeout {
+
+    /**
+     * 取消任务，O(1)：只是标记，由时间轮的驱动线程在下一个tick把它从槽位中摘掉
+     *
+     * @return true 取消成功，false 已经到期或者已经取消
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    boolean isExpired();
+
+    /**
+     * @return 到期时间，时间轮时钟的毫秒数
+     */
+    long deadline();
+
+}
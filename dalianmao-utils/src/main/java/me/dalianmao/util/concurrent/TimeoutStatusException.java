@@ -0,0 +1,26 @@
+package me.dalianmao.util.concurrent;
+
+import java.util.concurrent.TimeoutException;
+
+import me.dalianmao.util.Status;
+
+/**
+ * 带状态码的超时异常，状态码总是{@link Status#TIMEOUT_ERROR}，可以直接写入{@code InvokeLogger}
+ *
+ * @author xiezhenzong
+ *
+ * @see TimingWheel#orTimeout(java.util.concurrent.CompletableFuture, long, java.util.concurrent.TimeUnit)
+ */
+public class TimeoutStatusException extends TimeoutException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TimeoutStatusException(String message) {
+        super(message);
+    }
+
+    public int getStatus() {
+        return Status.TIMEOUT_ERROR;
+    }
+
+}
@@ -0,0 +1,406 @@
+package me.dalianmao.util.concurrent;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import me.dalianmao.util.Status;
+
+/**
+ * 分层时间轮，用于大量外部调用的超时控制，代替基于堆的{@code ScheduledThreadPoolExecutor}<br/>
+ *
+ * <ol>
+ * <li>第0层有{@code wheelSize}个槽位，每个槽位{@code tickMillis}；第L层每个槽位覆盖第L-1层一整圈，需要时才创建
+ * <li>{@code schedule}和{@code cancel}都是O(1)，只是放入无锁队列或者修改状态，不和驱动线程竞争锁
+ * <li>只有一个驱动线程，每个tick先把新任务放入槽位、摘掉已取消的任务，再把高层到期的槽位降级到低层，最后批量执行第0层到期的槽位
+ * <li>任务不会提前执行，最多晚一个tick
+ * </ol>
+ *
+ * 注意：到期的任务在驱动线程中执行，不能阻塞，耗时的工作应该交给其他线程池
+ *
+ * @author xiezhenzong
+ *
+ * @see TimingWheel#orTimeout(CompletableFuture, long, TimeUnit)
+ */
+public class TimingWheel implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimingWheel.class);
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final long MAX_DELAY_MILLIS = Long.MAX_VALUE >>> 2; // 避免计算到期时间时溢出
+
+    private final Clock clock;
+    private final long tickMillis;
+    private final int bits; // 每层的槽位数是2的bits次方
+    private final int mask;
+    private final long startMillis;
+    private final Bucket[][] wheels; // 每层的槽位，需要时才创建
+
+    private final Queue<Task> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Task> cancelled = new ConcurrentLinkedQueue<>();
+    private long currentTick = 0; // 只由驱动线程访问
+
+    private volatile boolean closed = false;
+    private volatile Thread driver;
+
+    public TimingWheel() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, Clock.SYSTEM);
+    }
+
+    public TimingWheel(long tickMillis, int wheelSize) {
+        this(tickMillis, wheelSize, Clock.SYSTEM);
+    }
+
+    /**
+     * @param tickMillis
+     *            每个tick的毫秒数，也是超时的精度
+     * @param wheelSize
+     *            每层的槽位数，向上取整为2的幂
+     * @param clock
+     *            时钟，测试中可以用手动推进的时钟，配合{@link TimingWheel#advance()}使用
+     */
+    public TimingWheel(long tickMillis, int wheelSize, Clock clock) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        if (wheelSize < 2 || wheelSize > 1 << 16) {
+            throw new IllegalArgumentException("wheelSize must be in [2, 65536]: " + wheelSize);
+        }
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.tickMillis = tickMillis;
+        this.bits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.mask = (1 << bits) - 1;
+        this.startMillis = clock.millis();
+        this.wheels = new Bucket[(63 + bits - 1) / bits][];
+    }
+
+    /**
+     * 启动驱动线程，守护线程
+     *
+     * @return this
+     */
+    public synchronized TimingWheel start() {
+        if (closed) {
+            throw new IllegalStateException("timing wheel is closed");
+        }
+        if (driver == null) {
+            driver = new Thread(this::drive, "timing-wheel-" + tickMillis + "ms");
+            driver.setDaemon(true);
+            driver.start();
+        }
+        return this;
+    }
+
+    /**
+     * @param task
+     *            到期后在驱动线程中执行的任务
+     * @param delay
+     *            延迟
+     * @param unit
+     *            延迟的单位
+     * @return 可以取消的句柄
+     * @throws IllegalStateException
+     *             时间轮已经关闭
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Objects.requireNonNull(task, "task");
+        if (closed) {
+            throw new IllegalStateException("timing wheel is closed");
+        }
+        long delayMillis = Math.min(Math.max(unit.toMillis(delay), 0), MAX_DELAY_MILLIS);
+        Task timeout = new Task(this, task, clock.millis() + delayMillis);
+        scheduled.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * 超时后以{@link TimeoutStatusException}异常完成{@code future}，{@code future}先完成时会取消超时任务
+     *
+     * @return {@code future}本身
+     */
+    public <T> CompletableFuture<T> orTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+        if (!future.isDone()) {
+            Timeout handle = schedule(() -> future.completeExceptionally(new TimeoutStatusException(
+                    "timeout after " + unit.toMillis(timeout) + "ms, status: " + Status.TIMEOUT_ERROR)), timeout, unit);
+            future.whenComplete((result, error) -> handle.cancel());
+        }
+        return future;
+    }
+
+    /**
+     * 超时后以{@code value}完成{@code future}，比如{@code new Response(Status.TIMEOUT_ERROR)}；{@code future}先完成时会取消超时任务
+     *
+     * @return {@code future}本身
+     */
+    public <T> CompletableFuture<T> completeOnTimeout(CompletableFuture<T> future, T value, long timeout,
+            TimeUnit unit) {
+        if (!future.isDone()) {
+            Timeout handle = schedule(() -> future.complete(value), timeout, unit);
+            future.whenComplete((result, error) -> handle.cancel());
+        }
+        return future;
+    }
+
+    /**
+     * 推进到时钟的当前时间，执行这期间到期的任务；由驱动线程调用，没有启动驱动线程时可以手动调用，同一时间只能有一个线程调用
+     *
+     * @return 执行的任务数
+     */
+    public int advance() {
+        long nowTick = (clock.millis() - startMillis) / tickMillis;
+        int expired = 0;
+        while (currentTick < nowTick) {
+            currentTick++;
+            transferScheduled();
+            removeCancelled();
+            cascade();
+            expired += expire(bucket(0, currentTick));
+        }
+        return expired;
+    }
+
+    /**
+     * 停止驱动线程，还没到期的任务都不会再执行
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread = driver;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void drive() {
+        while (!closed) {
+            long sleepMillis = startMillis + (currentTick + 1) * tickMillis - clock.millis();
+            if (sleepMillis > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(sleepMillis));
+            } else {
+                advance();
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        for (Task task = scheduled.poll(); task != null; task = scheduled.poll()) {
+            if (task.state == Task.WAITING) {
+                // 向上取整，保证不会提前到期
+                task.deadlineTick = (task.deadline - startMillis + tickMillis - 1) / tickMillis;
+                place(task);
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        for (Task task = cancelled.poll(); task != null; task = cancelled.poll()) {
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+            }
+        }
+    }
+
+    /**
+     * 放到到期时间和当前时间第一个不同的那一位(按每层的位数划分)所在的层，这样该层的槽位一定在当前这一圈，并且会先于到期时间被降级
+     */
+    private void place(Task task) {
+        if (task.deadlineTick <= currentTick) {
+            bucket(0, currentTick).add(task); // 已经到期，本tick执行
+            return;
+        }
+        int level = (63 - Long.numberOfLeadingZeros(task.deadlineTick ^ currentTick)) / bits;
+        bucket(level, task.deadlineTick).add(task);
+    }
+
+    /**
+     * 当前tick在第L层的低位都是0时，第L层对应的槽位到期，里面的任务重新放置到低层
+     */
+    private void cascade() {
+        for (int level = wheels.length - 1; level > 0; level--) {
+            if (wheels[level] == null || (currentTick & ((1L << (bits * level)) - 1)) != 0) {
+                continue;
+            }
+            Bucket bucket = bucket(level, currentTick);
+            for (Task task = bucket.clear(); task != null;) {
+                Task next = task.next;
+                task.next = null;
+                if (task.state == Task.WAITING) {
+                    place(task);
+                }
+                task = next;
+            }
+        }
+    }
+
+    private int expire(Bucket bucket) {
+        int expired = 0;
+        for (Task task = bucket.clear(); task != null;) {
+            Task next = task.next;
+            task.next = null;
+            if (task.expire()) {
+                expired++;
+            }
+            task = next;
+        }
+        return expired;
+    }
+
+    private Bucket bucket(int level, long tick) {
+        Bucket[] wheel = wheels[level];
+        if (wheel == null) {
+            wheel = wheels[level] = new Bucket[mask + 1];
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+        return wheel[(int) ((tick >>> (bits * level)) & mask)];
+    }
+
+    @Override
+    public String toString() {
+        return "TimingWheel[tickMillis=" + tickMillis + ", wheelSize=" + (mask + 1) + "]";
+    }
+
+    /**
+     * 毫秒时钟
+     */
+    @FunctionalInterface
+    public interface Clock {
+
+        /**
+         * 单调递增的系统时钟，不受系统时间调整的影响
+         */
+        Clock SYSTEM = () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+
+        long millis();
+
+    }
+
+    /**
+     * 槽位，任务组成的双向链表，只由驱动线程访问
+     */
+    private static class Bucket {
+
+        private Task head;
+        private Task tail;
+
+        void add(Task task) {
+            task.bucket = this;
+            task.prev = tail;
+            task.next = null;
+            if (tail == null) {
+                head = task;
+            } else {
+                tail.next = task;
+            }
+            tail = task;
+        }
+
+        void remove(Task task) {
+            if (task.prev == null) {
+                head = task.next;
+            } else {
+                task.prev.next = task.next;
+            }
+            if (task.next == null) {
+                tail = task.prev;
+            } else {
+                task.next.prev = task.prev;
+            }
+            task.prev = task.next = null;
+            task.bucket = null;
+        }
+
+        /**
+         * 清空槽位
+         *
+         * @return 原来的链表头，通过{@code next}遍历
+         */
+        Task clear() {
+            Task first = head;
+            for (Task task = first; task != null; task = task.next) {
+                task.bucket = null;
+                task.prev = null;
+            }
+            head = tail = null;
+            return first;
+        }
+    }
+
+    private static class Task implements Timeout {
+
+        static final int WAITING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Task> STATE = AtomicIntegerFieldUpdater.newUpdater(Task.class,
+                "state");
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = WAITING;
+
+        // 以下字段只由驱动线程访问
+        private long deadlineTick;
+        private Bucket bucket;
+        private Task prev;
+        private Task next;
+
+        Task(TimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                return false;
+            }
+            wheel.cancelled.offer(this);
+            return true;
+        }
+
+        boolean expire() {
+            if (!STATE.compareAndSet(this, WAITING, EXPIRED)) {
+                return false;
+            }
+            try {
+                task.run();
+            } catch (Throwable e) {
+                LOG.warn("[TimingWheel#advance] task failed, task: {}", task, e);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        @Override
+        public long deadline() {
+            return deadline;
+        }
+
+        @Override
+        public String toString() {
+            return "Timeout[deadline=" + deadline + ", state=" + state + "]";
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package me.dalianmao.util.file;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
 
 import javax.servlet.http.HttpServletResponse;
 
 import me.dalianmao.util.Constants;
-import me.dalianmao.util.collection.IterableUtil;
+import me.dalianmao.util.collection.PagedIterator;
 
 /**
- * csv文件工具
+ * csv文件工具，写见{@link CsvWriter}，读见{@link CsvReader}
  *
  * @author xiezhenzong
  *
@@ -23,6 +29,8 @@ public class CsvFile {
 
     public static final String CSV_RN = Constants.WINDOW_RN;
 
+    // List
+
     public static <T> void download(HttpServletResponse response, String fileName, List<String> header, List<T> data,
             Function<T, List<String>> converter) throws IOException {
         download(response, "UTF-8", fileName, header, data, converter);
@@ -30,31 +38,184 @@ public class CsvFile {
 
     public static <T> void download(HttpServletResponse response, String charset,String fileName, List<String> header, List<T> data,
             Function<T, List<String>> converter) throws IOException {
-        response.setContentType("application/ms-txt.numberformat:@");
-        response.setCharacterEncoding(charset);
-        response.setHeader("Pragma", "public");
-        response.setHeader("Content-Disposition", "attachment; filename=" + URLEncoder.encode(fileName, charset));
+        download(response, charset, fileName, header, data.iterator(), converter);
+    }
+
+    public static <T> void write(OutputStream output, List<String> header, List<T> data, Function<T, List<String>> converter)
+            throws IOException {
+        write(output, "UTF-8", header, data, converter);
+    }
+
+    public static <T> void write(OutputStream output, String charset, List<String> header, List<T> data,
+            Function<T, List<String>> converter) throws IOException {
+        write(output, charset, header, data.iterator(), converter);
+    }
+
+    // Iterator，如游标
+
+    public static <T> void download(HttpServletResponse response, String fileName, List<String> header, Iterator<T> data,
+            Function<T, List<String>> converter) throws IOException {
+        download(response, "UTF-8", fileName, header, data, converter);
+    }
+
+    public static <T> void download(HttpServletResponse response, String charset, String fileName, List<String> header,
+            Iterator<T> data, Function<T, List<String>> converter) throws IOException {
+        setHeaders(response, charset, fileName);
         try (OutputStream output = response.getOutputStream()) {
             write(output, charset, header, data, converter);
         }
     }
 
-    public static <T> void write(OutputStream output, List<String> header, List<T> data, Function<T, List<String>> converter)
+    public static <T> void write(OutputStream output, List<String> header, Iterator<T> data, Function<T, List<String>> converter)
             throws IOException {
         write(output, "UTF-8", header, data, converter);
     }
 
-    public static <T> void write(OutputStream output, String charset, List<String> header, List<T> data,
+    /**
+     * 通过{@link CsvWriter}边取数据边编码边写，每次只持有一行，缓冲区满了就写出去，内存占用和行数无关；跳过null的行，不会关闭{@code output}<br/>
+     *
+     * 包含分隔符、引号、回车、换行的列按RFC 4180加引号，见{@link CsvWriter#writeRow(Iterable)}
+     */
+    public static <T> void write(OutputStream output, String charset, List<String> header, Iterator<T> data,
             Function<T, List<String>> converter) throws IOException {
-        StringBuilder builder = new StringBuilder();
-        builder.append(IterableUtil.join(header, CSV_COLUMN_SEPARATOR)).append(CSV_RN);
-        for (T t : data) {
+        CsvWriter writer = new CsvWriter(output, Charset.forName(charset));
+        writer.writeRow(header);
+        while (data.hasNext()) {
+            T t = data.next();
             if (t != null) {
-                builder.append(IterableUtil.join(converter.apply(t), CSV_COLUMN_SEPARATOR)).append(CSV_RN);
+                writer.writeRow(converter.apply(t));
             }
         }
-        output.write(builder.toString().getBytes(charset));
-        output.flush();
+        writer.flush();
+    }
+
+    // Stream，写完之后关闭，如：数据库查询返回的Stream
+
+    public static <T> void download(HttpServletResponse response, String fileName, List<String> header, Stream<T> data,
+            Function<T, List<String>> converter) throws IOException {
+        download(response, "UTF-8", fileName, header, data, converter);
+    }
+
+    public static <T> void download(HttpServletResponse response, String charset, String fileName, List<String> header,
+            Stream<T> data, Function<T, List<String>> converter) throws IOException {
+        try (Stream<T> stream = data) {
+            download(response, charset, fileName, header, stream.iterator(), converter);
+        }
+    }
+
+    public static <T> void write(OutputStream output, List<String> header, Stream<T> data, Function<T, List<String>> converter)
+            throws IOException {
+        write(output, "UTF-8", header, data, converter);
+    }
+
+    public static <T> void write(OutputStream output, String charset, List<String> header, Stream<T> data,
+            Function<T, List<String>> converter) throws IOException {
+        try (Stream<T> stream = data) {
+            write(output, charset, header, stream.iterator(), converter);
+        }
+    }
+
+    // 分页查询
+
+    /**
+     * 一页一页地查询、写出，内存中只有当前这一页
+     *
+     * @param fetcher
+     *            根据上一页的最后一行查询下一页，第一页的参数是null
+     * @param pageSize
+     *            每页的大小，不满一页时结束
+     *
+     * @see PagedIterator
+     */
+    public static <T> void downloadPaged(HttpServletResponse response, String fileName, List<String> header,
+            Function<T, List<T>> fetcher, int pageSize, Function<T, List<String>> converter) throws IOException {
+        downloadPaged(response, "UTF-8", fileName, header, fetcher, pageSize, converter);
+    }
+
+    public static <T> void downloadPaged(HttpServletResponse response, String charset, String fileName,
+            List<String> header, Function<T, List<T>> fetcher, int pageSize, Function<T, List<String>> converter)
+            throws IOException {
+        download(response, charset, fileName, header, new PagedIterator<>(fetcher, pageSize), converter);
+    }
+
+    public static <T> void writePaged(OutputStream output, List<String> header, Function<T, List<T>> fetcher,
+            int pageSize, Function<T, List<String>> converter) throws IOException {
+        writePaged(output, "UTF-8", header, fetcher, pageSize, converter);
+    }
+
+    public static <T> void writePaged(OutputStream output, String charset, List<String> header,
+            Function<T, List<T>> fetcher, int pageSize, Function<T, List<String>> converter) throws IOException {
+        write(output, charset, header, new PagedIterator<>(fetcher, pageSize), converter);
+    }
+
+    // 按类型写列，不生成每一行的List和字符串，文本按RFC 4180加引号
+
+    public static <T> void downloadRows(HttpServletResponse response, String fileName, List<String> header,
+            Iterator<T> data, RowEncoder<? super T> encoder) throws IOException {
+        downloadRows(response, "UTF-8", fileName, header, data, encoder);
+    }
+
+    public static <T> void downloadRows(HttpServletResponse response, String charset, String fileName,
+            List<String> header, Iterator<T> data, RowEncoder<? super T> encoder) throws IOException {
+        setHeaders(response, charset, fileName);
+        try (OutputStream output = response.getOutputStream()) {
+            writeRows(output, charset, header, data, encoder);
+        }
+    }
+
+    public static <T> void writeRows(OutputStream output, List<String> header, Iterator<T> data,
+            RowEncoder<? super T> encoder) throws IOException {
+        writeRows(output, "UTF-8", header, data, encoder);
+    }
+
+    /**
+     * 和{@link CsvFile#write(OutputStream, String, List, Iterator, Function)}一样边取边写，但是由{@code encoder}直接把各列写到
+     * {@link CsvWriter}，数字、日期不经过字符串；List、Stream、分页查询可以传{@code iterator()}、{@link PagedIterator}
+     */
+    public static <T> void writeRows(OutputStream output, String charset, List<String> header, Iterator<T> data,
+            RowEncoder<? super T> encoder) throws IOException {
+        CsvWriter writer = new CsvWriter(output, Charset.forName(charset));
+        writer.writeRecord(header);
+        while (data.hasNext()) {
+            T t = data.next();
+            if (t != null) {
+                encoder.encode(t, writer);
+                writer.endRow();
+            }
+        }
+        writer.flush();
+    }
+
+    // 读，每一行通过复用的CsvRow交给handler，见CsvReader
+
+    public static long read(Path file, RowHandler handler) throws IOException {
+        return read(file, "UTF-8", handler);
+    }
+
+    public static long read(Path file, String charset, RowHandler handler) throws IOException {
+        return new CsvReader(Charset.forName(charset)).read(file, handler);
+    }
+
+    /**
+     * 如上传的文件，不会关闭{@code input}
+     */
+    public static long read(InputStream input, String charset, RowHandler handler) throws IOException {
+        return new CsvReader(Charset.forName(charset)).read(input, handler);
+    }
+
+    /**
+     * 在记录边界上把文件分成大约{@code parts}段并行解析，见{@link CsvReader#readParallel(Path, int, IntFunction)}
+     */
+    public static long readParallel(Path file, String charset, int parts, IntFunction<? extends RowHandler> handlers)
+            throws IOException {
+        return new CsvReader(Charset.forName(charset)).readParallel(file, parts, handlers);
+    }
+
+    private static void setHeaders(HttpServletResponse response, String charset, String fileName) throws IOException {
+        response.setContentType("application/ms-txt.numberformat:@");
+        response.setCharacterEncoding(charset);
+        response.setHeader("Pragma", "public");
+        response.setHeader("Content-Disposition", "attachment; filename=" + URLEncoder.encode(fileName, charset));
     }
 
 }
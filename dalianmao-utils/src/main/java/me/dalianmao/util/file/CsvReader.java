@@ -0,0 +1,347 @@
+package me.dalianmao.util.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * 读csv，按RFC 4180解析带引号的列，每一行通过复用的{@link CsvRow}交给{@link RowHandler}<br/>
+ *
+ * <ol>
+ * <li>文件用{@code FileChannel.map}映射到内存，大文件按{@code 1GB}分段映射；输入流通过一个复用的缓冲区读
+ * <li>直接在字节上解析，不先解码成字符，只支持逗号、引号、回车、换行和ASCII相同的编码，如UTF-8、GBK
+ * <li>回车、换行、回车换行都算一行的结束，空行跳过；引号之外的引号、结束引号之后的内容按普通字符处理
+ * <li>{@link CsvReader#split(Path, int)}在记录边界上把文件分成几段，{@link CsvReader#readParallel(Path, int, IntFunction)}
+ * 在{@code ForkJoinPool.commonPool()}中并行解析各段
+ * </ol>
+ *
+ * 注意：分段时根据前面引号个数的奇偶判断换行是否在引号中，要求引号只出现在带引号的列中；不是这样的文件只能顺序读
+ *
+ * @author xiezhenzong
+ *
+ * @see CsvRow
+ * @see CsvWriter
+ */
+public class CsvReader {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 << 10;
+
+    /**
+     * {@link CsvReader#split(Path, int)}每一段的最小字节数，太小的文件不值得并行
+     */
+    public static final long MIN_SPLIT_SIZE = 64 << 10;
+
+    private static final long MAX_MAPPING_SIZE = 1 << 30;
+
+    // 解析状态
+    private static final int START = 0; // 一列的开头
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE = 3; // 带引号的列中遇到了引号，可能是结束，也可能是转义的""
+
+    private final Charset charset;
+    private final int bufferSize;
+
+    public CsvReader() {
+        this(StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvReader(Charset charset) {
+        this(charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param charset
+     *            编码，逗号、引号、回车、换行要和ASCII相同
+     * @param bufferSize
+     *            读输入流时缓冲区的大小
+     */
+    public CsvReader(Charset charset, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        if (!Arrays.equals(",\"\r\n".getBytes(charset), new byte[] { ',', '"', '\r', '\n' })) {
+            throw new IllegalArgumentException("charset is not ASCII compatible: " + charset);
+        }
+        this.charset = charset;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * 通过一个复用的缓冲区读完输入流，不会关闭{@code input}
+     *
+     * @return 行数
+     * @throws IOException
+     *             读失败，或者最后一列的引号没有结束
+     */
+    public long read(InputStream input, RowHandler handler) throws IOException {
+        Parser parser = new Parser(handler, 0);
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        long position = 0;
+        int count;
+        while ((count = input.read(buffer.array(), 0, buffer.capacity())) >= 0) {
+            buffer.limit(count);
+            parser.parse(buffer, position);
+            position += count;
+        }
+        return parser.finish();
+    }
+
+    /**
+     * 映射整个文件读
+     *
+     * @return 行数
+     */
+    public long read(Path file, RowHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, 0, channel.size(), handler);
+        }
+    }
+
+    /**
+     * 只读文件的{@code [from, to)}，{@code from}要在记录的开头，一般是{@link CsvReader#split(Path, int)}返回的边界
+     *
+     * @return 行数
+     */
+    public long read(Path file, long from, long to, RowHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (from < 0 || from > to || to > channel.size()) {
+                throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", size: " + channel.size());
+            }
+            return read(channel, from, to, handler);
+        }
+    }
+
+    /**
+     * 把文件分成大约{@code parts}段，每一段都从记录的开头开始：
+     *
+     * <ol>
+     * <li>按字节平分成几段，并行扫描每一段，数引号的个数，同时记下第一个前面有偶数个、奇数个引号的换行
+     * <li>前面所有段的引号个数决定这一段的开头是否在引号中，从而选出第一个不在引号中的换行，换行之后就是边界
+     * <li>一段中没有这样的换行时和后面的段合并，所以返回的段数可能比{@code parts}少
+     * </ol>
+     *
+     * @return 递增的边界，第一个是0，最后一个是文件的大小，第i段是{@code [boundaries[i], boundaries[i + 1])}
+     */
+    public long[] split(Path file, int parts) throws IOException {
+        if (parts <= 0) {
+            throw new IllegalArgumentException("parts must be positive: " + parts);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunks = (int) Math.max(1, Math.min(parts, size / MIN_SPLIT_SIZE));
+            List<Callable<long[]>> tasks = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                long from = size * i / chunks;
+                long to = size * (i + 1) / chunks;
+                tasks.add(() -> scan(channel, from, to));
+            }
+            long[] boundaries = new long[chunks + 1];
+            int count = 1;
+            long quotes = 0; // 这一段之前的引号个数
+            List<Future<long[]>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+            for (int i = 0; i < chunks; i++) {
+                long[] result = join(futures.get(i));
+                long boundary = (quotes & 1) == 0 ? result[1] : result[2];
+                if (i > 0 && boundary > boundaries[count - 1] && boundary < size) {
+                    boundaries[count++] = boundary;
+                }
+                quotes += result[0];
+            }
+            boundaries[count++] = size;
+            return Arrays.copyOf(boundaries, count);
+        }
+    }
+
+    /**
+     * 并行读{@link CsvReader#split(Path, int)}分出的各段，每一段用{@code handlers.apply(i)}处理，第0段的第一行是表头
+     *
+     * @param handlers
+     *            根据段的编号返回处理方法，不同的段在不同的线程中处理，所以一般每一段用一个新的
+     * @return 所有段的行数之和
+     */
+    public long readParallel(Path file, int parts, IntFunction<? extends RowHandler> handlers) throws IOException {
+        long[] boundaries = split(file, parts);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Callable<Long>> tasks = new ArrayList<>(boundaries.length - 1);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                long from = boundaries[i];
+                long to = boundaries[i + 1];
+                RowHandler handler = handlers.apply(i);
+                tasks.add(() -> read(channel, from, to, handler));
+            }
+            long rows = 0;
+            for (Future<Long> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                rows += join(future);
+            }
+            return rows;
+        }
+    }
+
+    private long read(FileChannel channel, long from, long to, RowHandler handler) throws IOException {
+        Parser parser = new Parser(handler, from);
+        for (long position = from; position < to; position += MAX_MAPPING_SIZE) {
+            parser.parse(channel.map(MapMode.READ_ONLY, position, Math.min(MAX_MAPPING_SIZE, to - position)), position);
+        }
+        return parser.finish();
+    }
+
+    /**
+     * @return {引号个数, 第一个前面有偶数个引号的换行之后的位置, 第一个前面有奇数个引号的换行之后的位置}，没有时是-1
+     */
+    private static long[] scan(FileChannel channel, long from, long to) throws IOException {
+        long quotes = 0;
+        long even = -1;
+        long odd = -1;
+        for (long position = from; position < to; position += MAX_MAPPING_SIZE) {
+            ByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, Math.min(MAX_MAPPING_SIZE, to - position));
+            for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    quotes++;
+                } else if (b == '\n') {
+                    if ((quotes & 1) == 0) {
+                        if (even < 0) {
+                            even = position + i + 1;
+                        }
+                    } else if (odd < 0) {
+                        odd = position + i + 1;
+                    }
+                }
+            }
+        }
+        return new long[] { quotes, even, odd };
+    }
+
+    private static <T> T join(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CsvReader[charset=" + charset + ", bufferSize=" + bufferSize + "]";
+    }
+
+    /**
+     * 一次读取的解析状态，跨缓冲区、跨映射段保持，所以一行可以被拆在两次{@code parse}之间
+     */
+    private class Parser {
+
+        private final RowHandler handler;
+        private final CsvRow row = new CsvRow(charset);
+        private int state = START;
+        private boolean skipLf = false; // 上一行以回车结束，紧跟着的换行属于同一个行结束符
+        private boolean blank = true; // 当前行还没有任何内容，行结束时跳过
+        private long rows = 0;
+
+        Parser(RowHandler handler, long offset) {
+            this.handler = handler;
+            this.row.reset(offset);
+        }
+
+        /**
+         * @param base
+         *            {@code buffer}中下标0在文件或者输入流中的位置
+         */
+        void parse(ByteBuffer buffer, long base) throws IOException {
+            for (int i = buffer.position(), limit = buffer.limit(); i < limit; i++) {
+                byte b = buffer.get(i);
+                if (skipLf) {
+                    skipLf = false;
+                    if (b == '\n') {
+                        row.reset(base + i + 1);
+                        continue;
+                    }
+                }
+                if (state == QUOTED) {
+                    if (b == '"') {
+                        state = QUOTE;
+                    } else {
+                        row.append(b);
+                    }
+                    continue;
+                }
+                if (state == QUOTE) {
+                    if (b == '"') {
+                        row.append(b);
+                        state = QUOTED;
+                        continue;
+                    }
+                    state = UNQUOTED; // 引号结束，后面的内容按不带引号处理
+                }
+                if (b == ',') {
+                    row.endField();
+                    state = START;
+                    blank = false;
+                } else if (b == '\n' || b == '\r') {
+                    endRow(base + i + 1);
+                    skipLf = b == '\r';
+                } else if (b == '"' && state == START) {
+                    state = QUOTED;
+                    blank = false;
+                } else {
+                    row.append(b);
+                    state = UNQUOTED;
+                    blank = false;
+                }
+            }
+        }
+
+        /**
+         * 处理最后一行没有换行的情况
+         *
+         * @return 行数
+         */
+        long finish() throws IOException {
+            if (state == QUOTED) {
+                throw new IOException("unclosed quote in the row at offset " + row.getOffset());
+            }
+            endRow(0);
+            return rows;
+        }
+
+        private void endRow(long next) throws IOException {
+            if (!blank) {
+                row.endField();
+                handler.handle(row);
+                rows++;
+            }
+            row.reset(next);
+            state = START;
+            blank = true;
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package me.dalianmao.util.file;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * {@link CsvReader}读出的一行，同一次读取中复用同一个对象，{@link RowHandler#handle(CsvRow)}返回之后内容就会被下一行覆盖<br/>
+ *
+ * <ol>
+ * <li>各列去掉引号、{@code ""}换成{@code "}之后的字节连续存放在一个复用的数组中，读的时候不会为每一列生成字符串
+ * <li>{@code getLong}、{@code getInt}、{@code getDecimal}直接从字节解析；只有{@code getString}等方法才按编码生成字符串
+ * </ol>
+ *
+ * 注意：不是线程安全的；需要保留一行时用{@link CsvRow#getStrings()}复制出来
+ *
+ * @author xiezhenzong
+ *
+ * @see CsvReader
+ */
+public class CsvRow {
+
+    private final Charset charset;
+    private byte[] data = new byte[256]; // 各列的字节
+    private int length = 0;
+    private int[] ends = new int[16]; // 第i列是[ends[i - 1], ends[i])，第0列从0开始
+    private int size = 0;
+    private long offset = 0;
+
+    CsvRow(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * @return 列数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 这一行在文件或者输入流中的起始字节位置，文件的第一行是0
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public boolean isEmpty(int index) {
+        return start(index) == ends[index];
+    }
+
+    /**
+     * @return 这一列的字节数
+     */
+    public int getByteLength(int index) {
+        return ends[index] - start(index);
+    }
+
+    /**
+     * @return 这一列的字节，和内部的数组不共享
+     */
+    public byte[] getBytes(int index) {
+        return Arrays.copyOfRange(data, start(index), ends[index]);
+    }
+
+    public String getString(int index) {
+        int start = start(index);
+        return new String(data, start, ends[index] - start, charset);
+    }
+
+    /**
+     * @return 复制出来的所有列
+     */
+    public String[] getStrings() {
+        String[] strings = new String[size];
+        for (int i = 0; i < size; i++) {
+            strings[i] = getString(i);
+        }
+        return strings;
+    }
+
+    /**
+     * 和{@code Long.parseLong}一样解析，不生成字符串
+     *
+     * @throws NumberFormatException
+     *             不是整数或者溢出
+     */
+    public long getLong(int index) {
+        int start = start(index);
+        int end = ends[index];
+        boolean negative = start < end && data[start] == '-';
+        int i = negative || start < end && data[start] == '+' ? start + 1 : start;
+        if (i == end) {
+            throw numberFormat(index);
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0; // 用负数累加，Long.MIN_VALUE不会溢出
+        for (; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9 || value < limit / 10 || value * 10 < limit + digit) {
+                throw numberFormat(index);
+            }
+            value = value * 10 - digit;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * @throws NumberFormatException
+     *             不是整数或者超出{@code int}的范围
+     */
+    public int getInt(int index) {
+        long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw numberFormat(index);
+        }
+        return (int) value;
+    }
+
+    /**
+     * 解析定点小数，和{@link CsvWriter#field(long, int)}对应，如{@code 12.3}按{@code scale=2}解析成{@code 1230}
+     *
+     * @param scale
+     *            小数位数，在{@code [0, CsvWriter.MAX_SCALE]}之间
+     * @return 去掉小数点之后的值
+     * @throws NumberFormatException
+     *             不是小数、溢出或者小数位数超过{@code scale}并且多出来的不全是0
+     */
+    public long getDecimal(int index, int scale) {
+        if (scale < 0 || scale > CsvWriter.MAX_SCALE) {
+            throw new IllegalArgumentException("scale must be between 0 and " + CsvWriter.MAX_SCALE + ": " + scale);
+        }
+        int start = start(index);
+        int end = ends[index];
+        boolean negative = start < end && data[start] == '-';
+        int i = negative || start < end && data[start] == '+' ? start + 1 : start;
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        int digits = 0;
+        int fraction = -1; // 小数点之后的位数，-1表示还没有遇到小数点
+        for (; i < end; i++) {
+            byte b = data[i];
+            if (b == '.' && fraction < 0) {
+                fraction = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormat(index);
+            }
+            digits++;
+            if (fraction >= 0 && ++fraction > scale) {
+                if (digit != 0) {
+                    throw numberFormat(index);
+                }
+                continue;
+            }
+            if (value < limit / 10 || value * 10 < limit + digit) {
+                throw numberFormat(index);
+            }
+            value = value * 10 - digit;
+        }
+        if (digits == 0) {
+            throw numberFormat(index);
+        }
+        for (int j = Math.max(fraction, 0); j < scale; j++) {
+            if (value < limit / 10) {
+                throw numberFormat(index);
+            }
+            value *= 10;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * @return 空列返回null
+     */
+    public BigDecimal getBigDecimal(int index) {
+        return isEmpty(index) ? null : new BigDecimal(getString(index));
+    }
+
+    private int start(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    private NumberFormatException numberFormat(int index) {
+        return new NumberFormatException("column " + index + " at offset " + offset + ": \"" + getString(index) + "\"");
+    }
+
+    // CsvReader解析时调用
+
+    void append(byte b) {
+        if (length == data.length) {
+            data = Arrays.copyOf(data, length << 1);
+        }
+        data[length++] = b;
+    }
+
+    void endField() {
+        if (size == ends.length) {
+            ends = Arrays.copyOf(ends, size << 1);
+        }
+        ends[size++] = length;
+    }
+
+    void reset(long offset) {
+        this.length = 0;
+        this.size = 0;
+        this.offset = offset;
+    }
+
+    @Override
+    public String toString() {
+        return "CsvRow[offset=" + offset + ", columns=" + Arrays.toString(getStrings()) + "]";
+    }
+
+}
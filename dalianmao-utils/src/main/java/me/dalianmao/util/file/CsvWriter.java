@@ -0,0 +1,588 @@
+package me.dalianmao.util.file;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.Objects;
+
+import me.dalianmao.util.Pattern;
+
+/**
+ * 流式写csv，边编码边写到{@code OutputStream}，内存占用只有固定大小的缓冲区，和行数无关<br/>
+ *
+ * <ol>
+ * <li>字符先复制到字符缓冲区，满了之后用{@code CharsetEncoder}编码到字节缓冲区，字节缓冲区满了就写到{@code output}
+ * <li>不会为每一行生成字符串，也不会把整个文件拼成一个字符串再{@code getBytes}
+ * <li>无法编码的字符和{@code String.getBytes}一样替换成默认的替换字节，比如GBK中的emoji
+ * <li>{@code field}系列方法按类型写列：数字、日期直接格式化到缓冲区，文本按RFC 4180加引号，一行写完调用{@link CsvWriter#endRow()}
+ * </ol>
+ *
+ * 注意：不是线程安全的；{@link CsvWriter#flush()}之前写的内容可能还在缓冲区中；同一行中不要混用{@link CsvWriter#writeRow(Iterable)}和{@code field}
+ *
+ * @author xiezhenzong
+ *
+ * @see CsvFile
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8 << 10;
+
+    /**
+     * {@link CsvWriter#field(long, int)}支持的最大小数位数
+     */
+    public static final int MAX_SCALE = 18;
+
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    private static final char QUOTE = '"';
+
+    private final OutputStream output;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars; // 写模式，position之前是还没有编码的字符
+    private final ByteBuffer bytes; // 写模式，position之前是还没有写到output的字节
+    private final ZoneRules rules; // 把时间戳转换成本地时间
+    private final char[] scratch = new char[24]; // 数字、日期先格式化到这里，再复制到字符缓冲区
+    private boolean rowStarted = false; // 当前行已经写了列，下一列之前要加分隔符
+    private boolean closed = false;
+
+    // 时区偏移的缓存，[offsetFrom, offsetUntil)之间的偏移都是offsetSeconds，单位秒
+    private long offsetFrom = 0;
+    private long offsetUntil = 0;
+    private int offsetSeconds = 0;
+
+    public CsvWriter(OutputStream output) {
+        this(output, StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvWriter(OutputStream output, Charset charset) {
+        this(output, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param output
+     *            输出流
+     * @param charset
+     *            编码
+     * @param bufferSize
+     *            字节缓冲区的大小，字符缓冲区是它的一半
+     */
+    public CsvWriter(OutputStream output, Charset charset, int bufferSize) {
+        this(output, charset, bufferSize, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param output
+     *            输出流
+     * @param charset
+     *            编码
+     * @param bufferSize
+     *            字节缓冲区的大小，字符缓冲区是它的一半
+     * @param zone
+     *            时区，{@link CsvWriter#date(long)}和{@link CsvWriter#dateTime(long)}按这个时区格式化时间戳
+     */
+    public CsvWriter(OutputStream output, Charset charset, int bufferSize, ZoneId zone) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("bufferSize must be at least " + MIN_BUFFER_SIZE + ": " + bufferSize);
+        }
+        this.output = Objects.requireNonNull(output, "output");
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(bufferSize / 2);
+        this.bytes = ByteBuffer.allocate(bufferSize);
+        this.rules = zone.getRules();
+    }
+
+    /**
+     * 写一行，列之间用{@link CsvFile#CSV_COLUMN_SEPARATOR}分隔，最后加上{@link CsvFile#CSV_RN}；和原来的{@code IterableUtil.joinTo}一样跳过null。
+     * 各列和{@link CsvWriter#field(CharSequence)}一样按RFC 4180加引号
+     *
+     * @param row
+     *            一行中的各列
+     * @return this
+     */
+    public CsvWriter writeRow(Iterable<? extends CharSequence> row) throws IOException {
+        return writeRow(row, true);
+    }
+
+    /**
+     * 和{@link CsvWriter#writeRow(Iterable)}一样，但是原样写出各列，不加引号；只在各列确定没有分隔符、引号、回车、换行，或者调用方已经处理过时使用
+     *
+     * @param row
+     *            一行中的各列
+     * @return this
+     */
+    public CsvWriter writeUnquotedRow(Iterable<? extends CharSequence> row) throws IOException {
+        return writeRow(row, false);
+    }
+
+    private CsvWriter writeRow(Iterable<? extends CharSequence> row, boolean escape) throws IOException {
+        ensureOpen();
+        boolean first = true;
+        for (CharSequence column : row) {
+            if (column == null) {
+                continue;
+            }
+            if (!first) {
+                append(CsvFile.CSV_COLUMN_SEPARATOR);
+            }
+            if (escape) {
+                appendEscaped(column);
+            } else {
+                append(column);
+            }
+            first = false;
+        }
+        append(CsvFile.CSV_RN);
+        rowStarted = false;
+        return this;
+    }
+
+    /**
+     * 写一行，每一列都和{@link CsvWriter#field(CharSequence)}一样按需加引号，null写成空列
+     *
+     * @param row
+     *            一行中的各列
+     * @return this
+     */
+    public CsvWriter writeRecord(Iterable<? extends CharSequence> row) throws IOException {
+        for (CharSequence column : row) {
+            field(column);
+        }
+        return endRow();
+    }
+
+    // 按类型写列，不生成字符串
+
+    /**
+     * 写一列文本，包含分隔符、引号、回车或者换行时按RFC 4180加上引号，其中的引号写两次；只扫描一遍
+     *
+     * @param value
+     *            null写成空列
+     * @return this
+     */
+    public CsvWriter field(CharSequence value) throws IOException {
+        separate();
+        if (value != null) {
+            appendEscaped(value);
+        }
+        return this;
+    }
+
+    public CsvWriter field(int value) throws IOException {
+        return field((long) value);
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separate();
+        int from = formatLong(value, scratch.length);
+        append(scratch, from, scratch.length - from);
+        return this;
+    }
+
+    /**
+     * 写一个定点小数，如金额{@code field(1234, 2)}写成{@code 12.34}
+     *
+     * @param unscaledValue
+     *            去掉小数点之后的值
+     * @param scale
+     *            小数位数，在{@code [0, MAX_SCALE]}之间
+     * @return this
+     */
+    public CsvWriter field(long unscaledValue, int scale) throws IOException {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+        separate();
+        boolean negative = unscaledValue < 0;
+        long value = negative ? unscaledValue : -unscaledValue; // 用负数计算，Long.MIN_VALUE不会溢出
+        int from = scratch.length;
+        for (int i = 0; i < scale; i++) {
+            long quotient = value / 10;
+            scratch[--from] = (char) ('0' + quotient * 10 - value);
+            value = quotient;
+        }
+        if (scale > 0) {
+            scratch[--from] = '.';
+        }
+        from = formatDigits(value, from);
+        if (negative) {
+            scratch[--from] = '-';
+        }
+        append(scratch, from, scratch.length - from);
+        return this;
+    }
+
+    /**
+     * 写成{@code toPlainString}的格式；{@code BigDecimal}没有不生成对象的方法，频繁写的列可以用{@link CsvWriter#field(long, int)}
+     *
+     * @param value
+     *            null写成空列
+     * @return this
+     */
+    public CsvWriter field(BigDecimal value) throws IOException {
+        separate();
+        if (value != null) {
+            append(value.toPlainString());
+        }
+        return this;
+    }
+
+    /**
+     * 按{@link Pattern#DATE}写日期
+     *
+     * @param value
+     *            null写成空列
+     * @return this
+     */
+    public CsvWriter field(LocalDate value) throws IOException {
+        separate();
+        if (value != null) {
+            appendDateTime(value.getYear(), value.getMonthValue(), value.getDayOfMonth(), 0, false);
+        }
+        return this;
+    }
+
+    /**
+     * 按{@link Pattern#DATE_TIME}写时间
+     *
+     * @param value
+     *            null写成空列
+     * @return this
+     */
+    public CsvWriter field(LocalDateTime value) throws IOException {
+        separate();
+        if (value != null) {
+            appendDateTime(value.getYear(), value.getMonthValue(), value.getDayOfMonth(),
+                    value.toLocalTime().toSecondOfDay(), true);
+        }
+        return this;
+    }
+
+    /**
+     * 按{@link Pattern#DATE_TIME}写时间，时区是构造时指定的时区
+     *
+     * @param value
+     *            null写成空列
+     * @return this
+     */
+    public CsvWriter field(Date value) throws IOException {
+        separate();
+        if (value != null) {
+            appendEpochMillis(value.getTime(), true);
+        }
+        return this;
+    }
+
+    /**
+     * 按{@link Pattern#DATE}写时间戳的日期，时区是构造时指定的时区
+     */
+    public CsvWriter date(long epochMillis) throws IOException {
+        separate();
+        appendEpochMillis(epochMillis, false);
+        return this;
+    }
+
+    /**
+     * 按{@link Pattern#DATE_TIME}写时间戳，时区是构造时指定的时区
+     */
+    public CsvWriter dateTime(long epochMillis) throws IOException {
+        separate();
+        appendEpochMillis(epochMillis, true);
+        return this;
+    }
+
+    /**
+     * 结束当前行，写{@link CsvFile#CSV_RN}
+     *
+     * @return this
+     */
+    public CsvWriter endRow() throws IOException {
+        ensureOpen();
+        append(CsvFile.CSV_RN);
+        rowStarted = false;
+        return this;
+    }
+
+    /**
+     * 编码缓冲区中所有的字符，写到{@code output}并且{@code flush}
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        encode(false);
+        writeBytes();
+        output.flush();
+    }
+
+    /**
+     * 写完剩下的内容，关闭{@code output}
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            encode(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+            writeBytes();
+            output.flush();
+        } finally {
+            closed = true;
+            output.close();
+        }
+    }
+
+    private void separate() throws IOException {
+        ensureOpen();
+        if (rowStarted) {
+            append(CsvFile.CSV_COLUMN_SEPARATOR);
+        }
+        rowStarted = true;
+    }
+
+    /**
+     * 先按不需要引号复制，遇到第一个特殊字符时把已经复制的部分后移一位补上开头的引号。为了保证开头还在字符缓冲区中，
+     * 最坏情况(每个字符都是引号)放不下的长字段先扫描一遍，再逐个字符写
+     */
+    private void appendEscaped(CharSequence text) throws IOException {
+        int length = text.length();
+        int worst = 2 * length + 2;
+        if (worst > chars.capacity() - 1) { // 编码之后可能还留着一个落单的高代理项
+            appendEscapedSlowly(text);
+            return;
+        }
+        if (chars.remaining() < worst) {
+            encode(false);
+        }
+        char[] array = chars.array();
+        int start = chars.arrayOffset() + chars.position();
+        int position = start;
+        boolean quoted = false;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (needsQuote(c)) {
+                if (!quoted) {
+                    System.arraycopy(array, start, array, start + 1, position - start);
+                    array[start] = QUOTE;
+                    position++;
+                    quoted = true;
+                }
+                if (c == QUOTE) {
+                    array[position++] = QUOTE;
+                }
+            }
+            array[position++] = c;
+        }
+        if (quoted) {
+            array[position++] = QUOTE;
+        }
+        chars.position(position - chars.arrayOffset());
+    }
+
+    private void appendEscapedSlowly(CharSequence text) throws IOException {
+        int length = text.length();
+        int first = 0;
+        while (first < length && !needsQuote(text.charAt(first))) {
+            first++;
+        }
+        if (first == length) {
+            append(text);
+            return;
+        }
+        append(QUOTE);
+        append(text.subSequence(0, first));
+        for (int i = first; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == QUOTE) {
+                append(QUOTE);
+            }
+            append(c);
+        }
+        append(QUOTE);
+    }
+
+    private static boolean needsQuote(char c) {
+        return c == CsvFile.CSV_COLUMN_SEPARATOR || c == QUOTE || c == '\r' || c == '\n';
+    }
+
+    private void appendEpochMillis(long epochMillis, boolean withTime) throws IOException {
+        long epochSecond = Math.floorDiv(epochMillis, 1000);
+        long localSecond = epochSecond + offsetSeconds(epochSecond);
+        long epochDay = Math.floorDiv(localSecond, 86400);
+        int secondOfDay = (int) Math.floorMod(localSecond, 86400);
+        // 公历日期，见 http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153; // 从3月开始
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        appendDateTime(year, month, day, secondOfDay, withTime);
+    }
+
+    /**
+     * 本地时间和UTC的偏移，缓存当前所在的两次时区变化之间的偏移，只在跨过变化时查询{@code ZoneRules}
+     */
+    private int offsetSeconds(long epochSecond) {
+        if (epochSecond < offsetFrom || epochSecond >= offsetUntil) {
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+            offsetFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+            offsetUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+        }
+        return offsetSeconds;
+    }
+
+    /**
+     * 年份在{@code [0, 9999]}之外时不补零
+     */
+    private void appendDateTime(long year, int month, int day, int secondOfDay, boolean withTime) throws IOException {
+        int end = scratch.length;
+        int from = end;
+        if (withTime) {
+            from = formatTwoDigits(secondOfDay % 60, from);
+            scratch[--from] = ':';
+            from = formatTwoDigits(secondOfDay / 60 % 60, from);
+            scratch[--from] = ':';
+            from = formatTwoDigits(secondOfDay / 3600, from);
+            scratch[--from] = ' ';
+        }
+        from = formatTwoDigits(day, from);
+        scratch[--from] = '-';
+        from = formatTwoDigits(month, from);
+        scratch[--from] = '-';
+        int yearEnd = from;
+        from = formatLong(year, from);
+        while (year >= 0 && yearEnd - from < 4) {
+            scratch[--from] = '0';
+        }
+        append(scratch, from, end - from);
+    }
+
+    private int formatTwoDigits(int value, int end) {
+        scratch[end - 1] = (char) ('0' + value % 10);
+        scratch[end - 2] = (char) ('0' + value / 10);
+        return end - 2;
+    }
+
+    /**
+     * 从{@code scratch[end]}往前写十进制数
+     *
+     * @return 第一个字符的下标
+     */
+    private int formatLong(long value, int end) {
+        if (value < 0) {
+            int from = formatDigits(value, end);
+            scratch[--from] = '-';
+            return from;
+        }
+        return formatDigits(-value, end);
+    }
+
+    /**
+     * 往前写{@code -negativeValue}的各位数字，至少一位
+     */
+    private int formatDigits(long negativeValue, int end) {
+        int from = end;
+        do {
+            long quotient = negativeValue / 10;
+            scratch[--from] = (char) ('0' + quotient * 10 - negativeValue);
+            negativeValue = quotient;
+        } while (negativeValue != 0);
+        return from;
+    }
+
+    private void append(char[] source, int from, int length) throws IOException {
+        for (int to = from + length; from < to;) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int count = Math.min(to - from, chars.remaining());
+            chars.put(source, from, count);
+            from += count;
+        }
+    }
+
+    private void append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+    }
+
+    private void append(CharSequence text) throws IOException {
+        ensureOpen();
+        int length = text.length();
+        for (int from = 0; from < length;) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int to = Math.min(length, from + chars.remaining());
+            if (text instanceof String) {
+                ((String) text).getChars(from, to, chars.array(), chars.arrayOffset() + chars.position());
+                chars.position(chars.position() + to - from);
+            } else {
+                for (int i = from; i < to; i++) {
+                    chars.put(text.charAt(i));
+                }
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * 把字符缓冲区编码到字节缓冲区，字节缓冲区满了就先写出去；不是最后一次编码时，末尾落单的高代理项留到下次和低代理项一起编码
+     */
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                writeBytes();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException(); // 设置了REPLACE，不会出现
+            }
+        }
+        chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        if (bytes.position() > 0) {
+            output.write(bytes.array(), bytes.arrayOffset(), bytes.position());
+            bytes.clear();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("csv writer is closed");
+        }
+    }
+
+}
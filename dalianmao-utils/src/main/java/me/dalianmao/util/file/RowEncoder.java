@@ -0,0 +1,24 @@
+package me.dalianmao.util.file;
+
+import java.io.IOException;
+
+/**
+ * 把一行数据按类型直接写到{@link CsvWriter}，不生成每一行的{@code List}和字符串，如：
+ *
+ * <pre>
+ * (order, writer) -&gt; writer.field(order.getId()).field(order.getName()).field(order.getAmount(), 2)
+ *         .dateTime(order.getCreateTime())
+ * </pre>
+ *
+ * 不需要调用{@link CsvWriter#endRow()}，{@link CsvFile}写完一行之后会换行
+ *
+ * @author xiezhenzong
+ *
+ * @see CsvFile#writeRows(java.io.OutputStream, String, java.util.List, java.util.Iterator, RowEncoder)
+ */
+@FunctionalInterface
+public interface RowEncoder<T> {
+
+    void encode(T row, CsvWriter writer) throws IOException;
+
+}
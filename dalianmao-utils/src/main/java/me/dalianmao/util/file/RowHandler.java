@@ -0,0 +1,17 @@
+package me.dalianmao.util.file;
+
+import java.io.IOException;
+
+/**
+ * 处理{@link CsvReader}读出的每一行；{@code row}是复用的，返回之后就会被下一行覆盖
+ *
+ * @author xiezhenzong
+ *
+ * @see CsvReader
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+    void handle(CsvRow row) throws IOException;
+
+}
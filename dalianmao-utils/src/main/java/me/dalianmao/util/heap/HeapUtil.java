@@ -0,0 +1,34 @@
+package me.dalianmao.util.heap;
+
+/**
+ * 堆的公共方法
+ *
+ * @author xiezhenzong
+ *
+ */
+abstract class HeapUtil {
+
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    static int checkArity(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2: " + arity);
+        }
+        return arity;
+    }
+
+    /**
+     * 按1.5倍扩容，并且不小于{@code minCapacity}
+     */
+    static int grow(int capacity, int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required heap capacity too large: " + Integer.toUnsignedString(minCapacity));
+        }
+        int newCapacity = capacity + (capacity >> 1) + 1;
+        if (newCapacity < 0 || newCapacity > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Math.max(newCapacity, minCapacity);
+    }
+
+}
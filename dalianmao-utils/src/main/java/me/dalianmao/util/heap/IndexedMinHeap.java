@@ -0,0 +1,254 @@
+package me.dalianmao.util.heap;
+
+import java.util.Arrays;
+
+/**
+ * 带句柄的小根堆，可以修改已经在堆中的元素的优先级，适合按截止时间调度的任务队列<br/>
+ *
+ * 句柄是调用方分配的{@code [0, n)}之间的整数，比如任务在任务数组中的下标；堆中只存放句柄，优先级是{@code long}，比如截止时间的毫秒数
+ *
+ * <ol>
+ * <li>{@code positions}记录每个句柄在堆中的位置，{@code decreaseKey}/{@code increaseKey}/{@code remove}都是O(log n)
+ * <li>上浮和下沉和{@link IntMinHeap}一样只移动句柄，同时更新{@code positions}；修改优先级、删除都不会分配内存，只有句柄超过容量时才会扩容
+ * <li>d叉堆，默认4叉
+ * </ol>
+ *
+ * 注意：优先级相同的句柄，弹出顺序不确定；不是线程安全的
+ *
+ * @author xiezhenzong
+ *
+ */
+public class IndexedMinHeap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ABSENT = -1;
+
+    private final int arity;
+    private int[] heap; // 堆中的位置 -> 句柄
+    private int[] positions; // 句柄 -> 堆中的位置，不在堆中为ABSENT
+    private long[] keys; // 句柄 -> 优先级
+    private int size = 0;
+
+    public IndexedMinHeap() {
+        this(DEFAULT_CAPACITY, IntMinHeap.DEFAULT_ARITY);
+    }
+
+    public IndexedMinHeap(int capacity) {
+        this(capacity, IntMinHeap.DEFAULT_ARITY);
+    }
+
+    /**
+     * @param capacity
+     *            句柄的个数，句柄超过它时自动扩容
+     * @param arity
+     *            每个节点的子节点个数，不小于2
+     */
+    public IndexedMinHeap(int capacity, int arity) {
+        this.arity = HeapUtil.checkArity(arity);
+        int length = Math.max(capacity, 1);
+        this.heap = new int[length];
+        this.positions = new int[length];
+        this.keys = new long[length];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * @param handle
+     *            句柄，不能已经在堆中
+     * @param key
+     *            优先级
+     */
+    public void add(int handle, long key) {
+        if (handle < 0) {
+            throw new IllegalArgumentException("handle must not be negative: " + handle);
+        }
+        if (handle >= positions.length) {
+            int length = HeapUtil.grow(positions.length, handle + 1);
+            heap = Arrays.copyOf(heap, length);
+            keys = Arrays.copyOf(keys, length);
+            int old = positions.length;
+            positions = Arrays.copyOf(positions, length);
+            Arrays.fill(positions, old, length, ABSENT);
+        } else if (positions[handle] != ABSENT) {
+            throw new IllegalArgumentException("handle is already in heap: " + handle);
+        }
+        keys[handle] = key;
+        heapifyUp(size++, handle);
+    }
+
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < positions.length && positions[handle] != ABSENT;
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             句柄不在堆中
+     */
+    public long keyOf(int handle) {
+        positionOf(handle);
+        return keys[handle];
+    }
+
+    /**
+     * 调小优先级，只需要上浮
+     *
+     * @throws IllegalArgumentException
+     *             句柄不在堆中，或者新的优先级比原来的大
+     */
+    public void decreaseKey(int handle, long key) {
+        int position = positionOf(handle);
+        if (key > keys[handle]) {
+            throw new IllegalArgumentException("key " + key + " is greater than current key " + keys[handle]);
+        }
+        keys[handle] = key;
+        heapifyUp(position, handle);
+    }
+
+    /**
+     * 调大优先级，只需要下沉
+     *
+     * @throws IllegalArgumentException
+     *             句柄不在堆中，或者新的优先级比原来的小
+     */
+    public void increaseKey(int handle, long key) {
+        int position = positionOf(handle);
+        if (key < keys[handle]) {
+            throw new IllegalArgumentException("key " + key + " is less than current key " + keys[handle]);
+        }
+        keys[handle] = key;
+        heapifyDown(position, handle);
+    }
+
+    /**
+     * 修改优先级，根据大小决定上浮还是下沉
+     */
+    public void changeKey(int handle, long key) {
+        if (key < keyOf(handle)) {
+            decreaseKey(handle, key);
+        } else {
+            increaseKey(handle, key);
+        }
+    }
+
+    /**
+     * @return true 句柄原来在堆中
+     */
+    public boolean remove(int handle) {
+        if (!contains(handle)) {
+            return false;
+        }
+        removeAt(positions[handle]);
+        return true;
+    }
+
+    public int topHandle() {
+        if (size == 0) {
+            throw new IllegalStateException("There is not any handle in heap.");
+        }
+        return heap[0];
+    }
+
+    public long topKey() {
+        return keys[topHandle()];
+    }
+
+    /**
+     * @return 优先级最小的句柄
+     */
+    public int pop() {
+        int top = topHandle();
+        removeAt(0);
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private int positionOf(int handle) {
+        if (!contains(handle)) {
+            throw new IllegalArgumentException("handle is not in heap: " + handle);
+        }
+        return positions[handle];
+    }
+
+    private void removeAt(int position) {
+        int handle = heap[position], last = heap[--size];
+        positions[handle] = ABSENT;
+        if (position == size) {
+            return;
+        }
+        // 用最后一个句柄填上空位，它可能比新的父节点小，也可能比子节点大
+        if (position > 0 && keys[last] < keys[heap[(position - 1) / arity]]) {
+            heapifyUp(position, last);
+        } else {
+            heapifyDown(position, last);
+        }
+    }
+
+    /**
+     * 从{@code index}开始为{@code handle}找位置，优先级比它大的父节点依次下移，同时更新它们的位置
+     */
+    private void heapifyUp(int index, int handle) {
+        long key = keys[handle];
+        int pointer = index;
+        while (pointer > 0) {
+            int parent = (pointer - 1) / arity;
+            int parentHandle = heap[parent];
+            if (key >= keys[parentHandle]) {
+                break;
+            }
+            heap[pointer] = parentHandle;
+            positions[parentHandle] = pointer;
+            pointer = parent;
+        }
+        heap[pointer] = handle;
+        positions[handle] = pointer;
+    }
+
+    /**
+     * 从{@code index}开始为{@code handle}找位置，优先级比它小的最小子节点依次上移，同时更新它们的位置
+     */
+    private void heapifyDown(int index, int handle) {
+        long key = keys[handle];
+        int pointer = index;
+        while (true) {
+            int first = pointer * arity + 1;
+            if (first >= size || first < 0) {
+                break;
+            }
+            int target = first;
+            for (int child = first + 1, last = Math.min(first + arity, size); child < last; child++) {
+                if (keys[heap[child]] < keys[heap[target]]) {
+                    target = child;
+                }
+            }
+            int targetHandle = heap[target];
+            if (keys[targetHandle] >= key) {
+                break;
+            }
+            heap[pointer] = targetHandle;
+            positions[targetHandle] = pointer;
+            pointer = target;
+        }
+        heap[pointer] = handle;
+        positions[handle] = pointer;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedMinHeap[size=" + size + (size > 0 ? ", top=" + heap[0] + ":" + keys[heap[0]] : "") + ", arity="
+                + arity + "]";
+    }
+}
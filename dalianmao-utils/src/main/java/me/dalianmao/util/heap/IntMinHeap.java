@@ -0,0 +1,217 @@
+package me.dalianmao.util.heap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code int}小根堆，由{@code me.dalianmao.study.MinHeap}发展而来：
+ *
+ * <ol>
+ * <li>容量不够时自动扩容，元素不装箱
+ * <li>可以用数组在O(n)时间内建堆，而不是逐个插入
+ * <li>{@code replaceTop}用一次下沉完成“弹出堆顶再插入”
+ * <li>d叉堆：每个节点有{@code arity}个子节点，树更矮，并且子节点在数组中相邻，对缓存更友好，默认4叉
+ * </ol>
+ *
+ * 注意：不是线程安全的
+ *
+ * @author xiezhenzong
+ *
+ * @see LongMinHeap
+ * @see ObjectMinHeap
+ */
+public class IntMinHeap {
+
+    public static final int DEFAULT_ARITY = 4;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int arity;
+    private int[] heap;
+    private int size = 0; // 即作为堆大小，也作为下一个要插入元素的下标
+
+    public IntMinHeap() {
+        this(DEFAULT_CAPACITY, DEFAULT_ARITY);
+    }
+
+    public IntMinHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * @param capacity
+     *            初始容量
+     * @param arity
+     *            每个节点的子节点个数，不小于2
+     */
+    public IntMinHeap(int capacity, int arity) {
+        this.arity = HeapUtil.checkArity(arity);
+        this.heap = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * 复制数组中的元素，并在O(n)时间内建堆
+     *
+     * @param elements
+     *            元素
+     * @param arity
+     *            每个节点的子节点个数，不小于2
+     */
+    public IntMinHeap(int[] elements, int arity) {
+        this(elements.length, arity);
+        System.arraycopy(elements, 0, heap, 0, elements.length);
+        size = elements.length;
+        heapify();
+    }
+
+    public static IntMinHeap of(int... elements) {
+        return new IntMinHeap(elements, DEFAULT_ARITY);
+    }
+
+    public void add(int x) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, HeapUtil.grow(heap.length, size + 1));
+        }
+        heapifyUp(size++, x);
+    }
+
+    /**
+     * 批量添加，添加的元素比堆中已有的多时，整体重新建堆，否则逐个上浮
+     */
+    public void addAll(int... elements) {
+        if (size + elements.length > heap.length) {
+            heap = Arrays.copyOf(heap, HeapUtil.grow(heap.length, size + elements.length));
+        }
+        if (elements.length > size) {
+            System.arraycopy(elements, 0, heap, size, elements.length);
+            size += elements.length;
+            heapify();
+        } else {
+            for (int x : elements) {
+                heapifyUp(size++, x);
+            }
+        }
+    }
+
+    public int top() {
+        if (size == 0) {
+            throw new IllegalStateException("There is not any number in heap.");
+        }
+        return heap[0];
+    }
+
+    public int pop() {
+        int top = top(), last = heap[--size];
+        if (size > 0) {
+            heapifyDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * 弹出堆顶，并放入新元素，只需要一次下沉，比{@code pop}再{@code add}快
+     *
+     * @param x
+     *            新元素
+     * @return 原来的堆顶
+     */
+    public int replaceTop(int x) {
+        int top = top();
+        heapifyDown(0, x);
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 按堆中的顺序遍历所有元素，不复制数组
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(heap[i]);
+        }
+    }
+
+    /**
+     * @return 按堆中的顺序复制出所有元素
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    /**
+     * @return 从小到大排好序的所有元素，不会修改堆
+     */
+    public int[] toSortedArray() {
+        int[] result = toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void heapify() {
+        for (int i = (size - 2) / arity; i >= 0; i--) {
+            heapifyDown(i, heap[i]);
+        }
+    }
+
+    /**
+     * 从{@code index}开始为{@code x}找位置，比{@code x}大的父节点依次下移，最后只写一次{@code x}
+     */
+    private void heapifyUp(int index, int x) {
+        int pointer = index;
+        while (pointer > 0) {
+            int parent = (pointer - 1) / arity;
+            if (x >= heap[parent]) {
+                break;
+            }
+            heap[pointer] = heap[parent];
+            pointer = parent;
+        }
+        heap[pointer] = x;
+    }
+
+    /**
+     * 从{@code index}开始为{@code x}找位置，比{@code x}小的最小子节点依次上移，最后只写一次{@code x}
+     */
+    private void heapifyDown(int index, int x) {
+        int pointer = index;
+        while (true) {
+            int first = pointer * arity + 1;
+            if (first >= size || first < 0) {
+                break;
+            }
+            int target = first;
+            for (int child = first + 1, last = Math.min(first + arity, size); child < last; child++) {
+                if (heap[child] < heap[target]) {
+                    target = child;
+                }
+            }
+            if (heap[target] >= x) {
+                break;
+            }
+            heap[pointer] = heap[target];
+            pointer = target;
+        }
+        heap[pointer] = x;
+    }
+
+    @Override
+    public String toString() {
+        return "IntMinHeap[size=" + size + (size > 0 ? ", top=" + heap[0] : "") + ", arity=" + arity + "]";
+    }
+
+}
@@ -0,0 +1,179 @@
+package me.dalianmao.util.heap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code long}的多路归并，从小到大合并k个各自从小到大有序的迭代器，比如合并各分片的id、时间戳；不装箱<br/>
+ *
+ * 和{@link MergeIterator}一样，每个元素O(log k)，不分配任何对象；{@code distinct}为true时相同的值只保留一个
+ *
+ * @author xiezhenzong
+ *
+ * @see MergeIterator
+ */
+public class LongMergeIterator implements PrimitiveIterator.OfLong {
+
+    private final PrimitiveIterator.OfLong[] sources;
+    private final long[] heads; // 每一路预读的值
+    private final int[] heap; // 来源编号组成的小根堆，按heads比较
+    private final boolean distinct;
+    private int size = 0;
+
+    private long last; // distinct时，上一个输出的值
+    private boolean hasLast = false;
+
+    public LongMergeIterator(Collection<? extends PrimitiveIterator.OfLong> sources) {
+        this(sources, false);
+    }
+
+    /**
+     * @param sources
+     *            各自从小到大有序的迭代器
+     * @param distinct
+     *            是否去掉相同的值
+     */
+    public LongMergeIterator(Collection<? extends PrimitiveIterator.OfLong> sources, boolean distinct) {
+        this.distinct = distinct;
+        this.sources = sources.toArray(new PrimitiveIterator.OfLong[0]);
+        this.heads = new long[this.sources.length];
+        this.heap = new int[this.sources.length];
+        for (int source = 0; source < this.sources.length; source++) {
+            if (this.sources[source].hasNext()) {
+                heads[source] = this.sources[source].nextLong();
+                heap[size++] = source;
+            }
+        }
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            heapifyDown(i, heap[i]);
+        }
+    }
+
+    /**
+     * 合并多个有序的数组
+     */
+    public static LongMergeIterator of(boolean distinct, long[]... arrays) {
+        PrimitiveIterator.OfLong[] iterators = new PrimitiveIterator.OfLong[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            iterators[i] = LongStream.of(arrays[i]).iterator();
+        }
+        return new LongMergeIterator(Arrays.asList(iterators), distinct);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (distinct && hasLast) {
+            while (size > 0 && heads[heap[0]] == last) {
+                advance();
+            }
+        }
+        return size > 0;
+    }
+
+    @Override
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long next = heads[heap[0]];
+        advance();
+        if (distinct) {
+            last = next;
+            hasLast = true;
+        }
+        return next;
+    }
+
+    /**
+     * @return 从小到大有序的{@code Spliterator}
+     */
+    public Spliterator.OfLong spliterator() {
+        return new Spliterator.OfLong() {
+
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                if (!hasNext()) {
+                    return false;
+                }
+                action.accept(nextLong());
+                return true;
+            }
+
+            @Override
+            public Spliterator.OfLong trySplit() {
+                return null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return Long.MAX_VALUE;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SORTED | NONNULL | (distinct ? DISTINCT : 0);
+            }
+
+            @Override
+            public Comparator<? super Long> getComparator() {
+                return null; // 自然顺序
+            }
+        };
+    }
+
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    /**
+     * 堆顶的来源前进一个值：还有值时替换堆顶并下沉，否则用最后一个来源填上堆顶
+     */
+    private void advance() {
+        int source = heap[0];
+        if (sources[source].hasNext()) {
+            heads[source] = sources[source].nextLong();
+            heapifyDown(0, source);
+        } else {
+            int tail = heap[--size];
+            if (size > 0) {
+                heapifyDown(0, tail);
+            }
+        }
+    }
+
+    /**
+     * 从{@code index}开始为{@code source}找位置，比它小的子节点依次上移
+     */
+    private void heapifyDown(int index, int source) {
+        int pointer = index;
+        while (true) {
+            int child = 2 * pointer + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], source)) {
+                break;
+            }
+            heap[pointer] = heap[child];
+            pointer = child;
+        }
+        heap[pointer] = source;
+    }
+
+    /**
+     * 值相等时按来源编号比较，和{@link MergeIterator}一样
+     */
+    private boolean less(int source1, int source2) {
+        return heads[source1] < heads[source2] || heads[source1] == heads[source2] && source1 < source2;
+    }
+}
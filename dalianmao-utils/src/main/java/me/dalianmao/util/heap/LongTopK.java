@@ -0,0 +1,101 @@
+package me.dalianmao.util.heap;
+
+import java.util.function.LongConsumer;
+
+/**
+ * 从{@code long}流中选出最大(或最小)的k个，内部是大小为k的{@link LongMinHeap}，内存O(k)，每个元素O(log k)<br/>
+ *
+ * <ol>
+ * <li>实现了{@code LongConsumer}，可以直接用于{@code forEach}
+ * <li>{@link LongTopK#merge(LongTopK)}合并两个选择器，可以用于{@code LongStream.collect}的并行归约
+ * </ol>
+ *
+ * 注意：不是线程安全的
+ *
+ * @author xiezhenzong
+ *
+ * @see TopKUtil#largest(long[], int)
+ */
+public class LongTopK implements LongConsumer {
+
+    private final int k;
+    private final boolean smallest; // 选最小的k个时，堆中存放取反后的值，~x不会像-x一样溢出
+    private final LongMinHeap heap; // 堆顶是已选出的k个中最差的，新元素比它好才替换
+
+    private LongTopK(int k, boolean smallest) {
+        this.k = TopKUtil.checkK(k);
+        this.smallest = smallest;
+        this.heap = new LongMinHeap(Math.min(k, TopKUtil.MAX_INITIAL_CAPACITY));
+    }
+
+    public static LongTopK largest(int k) {
+        return new LongTopK(k, false);
+    }
+
+    public static LongTopK smallest(int k) {
+        return new LongTopK(k, true);
+    }
+
+    @Override
+    public void accept(long value) {
+        long x = smallest ? ~value : value;
+        if (heap.size() < k) {
+            heap.add(x);
+        } else if (k > 0 && x > heap.top()) {
+            heap.replaceTop(x);
+        }
+    }
+
+    public LongTopK acceptAll(long... values) {
+        for (long value : values) {
+            accept(value);
+        }
+        return this;
+    }
+
+    /**
+     * 把另一个选择器的结果合并进来
+     *
+     * @param other
+     *            同样是选最大(或最小)的选择器
+     * @return this
+     */
+    public LongTopK merge(LongTopK other) {
+        if (other.smallest != smallest) {
+            throw new IllegalArgumentException("can not merge largest and smallest selector");
+        }
+        other.heap.forEach(x -> accept(smallest ? ~x : x));
+        return this;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /**
+     * @return 选出的元素，最好的在前：选最大时从大到小，选最小时从小到大
+     */
+    public long[] toArray() {
+        long[] result = heap.toSortedArray();
+        for (int i = 0, j = result.length - 1; i < j; i++, j--) {
+            long tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        if (smallest) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = ~result[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LongTopK[" + (smallest ? "smallest " : "largest ") + k + ", size=" + size() + "]";
+    }
+}
@@ -0,0 +1,202 @@
+package me.dalianmao.util.heap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 多路归并：把k个各自有序的迭代器合并成一个有序的迭代器，代替“全部拼起来再排序”，比如合并各分片的查询结果、每天的文件<br/>
+ *
+ * <ol>
+ * <li>惰性的，每路只预读一个元素，内存O(k)
+ * <li>堆中只存放来源的编号，每个元素O(log k)，不分配任何对象
+ * <li>相等的元素按来源的顺序输出；{@code distinct}为true时，相等的元素(比较器返回0)只保留第一个
+ * </ol>
+ *
+ * 注意：每一路必须按同一个比较器有序，否则结果无序；不是线程安全的
+ *
+ * @author xiezhenzong
+ *
+ * @see LongMergeIterator
+ */
+public class MergeIterator<T> implements Iterator<T> {
+
+    private final Iterator<? extends T>[] sources;
+    private final Object[] heads; // 每一路预读的元素
+    private final int[] heap; // 来源编号组成的小根堆，按heads比较
+    private final Comparator<? super T> comparator;
+    private final boolean distinct;
+    private int size = 0;
+
+    private T last; // distinct时，上一个输出的元素
+    private boolean hasLast = false;
+
+    public MergeIterator(Collection<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator) {
+        this(sources, comparator, false);
+    }
+
+    /**
+     * @param sources
+     *            各自有序的迭代器
+     * @param comparator
+     *            比较器
+     * @param distinct
+     *            是否去掉相等的元素
+     */
+    @SuppressWarnings("unchecked")
+    public MergeIterator(Collection<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator,
+            boolean distinct) {
+        this.comparator = Objects.requireNonNull(comparator, "comparator");
+        this.distinct = distinct;
+        Iterator<?>[] array = sources.toArray(new Iterator<?>[0]);
+        this.sources = (Iterator<? extends T>[]) array;
+        this.heads = new Object[this.sources.length];
+        this.heap = new int[this.sources.length];
+        for (int source = 0; source < this.sources.length; source++) {
+            if (this.sources[source].hasNext()) {
+                heads[source] = this.sources[source].next();
+                heap[size++] = source;
+            }
+        }
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            heapifyDown(i, heap[i]);
+        }
+    }
+
+    /**
+     * 合并多个有序的集合，比如分页查询的结果
+     */
+    public static <T> MergeIterator<T> of(Iterable<? extends Iterable<? extends T>> sources,
+            Comparator<? super T> comparator, boolean distinct) {
+        List<Iterator<? extends T>> iterators = new ArrayList<>();
+        for (Iterable<? extends T> source : sources) {
+            iterators.add(source.iterator());
+        }
+        return new MergeIterator<>(iterators, comparator, distinct);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (distinct && hasLast) {
+            while (size > 0 && comparator.compare(head(heap[0]), last) == 0) {
+                advance();
+            }
+        }
+        return size > 0;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T next = head(heap[0]);
+        advance();
+        if (distinct) {
+            last = next;
+            hasLast = true;
+        }
+        return next;
+    }
+
+    /**
+     * @return 有序的{@code Spliterator}，{@code getComparator}返回合并用的比较器
+     */
+    public Spliterator<T> spliterator() {
+        return new Spliterator<T>() {
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!hasNext()) {
+                    return false;
+                }
+                action.accept(next());
+                return true;
+            }
+
+            @Override
+            public Spliterator<T> trySplit() {
+                return null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return Long.MAX_VALUE;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SORTED | (distinct ? DISTINCT : 0);
+            }
+
+            @Override
+            public Comparator<? super T> getComparator() {
+                return comparator;
+            }
+        };
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * 堆顶的来源前进一个元素：还有元素时替换堆顶并下沉，否则用最后一个来源填上堆顶
+     */
+    private void advance() {
+        int source = heap[0];
+        if (sources[source].hasNext()) {
+            heads[source] = sources[source].next();
+            heapifyDown(0, source);
+        } else {
+            heads[source] = null;
+            int tail = heap[--size];
+            if (size > 0) {
+                heapifyDown(0, tail);
+            }
+        }
+    }
+
+    /**
+     * 从{@code index}开始为{@code source}找位置，比它小的子节点依次上移
+     */
+    private void heapifyDown(int index, int source) {
+        int pointer = index;
+        while (true) {
+            int child = 2 * pointer + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], source)) {
+                break;
+            }
+            heap[pointer] = heap[child];
+            pointer = child;
+        }
+        heap[pointer] = source;
+    }
+
+    /**
+     * 元素相等时按来源编号比较，保证相等的元素按来源的顺序输出
+     */
+    private boolean less(int source1, int source2) {
+        int result = comparator.compare(head(source1), head(source2));
+        return result < 0 || result == 0 && source1 < source2;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T head(int source) {
+        return (T) heads[source];
+    }
+}
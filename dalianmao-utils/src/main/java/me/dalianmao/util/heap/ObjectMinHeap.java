@@ -0,0 +1,247 @@
+package me.dalianmao.util.heap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 按{@code Comparator}排序的小根堆，和{@link IntMinHeap}一样支持自动扩容、O(n)建堆、{@code replaceTop}和d叉堆<br/>
+ *
+ * 和{@code PriorityQueue}相比：默认4叉，{@code replaceTop}只下沉一次，上浮和下沉时只移动元素不交换<br/>
+ *
+ * 大根堆用{@code Comparator.reverseOrder()}构造即可<br/>
+ *
+ * 注意：不支持null元素，不是线程安全的
+ *
+ * @author xiezhenzong
+ *
+ * @see IntMinHeap
+ * @see LongMinHeap
+ */
+public class ObjectMinHeap<T> {
+
+    public static final int DEFAULT_ARITY = IntMinHeap.DEFAULT_ARITY;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Comparator<? super T> comparator;
+    private final int arity;
+    private Object[] heap;
+    private int size = 0; // 即作为堆大小，也作为下一个要插入元素的下标
+
+    /**
+     * 按自然顺序排序，元素必须实现{@code Comparable}
+     */
+    public ObjectMinHeap() {
+        this(naturalOrder());
+    }
+
+    public ObjectMinHeap(Comparator<? super T> comparator) {
+        this(comparator, DEFAULT_CAPACITY, DEFAULT_ARITY);
+    }
+
+    /**
+     * @param comparator
+     *            比较器
+     * @param capacity
+     *            初始容量
+     * @param arity
+     *            每个节点的子节点个数，不小于2
+     */
+    public ObjectMinHeap(Comparator<? super T> comparator, int capacity, int arity) {
+        this.comparator = Objects.requireNonNull(comparator, "comparator");
+        this.arity = HeapUtil.checkArity(arity);
+        this.heap = new Object[Math.max(capacity, 1)];
+    }
+
+    /**
+     * 复制集合中的元素，并在O(n)时间内建堆
+     *
+     * @param comparator
+     *            比较器
+     * @param elements
+     *            元素
+     * @param arity
+     *            每个节点的子节点个数，不小于2
+     */
+    public ObjectMinHeap(Comparator<? super T> comparator, Collection<? extends T> elements, int arity) {
+        this(comparator, elements.size(), arity);
+        for (T element : elements) {
+            heap[size++] = Objects.requireNonNull(element);
+        }
+        heapify();
+    }
+
+    public void add(T x) {
+        Objects.requireNonNull(x);
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, HeapUtil.grow(heap.length, size + 1));
+        }
+        heapifyUp(size++, x);
+    }
+
+    /**
+     * 批量添加，添加的元素比堆中已有的多时，整体重新建堆，否则逐个上浮；有null时抛出异常，堆保持不变
+     */
+    public void addAll(Collection<? extends T> elements) {
+        Object[] array = elements.toArray(); // 先检查完再修改堆
+        for (Object element : array) {
+            Objects.requireNonNull(element);
+        }
+        int count = array.length;
+        if (size + count > heap.length) {
+            heap = Arrays.copyOf(heap, HeapUtil.grow(heap.length, size + count));
+        }
+        System.arraycopy(array, 0, heap, size, count);
+        if (count > size) {
+            size += count;
+            heapify();
+        } else {
+            for (int i = 0; i < count; i++, size++) {
+                heapifyUp(size, elementAt(size));
+            }
+        }
+    }
+
+    public T top() {
+        if (size == 0) {
+            throw new IllegalStateException("There is not any element in heap.");
+        }
+        return elementAt(0);
+    }
+
+    public T pop() {
+        T top = top(), last = elementAt(--size);
+        heap[size] = null; // 让出引用，便于回收
+        if (size > 0) {
+            heapifyDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * 弹出堆顶，并放入新元素，只需要一次下沉，比{@code pop}再{@code add}快
+     *
+     * @param x
+     *            新元素
+     * @return 原来的堆顶
+     */
+    public T replaceTop(T x) {
+        Objects.requireNonNull(x);
+        T top = top();
+        heapifyDown(0, x);
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * 按堆中的顺序遍历所有元素，不复制数组
+     */
+    public void forEach(Consumer<? super T> consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(elementAt(i));
+        }
+    }
+
+    /**
+     * @return 按堆中的顺序复制出所有元素
+     */
+    public Object[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    /**
+     * @return 从小到大排好序的所有元素，不会修改堆
+     */
+    @SuppressWarnings("unchecked")
+    public T[] toSortedArray(T[] array) {
+        T[] result = Arrays.copyOf(heap, size, (Class<? extends T[]>) array.getClass());
+        Arrays.sort(result, comparator);
+        return result;
+    }
+
+    private void heapify() {
+        for (int i = (size - 2) / arity; i >= 0; i--) {
+            heapifyDown(i, elementAt(i));
+        }
+    }
+
+    /**
+     * 从{@code index}开始为{@code x}找位置，比{@code x}大的父节点依次下移，最后只写一次{@code x}
+     */
+    private void heapifyUp(int index, T x) {
+        int pointer = index;
+        while (pointer > 0) {
+            int parent = (pointer - 1) / arity;
+            if (comparator.compare(x, elementAt(parent)) >= 0) {
+                break;
+            }
+            heap[pointer] = heap[parent];
+            pointer = parent;
+        }
+        heap[pointer] = x;
+    }
+
+    /**
+     * 从{@code index}开始为{@code x}找位置，比{@code x}小的最小子节点依次上移，最后只写一次{@code x}
+     */
+    private void heapifyDown(int index, T x) {
+        int pointer = index;
+        while (true) {
+            int first = pointer * arity + 1;
+            if (first >= size || first < 0) {
+                break;
+            }
+            int target = first;
+            for (int child = first + 1, last = Math.min(first + arity, size); child < last; child++) {
+                if (comparator.compare(elementAt(child), elementAt(target)) < 0) {
+                    target = child;
+                }
+            }
+            if (comparator.compare(elementAt(target), x) >= 0) {
+                break;
+            }
+            heap[pointer] = heap[target];
+            pointer = target;
+        }
+        heap[pointer] = x;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        return (T) heap[index];
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> Comparator<T> naturalOrder() {
+        return (Comparator) Comparator.naturalOrder();
+    }
+
+    @Override
+    public String toString() {
+        return "ObjectMinHeap[size=" + size + (size > 0 ? ", top=" + heap[0] : "") + ", arity=" + arity + "]";
+    }
+
+}
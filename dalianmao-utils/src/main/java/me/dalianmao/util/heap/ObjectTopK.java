@@ -0,0 +1,95 @@
+package me.dalianmao.util.heap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 按{@code Comparator}选出最大(或最小)的k个元素，内部是大小为k的{@link ObjectMinHeap}，内存O(k)，每个元素O(log k)<br/>
+ *
+ * <ol>
+ * <li>实现了{@code Consumer}，可以直接用于{@code Iterable.forEach}
+ * <li>{@link ObjectTopK#merge(ObjectTopK)}合并两个选择器，{@link TopKUtil#toLargest(int, Comparator)}基于它支持并行流
+ * </ol>
+ *
+ * 注意：忽略null元素，不是线程安全的
+ *
+ * @author xiezhenzong
+ *
+ * @see TopKUtil#largest(Iterable, int, Comparator)
+ */
+public class ObjectTopK<T> implements Consumer<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator; // 选最小的k个时是反转后的比较器
+    private final ObjectMinHeap<T> heap; // 堆顶是已选出的k个中最差的，新元素比它好才替换
+
+    private ObjectTopK(int k, Comparator<? super T> comparator) {
+        this.k = TopKUtil.checkK(k);
+        this.comparator = comparator;
+        this.heap = new ObjectMinHeap<>(comparator, Math.min(k, TopKUtil.MAX_INITIAL_CAPACITY), ObjectMinHeap.DEFAULT_ARITY);
+    }
+
+    public static <T> ObjectTopK<T> largest(int k, Comparator<? super T> comparator) {
+        return new ObjectTopK<>(k, comparator);
+    }
+
+    public static <T> ObjectTopK<T> smallest(int k, Comparator<? super T> comparator) {
+        return new ObjectTopK<>(k, comparator.reversed());
+    }
+
+    @Override
+    public void accept(T element) {
+        if (element == null) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (k > 0 && comparator.compare(element, heap.top()) > 0) {
+            heap.replaceTop(element);
+        }
+    }
+
+    public ObjectTopK<T> acceptAll(Iterable<? extends T> elements) {
+        for (T element : elements) {
+            accept(element);
+        }
+        return this;
+    }
+
+    /**
+     * 把另一个选择器的结果合并进来，两个选择器应该使用相同的比较器
+     *
+     * @param other
+     *            另一个选择器
+     * @return this
+     */
+    public ObjectTopK<T> merge(ObjectTopK<T> other) {
+        other.heap.forEach(this);
+        return this;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /**
+     * @return 选出的元素，最好的在前：选最大时从大到小，选最小时从小到大
+     */
+    public List<T> toList() {
+        List<T> result = new ArrayList<>(heap.size());
+        heap.forEach(result::add);
+        result.sort((a, b) -> comparator.compare(b, a));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ObjectTopK[k=" + k + ", size=" + size() + "]";
+    }
+}
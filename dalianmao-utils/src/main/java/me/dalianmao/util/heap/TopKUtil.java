@@ -0,0 +1,110 @@
+package me.dalianmao.util.heap;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * 选出最大(或最小)的k个元素，代替“全部排序再取前k个”，内存O(k)，每个元素O(log k)<br/>
+ *
+ * 结果中最好的在前：选最大时从大到小，选最小时从小到大<br/>
+ *
+ * 收集器和流方法都支持并行流：每个线程各自选出k个，最后合并
+ *
+ * @author xiezhenzong
+ *
+ * @see IntTopK
+ * @see LongTopK
+ * @see ObjectTopK
+ */
+public abstract class TopKUtil {
+
+    static final int MAX_INITIAL_CAPACITY = 1024; // k很大但元素很少时，不需要一开始就分配k个槽位
+
+    // 收集器
+
+    /**
+     * 用法：{@code items.stream().collect(TopKUtil.toLargest(100, Comparator.comparing(Item::getScore)))}
+     *
+     * @param k
+     *            选出的个数
+     * @param comparator
+     *            比较器
+     * @return 选出最大的k个元素的收集器，忽略null元素
+     */
+    public static <T> Collector<T, ?, List<T>> toLargest(int k, Comparator<? super T> comparator) {
+        checkK(k);
+        return Collector.of(() -> ObjectTopK.<T> largest(k, comparator), ObjectTopK::accept, ObjectTopK::merge,
+                ObjectTopK::toList);
+    }
+
+    /**
+     * @param k
+     *            选出的个数
+     * @param comparator
+     *            比较器
+     * @return 选出最小的k个元素的收集器，忽略null元素
+     */
+    public static <T> Collector<T, ?, List<T>> toSmallest(int k, Comparator<? super T> comparator) {
+        checkK(k);
+        return Collector.of(() -> ObjectTopK.<T> smallest(k, comparator), ObjectTopK::accept, ObjectTopK::merge,
+                ObjectTopK::toList);
+    }
+
+    // Iterable
+
+    public static <T> List<T> largest(Iterable<? extends T> elements, int k, Comparator<? super T> comparator) {
+        return ObjectTopK.<T> largest(k, comparator).acceptAll(elements).toList();
+    }
+
+    public static <T> List<T> smallest(Iterable<? extends T> elements, int k, Comparator<? super T> comparator) {
+        return ObjectTopK.<T> smallest(k, comparator).acceptAll(elements).toList();
+    }
+
+    // 基本类型
+
+    public static int[] largest(int[] values, int k) {
+        return IntTopK.largest(k).acceptAll(values).toArray();
+    }
+
+    public static int[] smallest(int[] values, int k) {
+        return IntTopK.smallest(k).acceptAll(values).toArray();
+    }
+
+    public static long[] largest(long[] values, int k) {
+        return LongTopK.largest(k).acceptAll(values).toArray();
+    }
+
+    public static long[] smallest(long[] values, int k) {
+        return LongTopK.smallest(k).acceptAll(values).toArray();
+    }
+
+    public static int[] largest(IntStream stream, int k) {
+        checkK(k);
+        return stream.collect(() -> IntTopK.largest(k), IntTopK::accept, IntTopK::merge).toArray();
+    }
+
+    public static int[] smallest(IntStream stream, int k) {
+        checkK(k);
+        return stream.collect(() -> IntTopK.smallest(k), IntTopK::accept, IntTopK::merge).toArray();
+    }
+
+    public static long[] largest(LongStream stream, int k) {
+        checkK(k);
+        return stream.collect(() -> LongTopK.largest(k), LongTopK::accept, LongTopK::merge).toArray();
+    }
+
+    public static long[] smallest(LongStream stream, int k) {
+        checkK(k);
+        return stream.collect(() -> LongTopK.smallest(k), LongTopK::accept, LongTopK::merge).toArray();
+    }
+
+    static int checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return k;
+    }
+}
@@ -0,0 +1,344 @@
+package me.dalianmao.util.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import me.dalianmao.util.heap.MergeIterator;
+
+/**
+ * 外部归并排序，排序内存放不下的数据，比如导出任务中几千万条记录<br/>
+ *
+ * <ol>
+ * <li>从输入中读出一个run，记录数到{@code runSize}或者估计的内存到{@code memoryBudget}为止，用{@link IntroSort}排好序，通过{@link RecordCodec}写到临时文件
+ * <li>输入一个run就放下时不写文件，直接返回内存中排好序的结果
+ * <li>用{@link MergeIterator}多路归并所有的run，返回惰性的迭代器，每次只从每个run的文件中读一个缓冲区
+ * <li>每个run的读缓冲区不小于4KB，run太多、内存预算放不下所有的读缓冲区时，先分组归并成更大的run，再做最后一趟归并
+ * <li>迭代完或者{@code close}之后删除所有的临时文件
+ * </ol>
+ *
+ * 注意：不是稳定排序；{@code memoryBudget}按{@link RecordCodec#estimateSize(Object)}估计，不是精确的内存占用
+ *
+ * @author xiezhenzong
+ *
+ * @see MergeIterator
+ */
+public class ExternalSort<T> {
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    private static final int MIN_BUFFER_SIZE = 4 << 10;
+    private static final int MAX_BUFFER_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final RecordCodec<T> codec;
+    private final Comparator<? super T> comparator;
+    private final long memoryBudget;
+    private final int runSize;
+    private final Path tempDirectory;
+    private final int maxFanIn; // 最后一趟归并最多打开的run数
+
+    public ExternalSort(RecordCodec<T> codec, Comparator<? super T> comparator) {
+        this(codec, comparator, DEFAULT_MEMORY_BUDGET, DEFAULT_RUN_SIZE,
+                Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param codec
+     *            编解码
+     * @param comparator
+     *            比较器
+     * @param memoryBudget
+     *            内存预算，单位字节，限制每个run在内存中的大小和归并时读缓冲区的总大小
+     * @param runSize
+     *            每个run最多的记录数
+     * @param tempDirectory
+     *            临时文件的目录
+     */
+    public ExternalSort(RecordCodec<T> codec, Comparator<? super T> comparator, long memoryBudget, int runSize,
+            Path tempDirectory) {
+        if (memoryBudget < 2 * MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("memoryBudget must be at least " + 2 * MIN_BUFFER_SIZE + ": "
+                    + memoryBudget);
+        }
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("runSize must be positive: " + runSize);
+        }
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.comparator = Objects.requireNonNull(comparator, "comparator");
+        this.memoryBudget = memoryBudget;
+        this.runSize = runSize;
+        this.tempDirectory = Objects.requireNonNull(tempDirectory, "tempDirectory");
+        this.maxFanIn = (int) Math.min(memoryBudget / MIN_BUFFER_SIZE - 1, 1024);
+    }
+
+    /**
+     * @param input
+     *            待排序的记录，不能有null
+     * @return 排好序的惰性迭代器，读到一半不再需要时要{@code close}，删除临时文件
+     * @throws IOException
+     *             写临时文件失败，已经写的临时文件会被删除
+     */
+    public SortedIterator<T> sort(Iterator<? extends T> input) throws IOException {
+        List<Run> runs = new ArrayList<>();
+        try {
+            Object[] buffer = new Object[Math.min(runSize, INITIAL_CAPACITY)];
+            do {
+                int size = 0;
+                long bytes = 0;
+                while (size < runSize && bytes < memoryBudget && input.hasNext()) {
+                    T record = Objects.requireNonNull(input.next(), "record");
+                    if (size == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, (int) Math.min(runSize, size + (size >> 1) + 1L));
+                    }
+                    buffer[size++] = record;
+                    bytes += codec.estimateSize(record);
+                }
+                T[] records = cast(buffer);
+                IntroSort.sort(records, 0, size, comparator);
+                Iterator<T> sorted = Arrays.asList(records).subList(0, size).iterator();
+                if (runs.isEmpty() && !input.hasNext()) {
+                    return new SortedIterator<>(sorted, Collections.emptyList()); // 一个run就放下了
+                }
+                runs.add(spill(sorted, size));
+                Arrays.fill(buffer, 0, size, null);
+            } while (input.hasNext());
+            while (runs.size() > maxFanIn) {
+                runs = mergePass(runs);
+            }
+            return open(runs);
+        } catch (IOException | RuntimeException e) {
+            delete(runs);
+            throw e;
+        }
+    }
+
+    /**
+     * 每{@code maxFanIn}个run归并成一个更大的run
+     */
+    private List<Run> mergePass(List<Run> runs) throws IOException {
+        List<Run> merged = new ArrayList<>();
+        try {
+            for (int from = 0; from < runs.size(); from += maxFanIn) {
+                List<Run> group = runs.subList(from, Math.min(from + maxFanIn, runs.size()));
+                long count = 0;
+                for (Run run : group) {
+                    count += run.count;
+                }
+                try (SortedIterator<T> iterator = open(group)) {
+                    merged.add(spill(iterator, count));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            delete(merged);
+            throw e;
+        }
+        return merged;
+    }
+
+    private SortedIterator<T> open(List<Run> runs) throws IOException {
+        int bufferSize = bufferSize(runs.size() + 1);
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (Run run : runs) {
+                readers.add(new RunReader(run, bufferSize));
+            }
+            // MergeIterator会预读每个run的第一条记录，也可能失败
+            return new SortedIterator<>(new MergeIterator<>(readers, comparator), readers);
+        } catch (IOException | RuntimeException e) {
+            for (RunReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private Run spill(Iterator<? extends T> records, long count) throws IOException {
+        Path path = Files.createTempFile(tempDirectory, "external-sort-", ".run");
+        Run run = new Run(path, count);
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), bufferSize(1)))) {
+            while (records.hasNext()) {
+                codec.write(output, records.next());
+            }
+        } catch (IOException | RuntimeException e) {
+            run.delete();
+            throw e;
+        }
+        return run;
+    }
+
+    /**
+     * 内存预算平分给同时打开的文件，在{@code [MIN_BUFFER_SIZE, MAX_BUFFER_SIZE]}之间
+     */
+    private int bufferSize(int files) {
+        return (int) Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, memoryBudget / files));
+    }
+
+    private static void delete(List<Run> runs) {
+        for (Run run : runs) {
+            run.delete();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T[] cast(Object[] array) {
+        return (T[]) array;
+    }
+
+    @Override
+    public String toString() {
+        return "ExternalSort[memoryBudget=" + memoryBudget + ", runSize=" + runSize + ", tempDirectory=" + tempDirectory
+                + "]";
+    }
+
+    /**
+     * 排好序的惰性迭代器，迭代完时自动关闭；读文件失败时抛出{@code UncheckedIOException}
+     */
+    public static class SortedIterator<T> implements Iterator<T>, Closeable {
+
+        private final Iterator<T> delegate;
+        private final List<? extends Closeable> readers;
+        private boolean closed = false;
+
+        SortedIterator(Iterator<T> delegate, List<? extends Closeable> readers) {
+            this.delegate = delegate;
+            this.readers = readers;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            if (delegate.hasNext()) {
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return delegate.next();
+        }
+
+        /**
+         * 关闭所有的文件，删除临时文件
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            IOException error = null;
+            for (Closeable reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    if (error == null) {
+                        error = e;
+                    } else {
+                        error.addSuppressed(e);
+                    }
+                }
+            }
+            if (error != null) {
+                throw new UncheckedIOException(error);
+            }
+        }
+    }
+
+    /**
+     * 一个排好序的临时文件
+     */
+    private static class Run {
+
+        private final Path path;
+        private final long count;
+
+        Run(Path path, long count) {
+            this.path = path;
+            this.count = count;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                path.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * 顺序读一个run，读完最后一条记录时关闭文件；{@code close}时删除文件
+     */
+    private class RunReader implements Iterator<T>, Closeable {
+
+        private final Run run;
+        private final DataInputStream input;
+        private long remaining;
+
+        RunReader(Run run, int bufferSize) throws IOException {
+            this.run = run;
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.path), bufferSize));
+            this.remaining = run.count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                T record = codec.read(input);
+                if (--remaining == 0) {
+                    input.close();
+                }
+                return record;
+            } catch (IOException e) {
+                throw new UncheckedIOException("failed to read " + run.path, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            remaining = 0;
+            try {
+                input.close();
+            } finally {
+                run.delete();
+            }
+        }
+    }
+}
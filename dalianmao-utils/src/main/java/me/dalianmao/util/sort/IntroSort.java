@@ -0,0 +1,616 @@
+package me.dalianmao.util.sort;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * 内省排序(introsort)，由{@code me.dalianmao.study.QuickSort}发展而来，解决了它的两个问题：
+ * 枢轴总是取{@code array[start]}，有序输入退化到O(n²)；两边都递归，几十万个有序元素就会栈溢出<br/>
+ *
+ * <ol>
+ * <li>枢轴取三数中值，长区间取九数中值(ninther)
+ * <li>短区间用插入排序
+ * <li>递归深度超过2log(n)时改用堆排序，最坏O(nlog(n))
+ * <li>只递归较小的一边，栈深度不超过log(n)
+ * </ol>
+ *
+ * 区间都是左闭右开的{@code [from, to)}，和{@code Arrays.sort}一致；注意：不是稳定排序
+ *
+ * @author xiezhenzong
+ *
+ */
+public abstract class IntroSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+    private static final int NINTHER_THRESHOLD = 128;
+
+    // int
+
+    public static void sort(int[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(int[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        introSort(array, from, to - 1, depthLimit(to - from));
+    }
+
+    private static void introSort(int[] array, int low, int high, int depth) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(array, low, high);
+                return;
+            }
+            int pivot = partition(array, low, high);
+            // 只递归较小的一边，较大的一边留在循环里，栈深度不超过log(n)
+            if (pivot - low < high - pivot) {
+                introSort(array, low, pivot - 1, depth);
+                low = pivot + 1;
+            } else {
+                introSort(array, pivot + 1, high, depth);
+                high = pivot - 1;
+            }
+        }
+        insertionSort(array, low, high);
+    }
+
+    /**
+     * 把枢轴换到{@code low}后双向扫描，遇到和枢轴相等的元素两边都会停下交换，重复元素很多时也能均匀划分；{@link QuickSelect}也依赖这个约定
+     *
+     * @return 枢轴的最终位置，左边不大于它，右边不小于它
+     */
+    static int partition(int[] array, int low, int high) {
+        placePivot(array, low, high);
+        int pivot = array[low];
+        int i = low, j = high + 1;
+        while (true) {
+            while (array[++i] < pivot) {
+                // array[high]不小于枢轴，i不会越过high
+            }
+            while (pivot < array[--j]) {
+                // array[low]就是枢轴，j不会越过low
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(array, i, j);
+        }
+        swap(array, low, j);
+        return j;
+    }
+
+    /**
+     * 较短的区间取首、中、尾三个数，较长的区间取三组各三个数的中位数(ninther)，有序或逆序输入也能选到中间值
+     */
+    private static void placePivot(int[] array, int low, int high) {
+        int mid = (low + high) >>> 1, a = low, b = mid, c = high;
+        if (high - low >= NINTHER_THRESHOLD) {
+            int step = (high - low) >>> 3;
+            a = median(array, low, low + step, low + 2 * step);
+            b = median(array, mid - step, mid, mid + step);
+            c = median(array, high - 2 * step, high - step, high);
+        }
+        // 三个候选排好序，中间的作为枢轴换到low，最大的换到high
+        if (array[b] < array[a]) {
+            swap(array, a, b);
+        }
+        if (array[c] < array[b]) {
+            swap(array, b, c);
+            if (array[b] < array[a]) {
+                swap(array, a, b);
+            }
+        }
+        swap(array, c, high);
+        swap(array, b, low);
+    }
+
+    private static int median(int[] array, int a, int b, int c) {
+        return array[a] < array[b]
+                ? (array[b] < array[c] ? b : array[a] < array[c] ? c : a)
+                : (array[c] < array[b] ? b : array[c] < array[a] ? c : a);
+    }
+
+    private static void insertionSort(int[] array, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int x = array[i];
+            int j = i - 1;
+            while (j >= low && x < array[j]) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = x;
+        }
+    }
+
+    private static void heapSort(int[] array, int low, int high) {
+        int size = high - low + 1;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, low, i, size);
+        }
+        for (int n = size - 1; n > 0; n--) {
+            swap(array, low, low + n);
+            siftDown(array, low, 0, n);
+        }
+    }
+
+    /**
+     * 大根堆的下沉，堆从{@code offset}开始
+     */
+    private static void siftDown(int[] array, int offset, int index, int size) {
+        int x = array[offset + index];
+        int pointer = index;
+        while (true) {
+            int child = 2 * pointer + 1;
+            if (child >= size || child < 0) {
+                break;
+            }
+            if (child + 1 < size && array[offset + child] < array[offset + child + 1]) {
+                child++;
+            }
+            if (!(x < array[offset + child])) {
+                break;
+            }
+            array[offset + pointer] = array[offset + child];
+            pointer = child;
+        }
+        array[offset + pointer] = x;
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    // long
+
+    public static void sort(long[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(long[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        introSort(array, from, to - 1, depthLimit(to - from));
+    }
+
+    private static void introSort(long[] array, int low, int high, int depth) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(array, low, high);
+                return;
+            }
+            int pivot = partition(array, low, high);
+            if (pivot - low < high - pivot) {
+                introSort(array, low, pivot - 1, depth);
+                low = pivot + 1;
+            } else {
+                introSort(array, pivot + 1, high, depth);
+                high = pivot - 1;
+            }
+        }
+        insertionSort(array, low, high);
+    }
+
+    /**
+     * 划分{@code [low, high]}，同{@link IntroSort#partition(int[], int, int)}
+     *
+     * @return 枢轴的最终位置，左边不大于它，右边不小于它
+     */
+    static int partition(long[] array, int low, int high) {
+        placePivot(array, low, high);
+        long pivot = array[low];
+        int i = low, j = high + 1;
+        while (true) {
+            while (array[++i] < pivot) {
+                // array[high]不小于枢轴，i不会越过high
+            }
+            while (pivot < array[--j]) {
+                // array[low]就是枢轴，j不会越过low
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(array, i, j);
+        }
+        swap(array, low, j);
+        return j;
+    }
+
+    private static void placePivot(long[] array, int low, int high) {
+        int mid = (low + high) >>> 1, a = low, b = mid, c = high;
+        if (high - low >= NINTHER_THRESHOLD) {
+            int step = (high - low) >>> 3;
+            a = median(array, low, low + step, low + 2 * step);
+            b = median(array, mid - step, mid, mid + step);
+            c = median(array, high - 2 * step, high - step, high);
+        }
+        if (array[b] < array[a]) {
+            swap(array, a, b);
+        }
+        if (array[c] < array[b]) {
+            swap(array, b, c);
+            if (array[b] < array[a]) {
+                swap(array, a, b);
+            }
+        }
+        swap(array, c, high);
+        swap(array, b, low);
+    }
+
+    private static int median(long[] array, int a, int b, int c) {
+        return array[a] < array[b]
+                ? (array[b] < array[c] ? b : array[a] < array[c] ? c : a)
+                : (array[c] < array[b] ? b : array[c] < array[a] ? c : a);
+    }
+
+    private static void insertionSort(long[] array, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long x = array[i];
+            int j = i - 1;
+            while (j >= low && x < array[j]) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = x;
+        }
+    }
+
+    private static void heapSort(long[] array, int low, int high) {
+        int size = high - low + 1;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, low, i, size);
+        }
+        for (int n = size - 1; n > 0; n--) {
+            swap(array, low, low + n);
+            siftDown(array, low, 0, n);
+        }
+    }
+
+    private static void siftDown(long[] array, int offset, int index, int size) {
+        long x = array[offset + index];
+        int pointer = index;
+        while (true) {
+            int child = 2 * pointer + 1;
+            if (child >= size || child < 0) {
+                break;
+            }
+            if (child + 1 < size && array[offset + child] < array[offset + child + 1]) {
+                child++;
+            }
+            if (!(x < array[offset + child])) {
+                break;
+            }
+            array[offset + pointer] = array[offset + child];
+            pointer = child;
+        }
+        array[offset + pointer] = x;
+    }
+
+    private static void swap(long[] array, int i, int j) {
+        long tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    // double
+
+    public static void sort(double[] array) {
+        sort(array, 0, array.length);
+    }
+
+    /**
+     * 顺序和{@code Arrays.sort(double[])}一致：-0.0在0.0前面，NaN排在最后
+     */
+    public static void sort(double[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        int end = moveNaNToEnd(array, from, to);
+        introSort(array, from, end - 1, depthLimit(end - from));
+        sortZeros(array, from, end);
+    }
+
+    /**
+     * NaN和任何数比较都是false，排序前先挪到末尾
+     *
+     * @return 第一个NaN的下标
+     */
+    static int moveNaNToEnd(double[] array, int from, int to) {
+        int end = to;
+        for (int i = to - 1; i >= from; i--) {
+            if (Double.isNaN(array[i])) {
+                array[i] = array[--end];
+                array[end] = Double.NaN;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * -0.0 == 0.0，排序后混在一起，数出-0.0的个数重新写一遍
+     */
+    static void sortZeros(double[] array, int from, int to) {
+        int low = from, high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < 0.0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int negativeZeros = 0, zeroEnd = low;
+        for (; zeroEnd < to && array[zeroEnd] == 0.0; zeroEnd++) {
+            if (Double.doubleToRawLongBits(array[zeroEnd]) < 0) {
+                negativeZeros++;
+            }
+        }
+        for (int i = low; i < zeroEnd; i++) {
+            array[i] = i < low + negativeZeros ? -0.0 : 0.0;
+        }
+    }
+
+    private static void introSort(double[] array, int low, int high, int depth) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(array, low, high);
+                return;
+            }
+            int pivot = partition(array, low, high);
+            if (pivot - low < high - pivot) {
+                introSort(array, low, pivot - 1, depth);
+                low = pivot + 1;
+            } else {
+                introSort(array, pivot + 1, high, depth);
+                high = pivot - 1;
+            }
+        }
+        insertionSort(array, low, high);
+    }
+
+    /**
+     * 划分{@code [low, high]}，同{@link IntroSort#partition(int[], int, int)}
+     *
+     * @return 枢轴的最终位置，左边不大于它，右边不小于它
+     */
+    static int partition(double[] array, int low, int high) {
+        placePivot(array, low, high);
+        double pivot = array[low];
+        int i = low, j = high + 1;
+        while (true) {
+            while (array[++i] < pivot) {
+                // array[high]不小于枢轴，i不会越过high
+            }
+            while (pivot < array[--j]) {
+                // array[low]就是枢轴，j不会越过low
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(array, i, j);
+        }
+        swap(array, low, j);
+        return j;
+    }
+
+    private static void placePivot(double[] array, int low, int high) {
+        int mid = (low + high) >>> 1, a = low, b = mid, c = high;
+        if (high - low >= NINTHER_THRESHOLD) {
+            int step = (high - low) >>> 3;
+            a = median(array, low, low + step, low + 2 * step);
+            b = median(array, mid - step, mid, mid + step);
+            c = median(array, high - 2 * step, high - step, high);
+        }
+        if (array[b] < array[a]) {
+            swap(array, a, b);
+        }
+        if (array[c] < array[b]) {
+            swap(array, b, c);
+            if (array[b] < array[a]) {
+                swap(array, a, b);
+            }
+        }
+        swap(array, c, high);
+        swap(array, b, low);
+    }
+
+    private static int median(double[] array, int a, int b, int c) {
+        return array[a] < array[b]
+                ? (array[b] < array[c] ? b : array[a] < array[c] ? c : a)
+                : (array[c] < array[b] ? b : array[c] < array[a] ? c : a);
+    }
+
+    private static void insertionSort(double[] array, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double x = array[i];
+            int j = i - 1;
+            while (j >= low && x < array[j]) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = x;
+        }
+    }
+
+    private static void heapSort(double[] array, int low, int high) {
+        int size = high - low + 1;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, low, i, size);
+        }
+        for (int n = size - 1; n > 0; n--) {
+            swap(array, low, low + n);
+            siftDown(array, low, 0, n);
+        }
+    }
+
+    private static void siftDown(double[] array, int offset, int index, int size) {
+        double x = array[offset + index];
+        int pointer = index;
+        while (true) {
+            int child = 2 * pointer + 1;
+            if (child >= size || child < 0) {
+                break;
+            }
+            if (child + 1 < size && array[offset + child] < array[offset + child + 1]) {
+                child++;
+            }
+            if (!(x < array[offset + child])) {
+                break;
+            }
+            array[offset + pointer] = array[offset + child];
+            pointer = child;
+        }
+        array[offset + pointer] = x;
+    }
+
+    private static void swap(double[] array, int i, int j) {
+        double tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    // Object
+
+    public static <T> void sort(T[] array, Comparator<? super T> comparator) {
+        sort(array, 0, array.length, comparator);
+    }
+
+    public static <T> void sort(T[] array, int from, int to, Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator");
+        checkRange(array.length, from, to);
+        introSort(array, from, to - 1, depthLimit(to - from), comparator);
+    }
+
+    private static <T> void introSort(T[] array, int low, int high, int depth, Comparator<? super T> comparator) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(array, low, high, comparator);
+                return;
+            }
+            int pivot = partition(array, low, high, comparator);
+            if (pivot - low < high - pivot) {
+                introSort(array, low, pivot - 1, depth, comparator);
+                low = pivot + 1;
+            } else {
+                introSort(array, pivot + 1, high, depth, comparator);
+                high = pivot - 1;
+            }
+        }
+        insertionSort(array, low, high, comparator);
+    }
+
+    /**
+     * 按{@code comparator}划分{@code [low, high]}，同{@link IntroSort#partition(int[], int, int)}
+     *
+     * @return 枢轴的最终位置，左边不大于它，右边不小于它
+     */
+    static <T> int partition(T[] array, int low, int high, Comparator<? super T> comparator) {
+        placePivot(array, low, high, comparator);
+        T pivot = array[low];
+        int i = low, j = high + 1;
+        while (true) {
+            while (comparator.compare(array[++i], pivot) < 0) {
+                // array[high]不小于枢轴，i不会越过high
+            }
+            while (comparator.compare(pivot, array[--j]) < 0) {
+                // array[low]就是枢轴，j不会越过low
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(array, i, j);
+        }
+        swap(array, low, j);
+        return j;
+    }
+
+    private static <T> void placePivot(T[] array, int low, int high, Comparator<? super T> comparator) {
+        int mid = (low + high) >>> 1, a = low, b = mid, c = high;
+        if (high - low >= NINTHER_THRESHOLD) {
+            int step = (high - low) >>> 3;
+            a = median(array, low, low + step, low + 2 * step, comparator);
+            b = median(array, mid - step, mid, mid + step, comparator);
+            c = median(array, high - 2 * step, high - step, high, comparator);
+        }
+        if (comparator.compare(array[b], array[a]) < 0) {
+            swap(array, a, b);
+        }
+        if (comparator.compare(array[c], array[b]) < 0) {
+            swap(array, b, c);
+            if (comparator.compare(array[b], array[a]) < 0) {
+                swap(array, a, b);
+            }
+        }
+        swap(array, c, high);
+        swap(array, b, low);
+    }
+
+    private static <T> int median(T[] array, int a, int b, int c, Comparator<? super T> comparator) {
+        return comparator.compare(array[a], array[b]) < 0
+                ? (comparator.compare(array[b], array[c]) < 0 ? b : comparator.compare(array[a], array[c]) < 0 ? c : a)
+                : (comparator.compare(array[c], array[b]) < 0 ? b : comparator.compare(array[c], array[a]) < 0 ? c : a);
+    }
+
+    private static <T> void insertionSort(T[] array, int low, int high, Comparator<? super T> comparator) {
+        for (int i = low + 1; i <= high; i++) {
+            T x = array[i];
+            int j = i - 1;
+            while (j >= low && comparator.compare(x, array[j]) < 0) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = x;
+        }
+    }
+
+    private static <T> void heapSort(T[] array, int low, int high, Comparator<? super T> comparator) {
+        int size = high - low + 1;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(array, low, i, size, comparator);
+        }
+        for (int n = size - 1; n > 0; n--) {
+            swap(array, low, low + n);
+            siftDown(array, low, 0, n, comparator);
+        }
+    }
+
+    private static <T> void siftDown(T[] array, int offset, int index, int size, Comparator<? super T> comparator) {
+        T x = array[offset + index];
+        int pointer = index;
+        while (true) {
+            int child = 2 * pointer + 1;
+            if (child >= size || child < 0) {
+                break;
+            }
+            if (child + 1 < size && comparator.compare(array[offset + child], array[offset + child + 1]) < 0) {
+                child++;
+            }
+            if (comparator.compare(x, array[offset + child]) >= 0) {
+                break;
+            }
+            array[offset + pointer] = array[offset + child];
+            pointer = child;
+        }
+        array[offset + pointer] = x;
+    }
+
+    private static <T> void swap(T[] array, int i, int j) {
+        T tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    static void checkRange(int length, int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+        }
+        if (from < 0) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (to > length) {
+            throw new ArrayIndexOutOfBoundsException(to);
+        }
+    }
+
+    static int depthLimit(int size) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(size, 1)));
+    }
+}
@@ -0,0 +1,429 @@
+package me.dalianmao.util.sort;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 基于{@code ForkJoinPool}的并行归并排序，用于大数组的批量报表等场景
+ *
+ * <ol>
+ * <li>不超过{@code threshold}的区间直接用{@link IntroSort}顺序排序
+ * <li>两半并行排序后并行合并，需要和排序区间一样大的辅助数组
+ * <li>在{@code ForkJoinPool}的工作线程中调用时使用该线程池，否则使用{@code ForkJoinPool.commonPool()}
+ * </ol>
+ *
+ * @author xiezhenzong
+ *
+ * @see QuickSelect
+ */
+public abstract class ParallelSort {
+
+    /**
+     * 默认的并行阈值，和{@code Arrays.parallelSort}一致
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+    // int
+
+    public static void sort(int[] array) {
+        sort(array, 0, array.length, DEFAULT_THRESHOLD);
+    }
+
+    public static void sort(int[] array, int threshold) {
+        sort(array, 0, array.length, threshold);
+    }
+
+    /**
+     * 对{@code [from, to)}排序
+     *
+     * @param threshold
+     *            并行阈值，不超过该值的区间直接用{@link IntroSort}排序
+     */
+    public static void sort(int[] array, int from, int to, int threshold) {
+        IntroSort.checkRange(array.length, from, to);
+        int leafSize = leafSize(to - from, threshold);
+        if (to - from <= leafSize) {
+            IntroSort.sort(array, from, to);
+        } else {
+            new IntSorter(array, new int[to - from], from, from, to, leafSize, false).invoke();
+        }
+    }
+
+    /**
+     * 顺序合并{@code src}中相邻的两段到{@code dst}
+     */
+    private static void merge(int[] src, int low1, int high1, int low2, int high2, int[] dst, int out) {
+        while (low1 < high1 && low2 < high2) {
+            dst[out++] = src[low2] < src[low1] ? src[low2++] : src[low1++];
+        }
+        System.arraycopy(src, low1, dst, out, high1 - low1);
+        System.arraycopy(src, low2, dst, out + high1 - low1, high2 - low2);
+    }
+
+    /**
+     * @return {@code [low, high)}中第一个不小于{@code key}的下标
+     */
+    private static int lowerBound(int[] array, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // long
+
+    public static void sort(long[] array) {
+        sort(array, 0, array.length, DEFAULT_THRESHOLD);
+    }
+
+    public static void sort(long[] array, int threshold) {
+        sort(array, 0, array.length, threshold);
+    }
+
+    public static void sort(long[] array, int from, int to, int threshold) {
+        IntroSort.checkRange(array.length, from, to);
+        int leafSize = leafSize(to - from, threshold);
+        if (to - from <= leafSize) {
+            IntroSort.sort(array, from, to);
+        } else {
+            new LongSorter(array, new long[to - from], from, from, to, leafSize, false).invoke();
+        }
+    }
+
+    private static void merge(long[] src, int low1, int high1, int low2, int high2, long[] dst, int out) {
+        while (low1 < high1 && low2 < high2) {
+            dst[out++] = src[low2] < src[low1] ? src[low2++] : src[low1++];
+        }
+        System.arraycopy(src, low1, dst, out, high1 - low1);
+        System.arraycopy(src, low2, dst, out + high1 - low1, high2 - low2);
+    }
+
+    private static int lowerBound(long[] array, int low, int high, long key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // double
+
+    public static void sort(double[] array) {
+        sort(array, 0, array.length, DEFAULT_THRESHOLD);
+    }
+
+    public static void sort(double[] array, int threshold) {
+        sort(array, 0, array.length, threshold);
+    }
+
+    /**
+     * 顺序和{@code Arrays.sort(double[])}一致：-0.0在0.0前面，NaN排在最后
+     */
+    public static void sort(double[] array, int from, int to, int threshold) {
+        IntroSort.checkRange(array.length, from, to);
+        int end = IntroSort.moveNaNToEnd(array, from, to);
+        int leafSize = leafSize(end - from, threshold);
+        if (end - from <= leafSize) {
+            IntroSort.sort(array, from, end);
+        } else {
+            new DoubleSorter(array, new double[end - from], from, from, end, leafSize, false).invoke();
+        }
+        IntroSort.sortZeros(array, from, end);
+    }
+
+    private static void merge(double[] src, int low1, int high1, int low2, int high2, double[] dst, int out) {
+        while (low1 < high1 && low2 < high2) {
+            dst[out++] = src[low2] < src[low1] ? src[low2++] : src[low1++];
+        }
+        System.arraycopy(src, low1, dst, out, high1 - low1);
+        System.arraycopy(src, low2, dst, out + high1 - low1, high2 - low2);
+    }
+
+    private static int lowerBound(double[] array, int low, int high, double key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 叶子区间的大小：不小于{@code threshold}，并且任务数大约是并行度的4倍；并行度为1时返回{@code size}，即顺序排序
+     */
+    private static int leafSize(int size, int threshold) {
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        int parallelism = pool.getParallelism();
+        if (parallelism <= 1) {
+            return size;
+        }
+        int chunks = parallelism << 2;
+        return Math.max(Math.max(threshold, 1), (size + chunks - 1) / chunks);
+    }
+
+    /**
+     * 归并排序：两半并行排序，结果放在另一个数组里，再合并回来；数组在array和work之间来回切换，只在叶子节点复制
+     */
+    @SuppressWarnings("serial")
+    private static class IntSorter extends RecursiveAction {
+
+        private final int[] array;
+        private final int[] work; // work[i - base]对应array[i]
+        private final int base;
+        private final int low;
+        private final int high;
+        private final int leafSize;
+        private final boolean toWork; // 排好序的结果放在work里还是array里
+
+        IntSorter(int[] array, int[] work, int base, int low, int high, int leafSize, boolean toWork) {
+            this.array = array;
+            this.work = work;
+            this.base = base;
+            this.low = low;
+            this.high = high;
+            this.leafSize = leafSize;
+            this.toWork = toWork;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= leafSize) {
+                IntroSort.sort(array, low, high);
+                if (toWork) {
+                    System.arraycopy(array, low, work, low - base, high - low);
+                }
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            invokeAll(new IntSorter(array, work, base, low, middle, leafSize, !toWork),
+                    new IntSorter(array, work, base, middle, high, leafSize, !toWork));
+            int[] src = toWork ? array : work, dst = toWork ? work : array;
+            int srcBase = toWork ? 0 : base, dstBase = toWork ? base : 0;
+            new IntMerger(src, low - srcBase, middle - srcBase, middle - srcBase, high - srcBase, dst, low - dstBase,
+                    leafSize).compute();
+        }
+    }
+
+    /**
+     * 并行合并：较长的一段从中间切开，另一段二分找到切点，两对子段分别合并到各自的位置
+     */
+    @SuppressWarnings("serial")
+    private static class IntMerger extends RecursiveAction {
+
+        private final int[] src;
+        private final int low1;
+        private final int high1;
+        private final int low2;
+        private final int high2;
+        private final int[] dst;
+        private final int out;
+        private final int leafSize;
+
+        IntMerger(int[] src, int low1, int high1, int low2, int high2, int[] dst, int out, int leafSize) {
+            this.src = src;
+            this.low1 = low1;
+            this.high1 = high1;
+            this.low2 = low2;
+            this.high2 = high2;
+            this.dst = dst;
+            this.out = out;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            // 基本类型不需要稳定，可以让第一段总是较长的一段
+            int l1 = low1, h1 = high1, l2 = low2, h2 = high2;
+            if (h1 - l1 < h2 - l2) {
+                l1 = low2;
+                h1 = high2;
+                l2 = low1;
+                h2 = high1;
+            }
+            if (h1 - l1 + h2 - l2 <= leafSize || h1 - l1 < 2) {
+                merge(src, l1, h1, l2, h2, dst, out);
+                return;
+            }
+            int m1 = (l1 + h1) >>> 1, m2 = lowerBound(src, l2, h2, src[m1]);
+            invokeAll(new IntMerger(src, l1, m1, l2, m2, dst, out, leafSize),
+                    new IntMerger(src, m1, h1, m2, h2, dst, out + (m1 - l1) + (m2 - l2), leafSize));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class LongSorter extends RecursiveAction {
+
+        private final long[] array;
+        private final long[] work;
+        private final int base;
+        private final int low;
+        private final int high;
+        private final int leafSize;
+        private final boolean toWork;
+
+        LongSorter(long[] array, long[] work, int base, int low, int high, int leafSize, boolean toWork) {
+            this.array = array;
+            this.work = work;
+            this.base = base;
+            this.low = low;
+            this.high = high;
+            this.leafSize = leafSize;
+            this.toWork = toWork;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= leafSize) {
+                IntroSort.sort(array, low, high);
+                if (toWork) {
+                    System.arraycopy(array, low, work, low - base, high - low);
+                }
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            invokeAll(new LongSorter(array, work, base, low, middle, leafSize, !toWork),
+                    new LongSorter(array, work, base, middle, high, leafSize, !toWork));
+            long[] src = toWork ? array : work, dst = toWork ? work : array;
+            int srcBase = toWork ? 0 : base, dstBase = toWork ? base : 0;
+            new LongMerger(src, low - srcBase, middle - srcBase, middle - srcBase, high - srcBase, dst, low - dstBase,
+                    leafSize).compute();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class LongMerger extends RecursiveAction {
+
+        private final long[] src;
+        private final int low1;
+        private final int high1;
+        private final int low2;
+        private final int high2;
+        private final long[] dst;
+        private final int out;
+        private final int leafSize;
+
+        LongMerger(long[] src, int low1, int high1, int low2, int high2, long[] dst, int out, int leafSize) {
+            this.src = src;
+            this.low1 = low1;
+            this.high1 = high1;
+            this.low2 = low2;
+            this.high2 = high2;
+            this.dst = dst;
+            this.out = out;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            int l1 = low1, h1 = high1, l2 = low2, h2 = high2;
+            if (h1 - l1 < h2 - l2) {
+                l1 = low2;
+                h1 = high2;
+                l2 = low1;
+                h2 = high1;
+            }
+            if (h1 - l1 + h2 - l2 <= leafSize || h1 - l1 < 2) {
+                merge(src, l1, h1, l2, h2, dst, out);
+                return;
+            }
+            int m1 = (l1 + h1) >>> 1, m2 = lowerBound(src, l2, h2, src[m1]);
+            invokeAll(new LongMerger(src, l1, m1, l2, m2, dst, out, leafSize),
+                    new LongMerger(src, m1, h1, m2, h2, dst, out + (m1 - l1) + (m2 - l2), leafSize));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class DoubleSorter extends RecursiveAction {
+
+        private final double[] array;
+        private final double[] work;
+        private final int base;
+        private final int low;
+        private final int high;
+        private final int leafSize;
+        private final boolean toWork;
+
+        DoubleSorter(double[] array, double[] work, int base, int low, int high, int leafSize, boolean toWork) {
+            this.array = array;
+            this.work = work;
+            this.base = base;
+            this.low = low;
+            this.high = high;
+            this.leafSize = leafSize;
+            this.toWork = toWork;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= leafSize) {
+                IntroSort.sort(array, low, high);
+                if (toWork) {
+                    System.arraycopy(array, low, work, low - base, high - low);
+                }
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            invokeAll(new DoubleSorter(array, work, base, low, middle, leafSize, !toWork),
+                    new DoubleSorter(array, work, base, middle, high, leafSize, !toWork));
+            double[] src = toWork ? array : work, dst = toWork ? work : array;
+            int srcBase = toWork ? 0 : base, dstBase = toWork ? base : 0;
+            new DoubleMerger(src, low - srcBase, middle - srcBase, middle - srcBase, high - srcBase, dst, low - dstBase,
+                    leafSize).compute();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class DoubleMerger extends RecursiveAction {
+
+        private final double[] src;
+        private final int low1;
+        private final int high1;
+        private final int low2;
+        private final int high2;
+        private final double[] dst;
+        private final int out;
+        private final int leafSize;
+
+        DoubleMerger(double[] src, int low1, int high1, int low2, int high2, double[] dst, int out, int leafSize) {
+            this.src = src;
+            this.low1 = low1;
+            this.high1 = high1;
+            this.low2 = low2;
+            this.high2 = high2;
+            this.dst = dst;
+            this.out = out;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            int l1 = low1, h1 = high1, l2 = low2, h2 = high2;
+            if (h1 - l1 < h2 - l2) {
+                l1 = low2;
+                h1 = high2;
+                l2 = low1;
+                h2 = high1;
+            }
+            if (h1 - l1 + h2 - l2 <= leafSize || h1 - l1 < 2) {
+                merge(src, l1, h1, l2, h2, dst, out);
+                return;
+            }
+            int m1 = (l1 + h1) >>> 1, m2 = lowerBound(src, l2, h2, src[m1]);
+            invokeAll(new DoubleMerger(src, l1, m1, l2, m2, dst, out, leafSize),
+                    new DoubleMerger(src, m1, h1, m2, h2, dst, out + (m1 - l1) + (m2 - l2), leafSize));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package me.dalianmao.util.sort;
+
+/**
+ * 快速选择(quickselect)：不排序整个数组，平均O(n)找出排好序后第k个元素，用于中位数、分位数等统计<br/>
+ *
+ * 划分和{@link IntroSort}相同，递归过深时剩下的部分直接排序，最坏O(nlog(n))<br/>
+ *
+ * 注意：会重新排列数组中的元素，需要保留原顺序时先复制一份
+ *
+ * @author xiezhenzong
+ *
+ * @see ParallelSort
+ */
+public abstract class QuickSelect {
+
+    private static final int SMALL_RANGE = 24;
+
+    // int
+
+    public static int select(int[] array, int k) {
+        return select(array, 0, array.length, k);
+    }
+
+    /**
+     * 重新排列{@code [from, to)}，使{@code array[k]}正好是排好序后该位置上的元素，它左边的都不大于它，右边的都不小于它
+     *
+     * @param k
+     *            下标，在{@code [from, to)}内
+     * @return 排好序后下标{@code k}上的元素
+     */
+    public static int select(int[] array, int from, int to, int k) {
+        IntroSort.checkRange(array.length, from, to);
+        checkIndex(k, from, to);
+        int low = from, high = to - 1, depth = IntroSort.depthLimit(to - from);
+        while (high - low >= SMALL_RANGE) {
+            if (depth-- == 0) {
+                // 划分一直不均匀，剩下的部分直接排序，最坏O(nlog(n))
+                IntroSort.sort(array, low, high + 1);
+                return array[k];
+            }
+            int pivot = IntroSort.partition(array, low, high);
+            if (k < pivot) {
+                high = pivot - 1;
+            } else if (k > pivot) {
+                low = pivot + 1;
+            } else {
+                return array[k];
+            }
+        }
+        IntroSort.sort(array, low, high + 1);
+        return array[k];
+    }
+
+    /**
+     * @return 中位数，元素个数为偶数时取较小的一个
+     */
+    public static int median(int[] array) {
+        return select(array, (array.length - 1) >>> 1);
+    }
+
+    /**
+     * 分位数，取最近秩：排好序后第{@code ceil(quantile * n)}个元素，例如{@code quantile(latencies, 0.99)}就是p99
+     *
+     * @param quantile
+     *            [0, 1]
+     */
+    public static int quantile(int[] array, double quantile) {
+        return select(array, quantileIndex(array.length, quantile));
+    }
+
+    // long
+
+    public static long select(long[] array, int k) {
+        return select(array, 0, array.length, k);
+    }
+
+    public static long select(long[] array, int from, int to, int k) {
+        IntroSort.checkRange(array.length, from, to);
+        checkIndex(k, from, to);
+        int low = from, high = to - 1, depth = IntroSort.depthLimit(to - from);
+        while (high - low >= SMALL_RANGE) {
+            if (depth-- == 0) {
+                IntroSort.sort(array, low, high + 1);
+                return array[k];
+            }
+            int pivot = IntroSort.partition(array, low, high);
+            if (k < pivot) {
+                high = pivot - 1;
+            } else if (k > pivot) {
+                low = pivot + 1;
+            } else {
+                return array[k];
+            }
+        }
+        IntroSort.sort(array, low, high + 1);
+        return array[k];
+    }
+
+    public static long median(long[] array) {
+        return select(array, (array.length - 1) >>> 1);
+    }
+
+    public static long quantile(long[] array, double quantile) {
+        return select(array, quantileIndex(array.length, quantile));
+    }
+
+    // double
+
+    public static double select(double[] array, int k) {
+        return select(array, 0, array.length, k);
+    }
+
+    /**
+     * NaN排在最后，和{@code Arrays.sort(double[])}一致；-0.0和0.0视为相等
+     */
+    public static double select(double[] array, int from, int to, int k) {
+        IntroSort.checkRange(array.length, from, to);
+        checkIndex(k, from, to);
+        int end = IntroSort.moveNaNToEnd(array, from, to);
+        if (k >= end) {
+            return Double.NaN;
+        }
+        int low = from, high = end - 1, depth = IntroSort.depthLimit(end - from);
+        while (high - low >= SMALL_RANGE) {
+            if (depth-- == 0) {
+                IntroSort.sort(array, low, high + 1);
+                return array[k];
+            }
+            int pivot = IntroSort.partition(array, low, high);
+            if (k < pivot) {
+                high = pivot - 1;
+            } else if (k > pivot) {
+                low = pivot + 1;
+            } else {
+                return array[k];
+            }
+        }
+        IntroSort.sort(array, low, high + 1);
+        return array[k];
+    }
+
+    public static double median(double[] array) {
+        return select(array, (array.length - 1) >>> 1);
+    }
+
+    public static double quantile(double[] array, double quantile) {
+        return select(array, quantileIndex(array.length, quantile));
+    }
+
+    private static void checkIndex(int k, int from, int to) {
+        if (k < from || k >= to) {
+            throw new ArrayIndexOutOfBoundsException("k: " + k + ", range: [" + from + ", " + to + ")");
+        }
+    }
+
+    private static int quantileIndex(int size, double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("quantile must be in [0, 1]: " + quantile);
+        }
+        return Math.max((int) Math.ceil(quantile * size) - 1, 0);
+    }
+}
@@ -0,0 +1,227 @@
+package me.dalianmao.util.sort;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.ToLongFunction;
+
+/**
+ * LSD基数排序，每趟按一个字节分配，{@code int}最多4趟，{@code long}最多8趟，O(n)时间，适合千万级的id、时间戳排序
+ *
+ * <ol>
+ * <li>最高字节异或符号位，负数也能排在正数前面
+ * <li>一次遍历统计出所有字节的直方图，所有元素该字节都相同的那一趟直接跳过，比如都是正数的时间戳
+ * <li>需要和排序区间一样大的辅助数组，元素很少时直接用{@link IntroSort}
+ * <li>是稳定排序，{@link RadixSort#sortByKey(Object[], ToLongFunction)}只移动下标，最后按下标重新排列一次对象
+ * </ol>
+ *
+ * @author xiezhenzong
+ *
+ * @see IntroSort
+ */
+public abstract class RadixSort {
+
+    private static final int RADIX_THRESHOLD = 256;
+    private static final int BITS = 8;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+
+    // int
+
+    public static void sort(int[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(int[] array, int from, int to) {
+        IntroSort.checkRange(array.length, from, to);
+        int size = to - from;
+        if (size < RADIX_THRESHOLD) {
+            IntroSort.sort(array, from, to);
+            return;
+        }
+        int[] counts = histogram(array, from, to);
+        int[] src = array, dst = new int[size];
+        int srcOffset = from, dstOffset = 0;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            int shift = pass * BITS;
+            if (!toOffsets(counts, pass * BUCKETS, size)) {
+                continue;
+            }
+            for (int i = srcOffset, end = srcOffset + size; i < end; i++) {
+                int x = src[i];
+                dst[dstOffset + counts[pass * BUCKETS + (((x ^ Integer.MIN_VALUE) >>> shift) & MASK)]++] = x;
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+            int tmpOffset = srcOffset;
+            srcOffset = dstOffset;
+            dstOffset = tmpOffset;
+        }
+        if (src != array) {
+            System.arraycopy(src, srcOffset, array, from, size);
+        }
+    }
+
+    // long
+
+    public static void sort(long[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(long[] array, int from, int to) {
+        IntroSort.checkRange(array.length, from, to);
+        int size = to - from;
+        if (size < RADIX_THRESHOLD) {
+            IntroSort.sort(array, from, to);
+            return;
+        }
+        int[] counts = histogram(array, from, to);
+        long[] src = array, dst = new long[size];
+        int srcOffset = from, dstOffset = 0;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int shift = pass * BITS;
+            if (!toOffsets(counts, pass * BUCKETS, size)) {
+                continue;
+            }
+            for (int i = srcOffset, end = srcOffset + size; i < end; i++) {
+                long x = src[i];
+                dst[dstOffset + counts[pass * BUCKETS + (int) (((x ^ Long.MIN_VALUE) >>> shift) & MASK)]++] = x;
+            }
+            long[] tmp = src;
+            src = dst;
+            dst = tmp;
+            int tmpOffset = srcOffset;
+            srcOffset = dstOffset;
+            dstOffset = tmpOffset;
+        }
+        if (src != array) {
+            System.arraycopy(src, srcOffset, array, from, size);
+        }
+    }
+
+    // 按key排序
+
+    /**
+     * 按{@code keys}从小到大排列的下标，{@code keys}本身不变，相等的key保持原来的先后顺序
+     *
+     * @param keys
+     *            key
+     * @return 下标，{@code keys[order[0]] <= keys[order[1]] <= ...}
+     */
+    public static int[] sortedOrder(long[] keys) {
+        int size = keys.length;
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        if (size < 2) {
+            return order;
+        }
+        int[] counts = histogram(keys, 0, size);
+        long[] srcKeys = keys, dstKeys = new long[size];
+        int[] srcOrder = order, dstOrder = new int[size];
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int shift = pass * BITS;
+            if (!toOffsets(counts, pass * BUCKETS, size)) {
+                continue;
+            }
+            for (int i = 0; i < size; i++) {
+                long x = srcKeys[i];
+                int target = counts[pass * BUCKETS + (int) (((x ^ Long.MIN_VALUE) >>> shift) & MASK)]++;
+                dstKeys[target] = x;
+                dstOrder[target] = srcOrder[i];
+            }
+            // 第一趟之后srcKeys就是自己的辅助数组了，不会修改调用方的keys
+            long[] tmpKeys = srcKeys == keys ? new long[size] : srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmpKeys;
+            int[] tmpOrder = srcOrder;
+            srcOrder = dstOrder;
+            dstOrder = tmpOrder;
+        }
+        return srcOrder;
+    }
+
+    /**
+     * 按提取出的{@code long}值排序，每个元素只提取一次，排序过程中只移动key和下标，最后重新排列一次对象；是稳定排序
+     *
+     * @param array
+     *            元素
+     * @param key
+     *            提取排序用的值，比如id、时间戳
+     */
+    public static <T> void sortByKey(T[] array, ToLongFunction<? super T> key) {
+        long[] keys = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            keys[i] = key.applyAsLong(array[i]);
+        }
+        int[] order = sortedOrder(keys);
+        Object[] copy = array.clone();
+        for (int i = 0; i < order.length; i++) {
+            @SuppressWarnings("unchecked")
+            T element = (T) copy[order[i]];
+            array[i] = element;
+        }
+    }
+
+    /**
+     * 同{@link RadixSort#sortByKey(Object[], ToLongFunction)}，和{@code List.sort}一样通过{@code ListIterator.set}写回
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void sortByKey(List<T> list, ToLongFunction<? super T> key) {
+        Object[] elements = list.toArray();
+        long[] keys = new long[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            keys[i] = key.applyAsLong((T) elements[i]);
+        }
+        int[] order = sortedOrder(keys);
+        ListIterator<T> iterator = list.listIterator();
+        for (int index : order) {
+            iterator.next();
+            iterator.set((T) elements[index]);
+        }
+    }
+
+    /**
+     * 一次遍历统计出每个字节的直方图；翻转符号位之后按无符号数排序，负数就排在了正数前面
+     */
+    private static int[] histogram(int[] array, int from, int to) {
+        int[] counts = new int[Integer.BYTES * BUCKETS];
+        for (int i = from; i < to; i++) {
+            int x = array[i] ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < Integer.BYTES; pass++) {
+                counts[pass * BUCKETS + ((x >>> (pass * BITS)) & MASK)]++;
+            }
+        }
+        return counts;
+    }
+
+    private static int[] histogram(long[] array, int from, int to) {
+        int[] counts = new int[Long.BYTES * BUCKETS];
+        for (int i = from; i < to; i++) {
+            long x = array[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < Long.BYTES; pass++) {
+                counts[pass * BUCKETS + (int) ((x >>> (pass * BITS)) & MASK)]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 把{@code counts[base, base + BUCKETS)}中的计数换成每个桶的起始位置
+     *
+     * @return false 所有元素都落在同一个桶里，这一趟可以跳过
+     */
+    private static boolean toOffsets(int[] counts, int base, int size) {
+        int offset = 0;
+        for (int i = base, end = base + BUCKETS; i < end; i++) {
+            int count = counts[i];
+            if (count == size) {
+                return false;
+            }
+            counts[i] = offset;
+            offset += count;
+        }
+        return true;
+    }
+}
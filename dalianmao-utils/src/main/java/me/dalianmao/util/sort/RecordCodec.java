@@ -0,0 +1,79 @@
+package me.dalianmao.util.sort;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 记录的二进制编解码，{@link ExternalSort}用它把run写到临时文件再读回来
+ *
+ * @author xiezhenzong
+ *
+ * @see ExternalSort
+ */
+public interface RecordCodec<T> {
+
+    /**
+     * 默认每条记录在内存中占用的字节数
+     */
+    int DEFAULT_RECORD_SIZE = 64;
+
+    /**
+     * 8个字节的{@code long}
+     */
+    RecordCodec<Long> LONG = new RecordCodec<Long>() {
+
+        @Override
+        public void write(DataOutput output, Long record) throws IOException {
+            output.writeLong(record);
+        }
+
+        @Override
+        public Long read(DataInput input) throws IOException {
+            return input.readLong();
+        }
+
+        @Override
+        public long estimateSize(Long record) {
+            return 24; // Long对象16字节，加上数组中的引用
+        }
+    };
+
+    /**
+     * 长度加上utf-8编码的字节，不像{@code DataOutput.writeUTF}有64KB的限制
+     */
+    RecordCodec<String> STRING = new RecordCodec<String>() {
+
+        @Override
+        public void write(DataOutput output, String record) throws IOException {
+            byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        @Override
+        public String read(DataInput input) throws IOException {
+            byte[] bytes = new byte[input.readInt()];
+            input.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public long estimateSize(String record) {
+            return 48 + 2L * record.length(); // String和char[]的对象头、字段，加上数组中的引用
+        }
+    };
+
+    void write(DataOutput output, T record) throws IOException;
+
+    T read(DataInput input) throws IOException;
+
+    /**
+     * @return 记录在内存中大约占用的字节数，用来控制每个run的大小
+     */
+    default long estimateSize(T record) {
+        return DEFAULT_RECORD_SIZE;
+    }
+
+}
@@ -1,12 +1,24 @@
 package me.dalianmao.utils.collection;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import me.dalianmao.util.collection.ArrayUtil;
+import me.dalianmao.util.collection.IntHashSet;
+import me.dalianmao.util.collection.LongHashSet;
 
 /**
  * test for {@code ArrayUtil}
@@ -34,6 +46,27 @@ public class ArrayUtilTest {
 
     }
 
+    @Test
+    public void testIndexOfDuplicate() {
+        assertEquals(3, ArrayUtil.indexOfDuplicate("a", "b", null, "b", "a"));
+        assertEquals(1, ArrayUtil.indexOfDuplicate(null, null));
+        assertEquals(-1, ArrayUtil.indexOfDuplicate("a", "b", null));
+        assertEquals(4, ArrayUtil.indexOfDuplicate(new int[] { 0, -1, 7, 1, 7, 0 }));
+        assertEquals(-1, ArrayUtil.indexOfDuplicate(new int[0]));
+        assertEquals(2, ArrayUtil.indexOfDuplicate(new long[] { 1L << 32, 1L, 1L << 32 }));
+        assertEquals(-1, ArrayUtil.indexOfDuplicate(new long[] { 1L << 32, 1L }));
+    }
+
+    @Test
+    public void testHasDuplicateBySort() {
+        assertTrue(ArrayUtil.hasDuplicateBySort(new int[] { 5, 3, 9, 3 }));
+        assertFalse(ArrayUtil.hasDuplicateBySort(new int[] { 5, 3, 9 }));
+        assertTrue(ArrayUtil.hasDuplicateBySort(new long[] { 5L, -3L, 5L }));
+        assertTrue(ArrayUtil.hasDuplicateBySort(Comparator.nullsFirst(Comparator.<String> naturalOrder()), "b", null, "a", null));
+        assertFalse(ArrayUtil.hasDuplicateBySort(String.CASE_INSENSITIVE_ORDER, "b", "a"));
+        assertTrue(ArrayUtil.hasDuplicateBySort(String.CASE_INSENSITIVE_ORDER, "b", "A", "a"));
+    }
+
     @Test(expected = NullPointerException.class)
     public void testHasDuplicateNullCase() {
         assertTrue(ArrayUtil.hasDuplicate(null));
@@ -53,6 +86,122 @@ public class ArrayUtilTest {
     public void testRemoveDuplicate() {
         String[] result = ArrayUtil.removeDuplicateGuaranteeOrder(String[]::new, "", "", "1", "2", null, null);
         assertArrayEquals(new String[] { "", "1", "2", null }, result);
+
+        assertArrayEquals(new int[] { 3, 0, 1, -3 }, ArrayUtil.removeDuplicateGuaranteeOrder(new int[] { 3, 0, 3, 1, 0, -3, 1 }));
+        assertArrayEquals(new long[] { 0L, Long.MIN_VALUE, 1L << 32, 1L },
+                ArrayUtil.removeDuplicateGuaranteeOrder(new long[] { 0L, Long.MIN_VALUE, 1L << 32, 0L, 1L, 1L << 32 }));
+        assertArrayEquals(new int[0], ArrayUtil.removeDuplicateGuaranteeOrder(new int[0]));
+    }
+
+    @Test
+    public void testRemoveDuplicateLargeInput() {
+        int n = 100000;
+        long[] target = new long[n];
+        for (int i = 0; i < n; i++) {
+            target[i] = (i * 7919L) % 5000L;
+        }
+        long[] result = ArrayUtil.removeDuplicateGuaranteeOrder(target);
+        assertEquals(5000, result.length);
+        assertArrayEquals(Arrays.stream(target).distinct().toArray(), result);
+
+        Long[] boxed = Arrays.stream(target).boxed().toArray(Long[]::new);
+        assertArrayEquals(Arrays.stream(boxed).distinct().toArray(Long[]::new), ArrayUtil.removeDuplicateGuaranteeOrder(Long[]::new, boxed));
+    }
+
+    @Test
+    public void testIndexCapacity() throws ReflectiveOperationException {
+        // 包外的测试，通过反射调用包内的方法
+        Method method = ArrayUtil.class.getDeclaredMethod("indexCapacity", int.class);
+        method.setAccessible(true);
+        Field field = ArrayUtil.class.getDeclaredField("MAX_INDEXED_SIZE");
+        field.setAccessible(true);
+        int max = field.getInt(null);
+        assertEquals(1 << 29, max);
+        for (int size : new int[] { 0, 1, 2, 3, 1000, (1 << 28) - 1, 1 << 28, (1 << 28) + 1, max - 1, max }) {
+            int capacity = (Integer) method.invoke(null, size);
+            assertEquals("size " + size, 1, Integer.bitCount(capacity));
+            assertTrue("size " + size, capacity >= 2L * size && capacity <= 1 << 30);
+        }
+        assertEquals(1 << 30, method.invoke(null, max + 1)); // 超过上限的调用方不再用哈希索引
+        assertEquals(1 << 30, method.invoke(null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testPrimitiveFilter() {
+        int[] ints = { 3, -1, 0, 7, -8, 5 };
+        Integer[] boxedInts = { 3, -1, 0, 7, -8, 5 };
+        assertArrayEquals(ArrayUtil.filter(t -> t > 2, boxedInts), box(ArrayUtil.filter(t -> t > 2, ints)));
+        assertArrayEquals(ArrayUtil.positive(boxedInts), box(ArrayUtil.positive(ints)));
+        assertArrayEquals(ArrayUtil.negative(boxedInts), box(ArrayUtil.negative(ints)));
+        assertArrayEquals(new int[] { -1, 0, -8 }, ArrayUtil.remove(t -> t > 2, ints));
+        assertEquals(ArrayUtil.count(t -> t > 2, boxedInts), ArrayUtil.count(t -> t > 2, ints));
+        assertArrayEquals(new int[0], ArrayUtil.filter(t -> t > 100, ints));
+        assertArrayEquals(new int[0], ArrayUtil.positive(new int[0]));
+        int[] all = ArrayUtil.filter(t -> true, ints);
+        assertArrayEquals(ints, all);
+        assertNotSame(ints, all); // 都满足条件时直接返回临时数组，但不会返回原数组
+
+        long[] longs = { 3L, -1L, 0L, Long.MAX_VALUE, Long.MIN_VALUE };
+        Long[] boxedLongs = { 3L, -1L, 0L, Long.MAX_VALUE, Long.MIN_VALUE };
+        assertArrayEquals(ArrayUtil.positive(boxedLongs), Arrays.stream(ArrayUtil.positive(longs)).boxed().toArray(Long[]::new));
+        assertArrayEquals(new long[] { -1L, Long.MIN_VALUE }, ArrayUtil.negative(longs));
+        assertEquals(ArrayUtil.count(t -> t != 0, boxedLongs), ArrayUtil.count(t -> t != 0, longs));
+
+        double[] doubles = { 1.5, -0.5, 0.0, Double.NaN, -3.0 };
+        Double[] boxedDoubles = { 1.5, -0.5, 0.0, Double.NaN, -3.0 };
+        assertArrayEquals(ArrayUtil.positive(boxedDoubles), Arrays.stream(ArrayUtil.positive(doubles)).boxed().toArray(Double[]::new));
+        assertArrayEquals(ArrayUtil.negative(boxedDoubles), Arrays.stream(ArrayUtil.negative(doubles)).boxed().toArray(Double[]::new));
+    }
+
+    @Test
+    public void testStatefulFilter() {
+        // 有副作用的条件，每个元素只能调用一次
+        int[] ints = { 3, 1, 3, 2, 1, 3 };
+        assertArrayEquals(new int[] { 3, 1, 2 }, ArrayUtil.filter(new IntHashSet()::add, ints));
+        long[] longs = { 5L, 5L, -1L, 5L };
+        assertArrayEquals(new long[] { 5L, -1L }, ArrayUtil.filter(new LongHashSet()::add, longs));
+        int[] calls = { 0 };
+        double[] doubles = ArrayUtil.filter(t -> calls[0]++ % 2 == 0, new double[] { 1.0, 2.0, 3.0, 4.0, 5.0 });
+        assertArrayEquals(new double[] { 1.0, 3.0, 5.0 }, doubles, 0);
+        assertEquals(5, calls[0]);
+    }
+
+    @Test
+    public void testToPrimitiveArray() {
+        assertArrayEquals(new int[] { 1, 3 }, ArrayUtil.toIntArray(1, null, 3, null));
+        assertArrayEquals(new long[] { 2L }, ArrayUtil.toLongArray(null, 2L));
+        assertArrayEquals(new double[0], ArrayUtil.toDoubleArray((Double) null), 0);
+    }
+
+    private static Integer[] box(int[] target) {
+        return Arrays.stream(target).boxed().toArray(Integer[]::new);
+    }
+
+    @Test
+    public void testParallel() {
+        Integer[] target = new Integer[10000];
+        int[] ints = new int[target.length];
+        for (int i = 0; i < target.length; i++) {
+            target[i] = i % 7 == 0 ? null : i % 1000 - 500;
+            ints[i] = i % 1000 - 500;
+        }
+        assertArrayEquals(ArrayUtil.filter(t -> t > 0, Integer[]::new, target), ArrayUtil.parallelFilter(t -> t > 0, Integer[]::new, 100, target));
+        assertArrayEquals(ArrayUtil.filter(t -> t % 3 == 0, ints), ArrayUtil.parallelFilter(t -> t % 3 == 0, 100, ints));
+        long[] longs = Arrays.stream(ints).asLongStream().toArray();
+        assertArrayEquals(ArrayUtil.filter(t -> t < 0, longs), ArrayUtil.parallelFilter(t -> t < 0, 100, longs));
+        assertEquals(ArrayUtil.count(t -> t > 0, target), ArrayUtil.parallelCount(t -> t > 0, 100, target));
+        assertEquals(ArrayUtil.count(t -> t > 0, ints), ArrayUtil.parallelCount(t -> t > 0, 100, ints));
+        assertEquals(ArrayUtil.count(t -> t > 0, longs), ArrayUtil.parallelCount(t -> t > 0, 100, longs));
+        assertTrue(ArrayUtil.parallelHas(t -> t == 499, 100, target));
+        assertFalse(ArrayUtil.parallelHas(t -> t == 500, 100, target));
+        assertArrayEquals(ArrayUtil.positive(ints), ArrayUtil.parallelFilter(t -> t >= 0, ints));
+
+        // 有副作用的条件：每个元素只调用一次
+        AtomicInteger calls = new AtomicInteger();
+        assertArrayEquals(ArrayUtil.filter(t -> t % 3 == 0, ints), ArrayUtil.parallelFilter(t -> calls.incrementAndGet() > 0 && t % 3 == 0, 100, ints));
+        assertEquals(ints.length, calls.get());
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        assertEquals(1000, ArrayUtil.parallelFilter(seen::add, 100, longs).length);
     }
 
 }
@@ -1,13 +1,25 @@
 package me.dalianmao.utils.collection;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.junit.Test;
 
+import me.dalianmao.util.collection.IntObjectMap;
 import me.dalianmao.util.collection.IterableUtil;
+import me.dalianmao.util.collection.LongObjectMap;
 
 /**
  * test for {@code IterableUtil}
@@ -40,4 +52,96 @@ public class IterableUtilTest {
         assertEquals("124", target.get(1));
     }
 
+    @Test
+    public void testFilterView() {
+        List<String> target = new ArrayList<>(Arrays.asList(null, "", "123", null, "", "124"));
+        Iterable<String> view = IterableUtil.filterNonEmptyView(target);
+        assertEquals(Arrays.asList("123", "124"), toList(view));
+        assertEquals(Arrays.asList("", "123", "", "124"), toList(IterableUtil.filterNonNullView(target)));
+
+        target.add("125");
+        assertEquals(Arrays.asList("123", "124", "125"), toList(view));
+        assertEquals(7, target.size());
+
+        Iterator<String> iterator = IterableUtil.filterView(target, t -> t.startsWith("9")).iterator();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testFilterViewExhausted() {
+        IterableUtil.filterNonNullView(Arrays.asList((String) null)).iterator().next();
+    }
+
+    @Test
+    public void testFilterNonNull() {
+        List<String> target = new LinkedList<>(Arrays.asList(null, "a", null));
+        assertTrue(IterableUtil.filterNonNull(target));
+        assertEquals(Arrays.asList("a"), target);
+        assertFalse(IterableUtil.filterNonNull(target));
+    }
+
+    private static <T> List<T> toList(Iterable<T> target) {
+        List<T> result = new ArrayList<>();
+        target.forEach(result::add);
+        return result;
+    }
+
+    @Test
+    public void testJoin() {
+        List<Integer> target = Arrays.asList(1, null, 2, 3, null);
+        assertEquals("1,2,3", IterableUtil.join(target, ','));
+        assertEquals("1, 2, 3", IterableUtil.join(target, ", "));
+        assertEquals("1|-|2|3|-", IterableUtil.joinWithDefault(target, '|', "-"));
+        assertEquals("", IterableUtil.join(Arrays.asList((Integer) null), ","));
+        assertEquals(",", IterableUtil.join(Arrays.asList("", ""), ","));
+        assertEquals("x", IterableUtil.join(new HashSet<>(Arrays.asList("x")), ","));
+    }
+
+    @Test
+    public void testJoinTo() throws IOException {
+        List<Integer> target = Arrays.asList(1, null, 2);
+        StringWriter writer = new StringWriter();
+        IterableUtil.joinTo(writer, target, ',').write("\r\n");
+        IterableUtil.joinWithDefaultTo(writer, target, ", ", "null");
+        assertEquals("1,2\r\n1, null, 2", writer.toString());
+
+        StringBuilder builder = new StringBuilder("in (");
+        assertEquals("in (0x1,0x2)", IterableUtil.joinTo(builder, target, ",", t -> "0x" + t).append(')').toString());
+    }
+
+    @Test
+    public void testToMap() {
+        List<String> target = Arrays.asList("a", "bb", null, "cc", "d");
+        Map<Integer, String> map = IterableUtil.toMap(target, String::length, t -> t);
+        assertEquals("d", map.get(1));
+        assertEquals("cc", map.get(2));
+
+        map = IterableUtil.toMap(target, String::length, t -> t, (o, n) -> o + n);
+        assertEquals("ad", map.get(1));
+        assertEquals("bbcc", map.get(2));
+
+        Map<Integer, String> nulls = IterableUtil.toMap(Arrays.asList("a", "b"), t -> 0, t -> null, (o, n) -> o == null ? "merged" : o);
+        assertEquals("merged", nulls.get(0));
+
+        LongObjectMap<String> byLength = IterableUtil.toLongMap(target, t -> t.length() * 10000000000L);
+        assertEquals(2, byLength.size());
+        assertEquals("cc", byLength.get(20000000000L));
+        IntObjectMap<Integer> lengths = IterableUtil.toIntMap(new HashSet<>(target), String::hashCode, String::length);
+        assertEquals(Integer.valueOf(2), lengths.get("bb".hashCode()));
+    }
+
+    @Test
+    public void testParallel() {
+        List<Integer> target = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            target.add(i % 13 == 0 ? null : i);
+        }
+        assertTrue(IterableUtil.parallelHas(target, t -> t == 4999, 64));
+        assertFalse(IterableUtil.parallelHas(target, t -> t == 13, 64));
+        Map<Integer, Integer> expected = IterableUtil.toMap(target, t -> t % 100, t -> t);
+        Map<Integer, Integer> actual = IterableUtil.parallelToMap(target, t -> t % 100, t -> t, 64);
+        assertEquals(expected, actual);
+        assertEquals(Integer.valueOf(4999), actual.get(99));
+    }
+
 }
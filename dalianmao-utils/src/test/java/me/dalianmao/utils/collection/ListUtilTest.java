@@ -0,0 +1,98 @@
+package me.dalianmao.utils.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import me.dalianmao.util.BizError;
+import me.dalianmao.util.bean.protocol.Response;
+import me.dalianmao.util.collection.ListUtil;
+
+/**
+ * test for {@code ListUtil}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class ListUtilTest {
+
+    @Test
+    public void testIndexOfDuplicate() {
+        assertEquals(3, ListUtil.indexOfDuplicate(Arrays.asList("a", null, "b", null)));
+        assertEquals(2, ListUtil.indexOfDuplicate(new LinkedList<>(Arrays.asList(1, 2, 1, 2))));
+        assertEquals(-1, ListUtil.indexOfDuplicate(Arrays.asList(1, 2, 3)));
+        assertEquals(-1, ListUtil.indexOfDuplicate(null));
+        assertTrue(ListUtil.hasDuplicate(Arrays.asList(1, 2, 1)));
+        assertFalse(ListUtil.hasDuplicate(new LinkedList<>(Arrays.asList(1, 2))));
+    }
+
+    @Test
+    public void testDuplicateError() {
+        Response response = new Response().checkDuplicate("names", Arrays.asList("a", "b")).checkDuplicate("ids",
+                new long[] { 5, 6, 7, 6, 5 });
+        assertEquals(1, response.errors.size());
+        assertEquals(BizError.DUPLICATE, response.errors.get(0).code);
+        assertEquals("ids[3] is duplicate", response.errors.get(0).message);
+        assertTrue(new Response().checkDuplicate("names", (List<String>) null).checkDuplicate("ids", (long[]) null).isOk());
+    }
+
+    @Test
+    public void testRemoveDuplicateGuaranteeOrder() {
+        assertEquals(Arrays.asList("b", null, "a", ""),
+                ListUtil.removeDuplicateGuaranteeOrder(Arrays.asList("b", null, "a", "b", "", null, "a")));
+        assertEquals(Arrays.asList(3, 1, 2), ListUtil.removeDuplicateGuaranteeOrder(new LinkedList<>(Arrays.asList(3, 1, 3, 2, 1))));
+        assertTrue(ListUtil.removeDuplicateGuaranteeOrder(null).isEmpty());
+    }
+
+    @Test
+    public void testParallelConvert() {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            source.add(i % 11 == 0 ? null : i % 300);
+        }
+        assertEquals(ListUtil.convert(source, String::valueOf), ListUtil.parallelConvert(source, String::valueOf, 64));
+        assertEquals(ListUtil.toSet(source, String::valueOf), ListUtil.parallelToSet(source, String::valueOf, 64));
+        assertEquals(ListUtil.convert(source, String::valueOf), ListUtil.parallelConvert(new LinkedList<>(source), String::valueOf, 64));
+        assertTrue(ListUtil.parallelConvert(null, String::valueOf).isEmpty());
+    }
+
+    @Test
+    public void testBatchConvert() {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            source.add(i % 10 == 0 ? null : i);
+        }
+        List<Integer> batchSizes = new ArrayList<>();
+        Function<List<Integer>, List<String>> converter = batch -> {
+            batchSizes.add(batch.size());
+            return ListUtil.convert(batch, String::valueOf);
+        };
+        List<String> expected = ListUtil.convert(source, String::valueOf);
+        assertEquals(expected, ListUtil.batchConvert(source, converter, 64));
+        assertEquals(16, batchSizes.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 64));
+
+        batchSizes.clear();
+        assertEquals(expected, ListUtil.batchConvert(new LinkedList<>(source), converter, 64));
+        assertEquals(15, batchSizes.size());
+        assertEquals(Integer.valueOf(64), batchSizes.get(0));
+
+        assertEquals(Arrays.asList("1"), ListUtil.batchConvert(Arrays.asList(null, 1, 2), batch -> Arrays.asList("1")));
+        assertTrue(ListUtil.batchConvert(Arrays.asList((Integer) null), converter, 1).isEmpty());
+        assertTrue(ListUtil.batchConvert(null, converter).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchConvertInvalidBatchSize() {
+        ListUtil.batchConvert(Arrays.asList(1), batch -> batch, 0);
+    }
+
+}
@@ -0,0 +1,100 @@
+package me.dalianmao.utils.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import me.dalianmao.util.collection.ArrayUtil;
+import me.dalianmao.util.collection.IntHashSet;
+import me.dalianmao.util.collection.ListUtil;
+import me.dalianmao.util.collection.LongHashSet;
+import me.dalianmao.util.collection.SetUtil;
+
+/**
+ * test for {@code LongHashSet} and {@code IntHashSet}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class LongHashSetTest {
+
+    @Test
+    public void testBasic() {
+        LongHashSet set = SetUtil.asLongSet(3L, 0L, -1L, 3L, Long.MIN_VALUE);
+        assertEquals(4, set.size());
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertFalse(set.contains(1L));
+        assertFalse(set.add(-1L));
+        assertTrue(set.remove(0L));
+        assertFalse(set.remove(0L));
+        assertFalse(set.contains(0L));
+        long[] elements = set.toArray();
+        Arrays.sort(elements);
+        assertArrayEquals(new long[] { Long.MIN_VALUE, -1L, 3L }, elements);
+        assertEquals(SetUtil.asLongSet(3L, -1L, Long.MIN_VALUE), set);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void testRandomAgainstHashSet() {
+        Random random = new Random(42);
+        LongHashSet set = SetUtil.newLongSet(4);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200000; i++) {
+            long element = (random.nextInt(4000) - 2000) * 0x100000000L;
+            if (random.nextInt(3) > 0) {
+                assertEquals(expected.add(element), set.add(element));
+            } else {
+                assertEquals(expected.remove(element), set.remove(element));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        Set<Long> actual = new HashSet<>();
+        for (PrimitiveIterator.OfLong iterator = set.iterator(); iterator.hasNext();) {
+            actual.add(iterator.nextLong());
+        }
+        assertEquals(expected, actual);
+        assertEquals(set.size(), set.toArray().length);
+    }
+
+    @Test
+    public void testIntHashSet() {
+        Random random = new Random(7);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200000; i++) {
+            int element = random.nextInt(3000) - 1500;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(element), set.add(element));
+            } else {
+                assertEquals(expected.remove(element), set.remove(element));
+            }
+        }
+        Set<Integer> actual = new HashSet<>();
+        set.forEach(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), set.hashCode());
+    }
+
+    @Test
+    public void testConvert() {
+        assertEquals(SetUtil.asIntSet(1, 2, 3), ArrayUtil.toIntSet(new int[] { 3, 2, 1, 2 }));
+        assertEquals(SetUtil.asLongSet(1L, 2L), ArrayUtil.toLongSet(new long[] { 1L, 2L, 2L }));
+        assertEquals(SetUtil.asLongSet(1L, 2L), ListUtil.toLongSet(Arrays.asList(1L, null, 2L, 1L)));
+        assertEquals(SetUtil.asIntSet(1, 2), ListUtil.toIntSet(Arrays.asList("a", "bb", null), String::length));
+        assertTrue(ListUtil.toLongSet(null).isEmpty());
+    }
+
+}
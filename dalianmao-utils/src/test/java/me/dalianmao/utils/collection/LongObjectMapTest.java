@@ -0,0 +1,92 @@
+package me.dalianmao.utils.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.dalianmao.util.collection.IntObjectMap;
+import me.dalianmao.util.collection.LongObjectMap;
+
+/**
+ * test for {@code LongObjectMap} and {@code IntObjectMap}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class LongObjectMapTest {
+
+    @Test
+    public void testBasic() {
+        LongObjectMap<String> map = new LongObjectMap<>(2);
+        assertTrue(map.isEmpty());
+        assertNull(map.put(0L, "zero"));
+        assertNull(map.put(Long.MIN_VALUE, null));
+        assertNull(map.put(1L << 32, "big"));
+        assertEquals("zero", map.put(0L, "0"));
+        assertEquals(3, map.size());
+        assertEquals("0", map.get(0L));
+        assertNull(map.get(Long.MIN_VALUE));
+        assertTrue(map.containsKey(Long.MIN_VALUE));
+        assertEquals("none", map.getOrDefault(1L, "none"));
+        assertNull(map.getOrDefault(Long.MIN_VALUE, "none"));
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(new long[] { Long.MIN_VALUE, 0L, 1L << 32 }, keys);
+        assertNull(map.remove(Long.MIN_VALUE));
+        assertFalse(map.containsKey(Long.MIN_VALUE));
+        assertEquals("big", map.remove(1L << 32));
+        assertEquals("{0=0}", map.toString());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0L));
+    }
+
+    @Test
+    public void testRandomAgainstHashMap() {
+        Random random = new Random(42);
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(5000) * 0x10000000L;
+            switch (random.nextInt(3)) {
+            case 0:
+                assertEquals(expected.put(key, i), map.put(key, i));
+                break;
+            case 1:
+                assertEquals(expected.remove(key), map.remove(key));
+                break;
+            default:
+                assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+
+    @Test
+    public void testIntObjectMap() {
+        Random random = new Random(7);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(3000) - 1500;
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+
+}
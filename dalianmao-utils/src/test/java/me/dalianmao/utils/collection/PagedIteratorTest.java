@@ -0,0 +1,67 @@
+package me.dalianmao.utils.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import me.dalianmao.util.collection.PagedIterator;
+
+/**
+ * test for {@code PagedIterator}，按id翻页
+ *
+ * @author xiezhenzong
+ *
+ */
+public class PagedIteratorTest {
+
+    private final List<Integer> table = IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList());
+    private final List<Integer> queries = new ArrayList<>(); // 每次查询的参数
+
+    @Test
+    public void testKeyset() {
+        PagedIterator<Integer> iterator = new PagedIterator<>(this::query, 10);
+        assertEquals(0, queries.size()); // 惰性的
+        List<Integer> all = new ArrayList<>();
+        iterator.forEachRemaining(all::add);
+        assertEquals(table, all);
+        // 第三页不满10条，不再查询
+        assertEquals(3, queries.size());
+        assertEquals(Integer.valueOf(0), queries.get(0));
+        assertEquals(Integer.valueOf(10), queries.get(1));
+        assertEquals(Integer.valueOf(20), queries.get(2));
+    }
+
+    @Test
+    public void testUntilEmptyPage() {
+        table.subList(20, 25).clear();
+        List<Integer> all = new ArrayList<>();
+        new PagedIterator<>(this::query).forEachRemaining(all::add);
+        assertEquals(20, all.size());
+        assertEquals(3, queries.size()); // 最后一次查询返回空页
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testEmpty() {
+        PagedIterator<Integer> iterator = new PagedIterator<>(last -> Collections.emptyList(), 10);
+        assertFalse(iterator.hasNext());
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    /**
+     * select id from t where id &gt; ? order by id limit 10
+     */
+    private List<Integer> query(Integer last) {
+        int from = last == null ? 0 : last;
+        queries.add(from);
+        return table.stream().filter(id -> id > from).limit(10).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,69 @@
+package me.dalianmao.utils.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import me.dalianmao.util.collection.Splitter;
+
+/**
+ * test for {@code Splitter}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class SplitterTest {
+
+    @Test
+    public void testSplitLikeStringSplit() {
+        String[] targets = { "1,2,3", "1,,2,,", ",1", ",,,", "abc", "a,b,", ",", "a,,b" };
+        for (String target : targets) {
+            assertEquals(target, Arrays.asList(target.split(",")), Splitter.COMMA.split(target));
+        }
+        assertEquals(Arrays.asList("a", "b", "", "c"), Splitter.on("||").split("a||b||||c||||"));
+        assertEquals(Arrays.asList("x", "a"), Splitter.on("aa").split("xaaa"));
+        assertEquals(Arrays.asList("a.b", "c"), Splitter.on("|").split("a.b|c"));
+        assertTrue(Splitter.COMMA.split(null).isEmpty());
+        assertTrue(Splitter.COMMA.split("").isEmpty());
+    }
+
+    @Test
+    public void testSplitToInts() {
+        assertArrayEquals(new int[] { 1, -22, 333, 0 }, Splitter.COMMA.splitToInts("1,-22,+333,0,,"));
+        assertArrayEquals(new int[] { Integer.MIN_VALUE, Integer.MAX_VALUE },
+                Splitter.on(", ").splitToInts(Integer.MIN_VALUE + ", " + Integer.MAX_VALUE));
+        assertArrayEquals(new int[0], Splitter.COMMA.splitToInts(""));
+    }
+
+    @Test
+    public void testSplitToLongs() {
+        assertArrayEquals(new long[] { Long.MIN_VALUE, 7L, Long.MAX_VALUE },
+                Splitter.SEMICOLON.splitToLongs(Long.MIN_VALUE + ";7;" + Long.MAX_VALUE));
+        assertArrayEquals(new long[] { 5000000000L }, Splitter.COMMA.splitToLongs("5000000000"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testSplitToIntsOverflow() {
+        Splitter.COMMA.splitToInts("1," + (Integer.MAX_VALUE + 1L));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testSplitToIntsEmptyField() {
+        Splitter.COMMA.splitToInts("1,,2");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testSplitToLongsInvalid() {
+        Splitter.COMMA.splitToLongs("1,-,2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptySeparator() {
+        Splitter.on("");
+    }
+
+}
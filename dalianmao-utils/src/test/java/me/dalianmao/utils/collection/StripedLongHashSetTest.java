@@ -0,0 +1,182 @@
+package me.dalianmao.utils.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import me.dalianmao.util.collection.ConcurrentSet;
+import me.dalianmao.util.collection.SetUtil;
+import me.dalianmao.util.collection.StripedLongHashSet;
+
+/**
+ * test for {@code StripedLongHashSet} and {@code ConcurrentSet}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class StripedLongHashSetTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void testBasic() {
+        StripedLongHashSet set = new StripedLongHashSet(4, StripedLongHashSet.UNBOUNDED, 4);
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertEquals(3, set.addAll(1L, 2L, 2L, 3L, 0L));
+        assertTrue(set.contains(3L));
+        assertEquals(2, set.removeAll(0L, 3L, 9L));
+        long[] elements = set.toArray();
+        Arrays.sort(elements);
+        assertArrayEquals(new long[] { 1L, 2L }, elements);
+        assertTrue(set.remove(1L));
+        assertEquals(1, set.size());
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testBounded() {
+        StripedLongHashSet set = SetUtil.newConcurrentLongSet(4, 3);
+        set.addAll(1L, 2L, 3L);
+        assertFalse(set.add(3L));
+        try {
+            set.add(4L);
+            fail("set should be full");
+        } catch (IllegalStateException e) {
+            assertEquals(3, set.size());
+        }
+        set.remove(1L);
+        assertTrue(set.add(4L));
+    }
+
+    @Test
+    public void testConcurrentAddRemove() throws Exception {
+        StripedLongHashSet set = new StripedLongHashSet();
+        int perThread = 20000;
+        runConcurrently(thread -> {
+            long[] batch = new long[100];
+            for (int i = 0; i < perThread; i++) {
+                long element = (long) thread * perThread + i;
+                if (i % 3 == 0) {
+                    batch[i % 100] = element;
+                } else {
+                    set.add(element);
+                }
+                set.add(i); // 所有线程都在争抢相同的元素
+                if (i % 100 == 99) {
+                    set.addAll(batch);
+                }
+            }
+            for (int i = 0; i < perThread; i += 2) {
+                set.remove((long) thread * perThread + i);
+            }
+            return null;
+        });
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int i = 1; i < perThread; i += 2) {
+                long element = (long) thread * perThread + i;
+                assertTrue(String.valueOf(element), set.contains(element)); // 奇数下标的元素没有被移除
+            }
+        }
+        assertEquals(set.toArray().length, set.size());
+    }
+
+    @Test
+    public void testConcurrentBound() throws Exception {
+        StripedLongHashSet set = SetUtil.newConcurrentLongSet(16, 1000);
+        ConcurrentSet<String> objects = SetUtil.newConcurrentSet(16, 1000);
+        AtomicInteger added = new AtomicInteger(), addedObjects = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < 500; i++) {
+                try {
+                    if (set.add((long) thread * 1000 + i)) {
+                        added.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // full
+                }
+                try {
+                    if (objects.add(thread + "-" + i)) {
+                        addedObjects.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // full
+                }
+            }
+            return null;
+        });
+        assertEquals(1000, added.get());
+        assertEquals(1000, set.size());
+        assertEquals(1000, addedObjects.get());
+        assertEquals(1000, objects.size());
+    }
+
+    @Test
+    public void testAddIfAbsent() throws Exception {
+        ConcurrentSet<String> set = new ConcurrentSet<>();
+        String first = new String("request-1");
+        assertNull(set.addIfAbsent(first));
+        assertSame(first, set.addIfAbsent(new String("request-1")));
+        List<String> winners = new ArrayList<>();
+        runConcurrently(thread -> {
+            String request = new String("request-2");
+            if (set.addIfAbsent(request) == null) {
+                synchronized (winners) {
+                    winners.add(request);
+                }
+            }
+            return null;
+        });
+        assertEquals(1, winners.size());
+        assertEquals(2, set.size());
+        set.removeIf(t -> t.endsWith("1"));
+        assertEquals(1, set.size());
+        assertFalse(set.contains("request-1"));
+    }
+
+    private static void runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    return task.run(thread);
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Task {
+
+        Void run(int thread) throws Exception;
+
+    }
+
+}
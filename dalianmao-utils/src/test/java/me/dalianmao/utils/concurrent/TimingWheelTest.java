@@ -0,0 +1,158 @@
+package me.dalianmao.utils.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import me.dalianmao.util.Status;
+import me.dalianmao.util.concurrent.Timeout;
+import me.dalianmao.util.concurrent.TimeoutStatusException;
+import me.dalianmao.util.concurrent.TimingWheel;
+
+/**
+ * test for {@code TimingWheel}，用手动推进的时钟，不启动驱动线程
+ *
+ * @author xiezhenzong
+ *
+ */
+public class TimingWheelTest {
+
+    private long now = 1000;
+    private final TimingWheel wheel = new TimingWheel(10, 8, () -> now);
+
+    @Test
+    public void testExpireInOrder() {
+        List<Integer> fired = new ArrayList<>();
+        wheel.schedule(() -> fired.add(25), 25, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> fired.add(10), 10, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> fired.add(0), 0, TimeUnit.MILLISECONDS);
+
+        advanceTo(1009);
+        assertEquals(0, fired.size()); // 不足一个tick，延迟为0的任务也在下一个tick执行
+        advanceTo(1010);
+        assertEquals(2, fired.size());
+        advanceTo(1029);
+        assertEquals(2, fired.size()); // 不会提前到期
+        assertEquals(1, advanceTo(1030));
+        assertEquals(25, (int) fired.get(2));
+    }
+
+    @Test
+    public void testCascade() {
+        // 8个槽位，每层的槽位覆盖的tick数分别是1、8、64、512...
+        long[] delays = { 79, 80, 81, 639, 640, 5119, 5121, 100000, 3600000 };
+        long[] fired = new long[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            int index = i;
+            wheel.schedule(() -> fired[index] = now, delays[i], TimeUnit.MILLISECONDS);
+        }
+        long start = now;
+        while (now < start + 3600010) {
+            advanceTo(now + 10);
+        }
+        for (int i = 0; i < delays.length; i++) {
+            long expected = start + (delays[i] + 9) / 10 * 10;
+            assertEquals("delay " + delays[i], expected, fired[i]);
+        }
+    }
+
+    @Test
+    public void testRandomDelaysWithJumps() {
+        Random random = new Random(1);
+        int count = 5000;
+        long[] deadlines = new long[count], fired = new long[count];
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            long delay = random.nextInt(200000);
+            deadlines[i] = now + delay;
+            wheel.schedule(() -> fired[index] = now, delay, TimeUnit.MILLISECONDS);
+            if (random.nextInt(10) == 0) {
+                advanceTo(now + random.nextInt(100)); // 推进时间，中途继续添加任务
+            }
+        }
+        while (now < 2000000) {
+            advanceTo(now + random.nextInt(5000)); // 一次跨过很多tick
+        }
+        for (int i = 0; i < count; i++) {
+            assertTrue(fired[i] >= deadlines[i]);
+        }
+    }
+
+    @Test
+    public void testCancel() {
+        int[] fired = new int[1];
+        Timeout timeout = wheel.schedule(() -> fired[0]++, 100, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        advanceTo(now + 200);
+        assertEquals(0, fired[0]);
+
+        timeout = wheel.schedule(() -> fired[0]++, 100, TimeUnit.MILLISECONDS);
+        advanceTo(now + 50); // 已经放入槽位之后再取消
+        assertTrue(timeout.cancel());
+        advanceTo(now + 1000);
+        assertEquals(0, fired[0]);
+
+        timeout = wheel.schedule(() -> fired[0]++, 10, TimeUnit.MILLISECONDS);
+        advanceTo(now + 10);
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(1, fired[0]);
+    }
+
+    @Test
+    public void testOrTimeout() throws InterruptedException {
+        CompletableFuture<String> slow = wheel.orTimeout(new CompletableFuture<>(), 50, TimeUnit.MILLISECONDS);
+        CompletableFuture<String> fast = wheel.orTimeout(new CompletableFuture<>(), 50, TimeUnit.MILLISECONDS);
+        fast.complete("ok");
+        advanceTo(now + 50);
+        assertEquals("ok", fast.join());
+        try {
+            slow.get();
+            fail("should time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutStatusException);
+            assertEquals(Status.TIMEOUT_ERROR, ((TimeoutStatusException) e.getCause()).getStatus());
+        }
+
+        CompletableFuture<Integer> fallback = wheel.completeOnTimeout(new CompletableFuture<>(), Status.TIMEOUT_ERROR,
+                20, TimeUnit.MILLISECONDS);
+        advanceTo(now + 20);
+        assertEquals(Status.TIMEOUT_ERROR, (int) fallback.join());
+    }
+
+    @Test
+    public void testDriverThread() throws InterruptedException {
+        try (TimingWheel realWheel = new TimingWheel(1, 64).start()) {
+            CountDownLatch latch = new CountDownLatch(100);
+            for (int i = 0; i < 100; i++) {
+                realWheel.schedule(latch::countDown, i % 30, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testScheduleAfterClose() {
+        wheel.close();
+        wheel.schedule(() -> {
+        }, 1, TimeUnit.SECONDS);
+    }
+
+    private int advanceTo(long millis) {
+        now = millis;
+        return wheel.advance();
+    }
+}
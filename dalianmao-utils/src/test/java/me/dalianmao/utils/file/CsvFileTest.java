@@ -0,0 +1,322 @@
+package me.dalianmao.utils.file;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import me.dalianmao.util.Pattern;
+import me.dalianmao.util.file.CsvFile;
+import me.dalianmao.util.file.CsvWriter;
+
+/**
+ * test for {@code CsvFile}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class CsvFileTest {
+
+    private static final List<String> HEADER = Arrays.asList("id", "昵称", "备注");
+
+    @Test
+    public void testWrite() throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] { "1", "大脸猫", "ok" });
+        rows.add(null); // 跳过null的行
+        rows.add(new String[] { "2", null, "null的列也跳过" });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvFile.write(output, HEADER, rows, Arrays::asList);
+        assertEquals("id,昵称,备注\r\n1,大脸猫,ok\r\n2,null的列也跳过\r\n", new String(output.toByteArray(),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSameAsGetBytes() throws IOException {
+        List<String[]> rows = randomRows(new Random(1), 2000);
+        for (String charset : new String[] { "UTF-8", "GBK", "UTF-16" }) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            CsvFile.write(output, charset, HEADER, rows, Arrays::asList);
+            assertArrayEquals(charset, join(rows).getBytes(Charset.forName(charset)), output.toByteArray());
+        }
+    }
+
+    @Test
+    public void testSmallBuffer() throws IOException {
+        // 缓冲区很小，每行都要编码、写出好几次，代理对也会被拆在两次编码之间
+        List<String[]> rows = randomRows(new Random(2), 500);
+        for (int bufferSize : new int[] { 16, 17, 31, 100 }) {
+            CountingOutputStream output = new CountingOutputStream();
+            try (CsvWriter writer = new CsvWriter(output, StandardCharsets.UTF_8, bufferSize)) {
+                writer.writeRow(HEADER);
+                for (String[] row : rows) {
+                    writer.writeRow(Arrays.asList(row));
+                }
+            }
+            assertTrue(output.closed);
+            assertTrue(output.maxWrite <= bufferSize);
+            assertArrayEquals(join(rows).getBytes(StandardCharsets.UTF_8), output.toByteArray());
+        }
+    }
+
+    @Test
+    public void testUnquotedRow() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(output)) {
+            writer.writeRow(Arrays.asList("1", "a,\"b\"", null, "c"));
+            writer.writeUnquotedRow(Arrays.asList("1", "a,\"b\"", null, "c")); // 调用方明确要求原样写出
+        }
+        assertEquals("1,\"a,\"\"b\"\"\",c\r\n1,a,\"b\",c\r\n", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReadBack() throws IOException {
+        // 包含分隔符、引号、换行的列写出去之后能原样读回来
+        List<String[]> rows = randomRows(new Random(8), 1000);
+        for (String[] row : rows) {
+            row[0] = row[0] + "\r\n" + row[0];
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvFile.write(output, HEADER, rows, Arrays::asList);
+        List<String[]> read = new ArrayList<>();
+        CsvFile.read(new ByteArrayInputStream(output.toByteArray()), "UTF-8", row -> read.add(row.getStrings()));
+        assertEquals(rows.size() + 1, read.size());
+        assertArrayEquals(HEADER.toArray(), read.get(0));
+        for (int i = 0; i < rows.size(); i++) {
+            assertArrayEquals("row " + i, rows.get(i), read.get(i + 1));
+        }
+    }
+
+    @Test
+    public void testUnmappable() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvFile.write(output, "GBK", HEADER, Arrays.asList("猫😀"), row -> Arrays.asList(row));
+        assertArrayEquals(("id,昵称,备注\r\n猫😀\r\n").getBytes("GBK"), output.toByteArray());
+    }
+
+    @Test
+    public void testIteratorAndStream() throws IOException {
+        List<String[]> rows = randomRows(new Random(3), 100);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvFile.write(output, HEADER, rows.iterator(), Arrays::asList);
+        assertArrayEquals(join(rows).getBytes(StandardCharsets.UTF_8), output.toByteArray());
+
+        boolean[] closed = { false };
+        output.reset();
+        CsvFile.write(output, "GBK", HEADER, rows.stream().onClose(() -> closed[0] = true), Arrays::asList);
+        assertArrayEquals(join(rows).getBytes("GBK"), output.toByteArray());
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    public void testPaged() throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 1; i <= 10000; i++) {
+            rows.add(new String[] { String.valueOf(i), "大脸猫" + i, "" });
+        }
+        int[] queries = { 0 };
+        int[] queriesAtFirstWrite = { -1 };
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                if (queriesAtFirstWrite[0] < 0) {
+                    queriesAtFirstWrite[0] = queries[0];
+                }
+                super.write(b, off, len);
+            }
+        };
+        CsvFile.writePaged(output, HEADER, (String[] last) -> {
+            queries[0]++;
+            int from = last == null ? 0 : Integer.parseInt(last[0]);
+            return rows.subList(from, Math.min(from + 100, rows.size()));
+        }, 100, Arrays::asList);
+        assertArrayEquals(join(rows).getBytes(StandardCharsets.UTF_8), output.toByteArray());
+        assertEquals(101, queries[0]); // 最后一次查询返回空页
+        assertTrue(queriesAtFirstWrite[0] < 10); // 边查边写，不是全部查完再写
+    }
+
+    @Test
+    public void testWriteRows() throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, "大脸猫", 1234L, LocalDate.of(2018, 3, 1) });
+        rows.add(null); // 跳过null的行
+        rows.add(new Object[] { -2L, "a,\"b\"\r\nc", -5L, null });
+        rows.add(new Object[] { Long.MIN_VALUE, null, Long.MIN_VALUE, LocalDate.of(-1, 12, 31) });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvFile.writeRows(output, "GBK", Arrays.asList("id", "昵称,备注", "金额", "日期"), rows.iterator(),
+                (Object[] row, CsvWriter writer) -> writer.field((long) row[0]).field((String) row[1])
+                        .field((long) row[2], 2).field((LocalDate) row[3]));
+        assertEquals("id,\"昵称,备注\",金额,日期\r\n" //
+                + "1,大脸猫,12.34,2018-03-01\r\n" //
+                + "-2,\"a,\"\"b\"\"\r\nc\",-0.05,\r\n" //
+                + "-9223372036854775808,,-92233720368547758.08,-1-12-31\r\n", new String(output.toByteArray(), "GBK"));
+    }
+
+    @Test
+    public void testQuote() throws IOException {
+        // 和先扫描一遍再决定是否加引号的结果一样，缓冲区很小时走逐个字符写的分支
+        List<String[]> rows = randomRows(new Random(4), 500);
+        String[] words = { "\"", "\r\n", "\n", "a,b", "\"\"" };
+        Random random = new Random(5);
+        for (String[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (random.nextInt(3) == 0) {
+                    row[i] = row[i] + words[random.nextInt(words.length)] + row[i];
+                }
+            }
+        }
+        StringBuilder expected = new StringBuilder();
+        for (String[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    expected.append(',');
+                }
+                expected.append(escape(row[i]));
+            }
+            expected.append("\r\n");
+        }
+        for (int bufferSize : new int[] { 16, 33, 100, CsvWriter.DEFAULT_BUFFER_SIZE }) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (CsvWriter writer = new CsvWriter(output, StandardCharsets.UTF_8, bufferSize)) {
+                for (String[] row : rows) {
+                    writer.writeRecord(Arrays.asList(row));
+                }
+            }
+            assertEquals(expected.toString(), new String(output.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        Random random = new Random(6);
+        long[] values = new long[2000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong() >> random.nextInt(64);
+        }
+        values[0] = Long.MIN_VALUE;
+        values[1] = Long.MAX_VALUE;
+        values[2] = 0;
+        StringBuilder expected = new StringBuilder();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(output, StandardCharsets.UTF_8, 16)) {
+            for (long value : values) {
+                int scale = random.nextInt(CsvWriter.MAX_SCALE + 1);
+                writer.field(value).field((int) value).field(value, scale).field(BigDecimal.valueOf(value, scale))
+                        .endRow();
+                String decimal = BigDecimal.valueOf(value, scale).toPlainString();
+                expected.append(value).append(',').append((int) value).append(',').append(decimal).append(',')
+                        .append(decimal).append("\r\n");
+            }
+        }
+        assertEquals(expected.toString(), new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDates() throws IOException {
+        DateTimeFormatter date = DateTimeFormatter.ofPattern(Pattern.DATE);
+        DateTimeFormatter dateTime = DateTimeFormatter.ofPattern(Pattern.DATE_TIME);
+        Random random = new Random(7);
+        for (String zoneId : new String[] { "Asia/Shanghai", "America/New_York", "UTC" }) {
+            ZoneId zone = ZoneId.of(zoneId);
+            StringBuilder expected = new StringBuilder();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (CsvWriter writer = new CsvWriter(output, StandardCharsets.UTF_8, 64, zone)) {
+                long millis = -5000L * 24 * 3600 * 1000; // 1956年，时区变化前后都有
+                for (int i = 0; i < 3000; i++) {
+                    millis += random.nextInt(i % 2 == 0 ? 1000 : 40 * 24 * 3600) * 1000L + random.nextInt(1000);
+                    LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+                    writer.date(millis).dateTime(millis).field(new Date(millis)).field(local)
+                            .field(local.toLocalDate()).endRow();
+                    String text = local.format(dateTime);
+                    expected.append(local.format(date)).append(',').append(text).append(',').append(text)
+                            .append(',').append(text).append(',').append(local.format(date)).append("\r\n");
+                }
+            }
+            assertEquals(zoneId, expected.toString(), new String(output.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalScale() throws IOException {
+        new CsvWriter(new ByteArrayOutputStream()).field(1, CsvWriter.MAX_SCALE + 1);
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteAfterClose() throws IOException {
+        CsvWriter writer = new CsvWriter(new ByteArrayOutputStream());
+        writer.close();
+        writer.writeRow(HEADER);
+    }
+
+    private static List<String[]> randomRows(Random random, int count) {
+        String[] words = { "大脸猫", "cat", "😀", "a,b", "", "\"", "𠮷野家", "1234567890" };
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String[] row = new String[1 + random.nextInt(5)];
+            for (int j = 0; j < row.length; j++) {
+                StringBuilder builder = new StringBuilder();
+                for (int k = random.nextInt(4); k >= 0; k--) {
+                    builder.append(words[random.nextInt(words.length)]);
+                }
+                row[j] = builder.toString();
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * 原来的实现：整个文件拼成一个字符串，各列按RFC 4180加引号
+     */
+    private static String join(List<String[]> rows) {
+        StringBuilder builder = new StringBuilder(String.join(",", HEADER)).append("\r\n");
+        for (String[] row : rows) {
+            builder.append(Arrays.stream(row).map(CsvFileTest::escape).collect(Collectors.joining(","))).append("\r\n");
+        }
+        return builder.toString();
+    }
+
+    private static String escape(String column) {
+        if (column.contains(",") || column.contains("\"") || column.contains("\r") || column.contains("\n")) {
+            return '"' + column.replace("\"", "\"\"") + '"';
+        }
+        return column;
+    }
+
+    private static class CountingOutputStream extends ByteArrayOutputStream {
+
+        private int maxWrite;
+        private boolean closed;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            maxWrite = Math.max(maxWrite, len);
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package me.dalianmao.utils.file;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import me.dalianmao.util.file.CsvFile;
+import me.dalianmao.util.file.CsvReader;
+import me.dalianmao.util.file.CsvWriter;
+import me.dalianmao.util.file.RowHandler;
+
+/**
+ * test for {@code CsvReader}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class CsvReaderTest {
+
+    private final Path file = createFile();
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void testQuoted() throws IOException {
+        String csv = "id,备注\r\n1,\"a,\"\"b\"\"\r\nc\"\r\n\r\n2,\"\"\n3,\r\"\",\n\"x\"y,\"z\"";
+        List<String[]> rows = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        long count = CsvFile.read(new ByteArrayInputStream(csv.getBytes("GBK")), "GBK", row -> {
+            rows.add(row.getStrings());
+            offsets.add(row.getOffset());
+        });
+        assertEquals(6, count);
+        assertArrayEquals(new String[] { "id", "备注" }, rows.get(0));
+        assertArrayEquals(new String[] { "1", "a,\"b\"\r\nc" }, rows.get(1));
+        assertArrayEquals(new String[] { "2", "" }, rows.get(2)); // 空行跳过
+        assertArrayEquals(new String[] { "3", "" }, rows.get(3));
+        assertArrayEquals(new String[] { "", "" }, rows.get(4));
+        assertArrayEquals(new String[] { "xy", "z" }, rows.get(5)); // 结束引号之后的内容、最后没有换行
+        assertEquals(Arrays.asList(0L, 9L, 27L, 32L, 35L, 39L), offsets);
+    }
+
+    @Test
+    public void testSameAsWriter() throws IOException {
+        List<String[]> rows = randomRows(new Random(1), 3000);
+        byte[] bytes = write(rows);
+        Files.write(file, bytes);
+        assertRows(rows, readAll(handler -> new CsvReader().read(file, handler)));
+        // 缓冲区很小，列、引号、回车换行都会被拆在两次读之间
+        for (int bufferSize : new int[] { 1, 2, 3, 7, 100 }) {
+            CsvReader reader = new CsvReader(StandardCharsets.UTF_8, bufferSize);
+            assertRows(rows, readAll(handler -> reader.read(new ByteArrayInputStream(bytes), handler)));
+        }
+    }
+
+    @Test
+    public void testSplit() throws IOException {
+        // 每行都有带换行的引号列，随便从哪里切开都很可能落在引号中
+        List<String[]> rows = randomRows(new Random(2), 20000);
+        Files.write(file, write(rows));
+        CsvReader reader = new CsvReader();
+        long[] boundaries = reader.split(file, 8);
+        assertEquals(9, boundaries.length);
+        assertEquals(0, boundaries[0]);
+        assertEquals(Files.size(file), boundaries[8]);
+        List<String[]> parts = new ArrayList<>();
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            long from = boundaries[i];
+            long to = boundaries[i + 1];
+            assertTrue(from < to);
+            parts.addAll(readAll(handler -> reader.read(file, from, to, handler)));
+        }
+        assertRows(rows, parts);
+
+        assertArrayEquals(new long[] { 0, Files.size(file) }, reader.split(file, 1));
+        Files.write(file, "a,b\r\n".getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(new long[] { 0, 5 }, reader.split(file, 8)); // 太小，不分段
+    }
+
+    @Test
+    public void testReadParallel() throws IOException {
+        List<String[]> rows = randomRows(new Random(3), 20000);
+        Files.write(file, write(rows));
+        List<List<String[]>> parts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            parts.add(new ArrayList<>());
+        }
+        long count = CsvFile.readParallel(file, "UTF-8", 4, i -> row -> parts.get(i).add(row.getStrings()));
+        assertEquals(rows.size(), count);
+        List<String[]> all = new ArrayList<>();
+        parts.forEach(all::addAll);
+        assertRows(rows, all);
+        assertTrue(parts.get(3).size() > 0);
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Random random = new Random(4);
+        long[] values = new long[1000];
+        int[] scales = new int[values.length];
+        try (CsvWriter writer = new CsvWriter(output)) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i < 2 ? (i == 0 ? Long.MIN_VALUE : Long.MAX_VALUE) : random.nextLong() >> random.nextInt(64);
+                scales[i] = random.nextInt(CsvWriter.MAX_SCALE + 1);
+                writer.field(values[i]).field((int) values[i]).field(values[i], scales[i]).endRow();
+            }
+        }
+        int[] index = { 0 };
+        new CsvReader().read(new ByteArrayInputStream(output.toByteArray()), row -> {
+            int i = index[0]++;
+            assertEquals(values[i], row.getLong(0));
+            assertEquals((int) values[i], row.getInt(1));
+            assertEquals(values[i], row.getDecimal(2, scales[i]));
+            assertEquals(BigDecimal.valueOf(values[i], scales[i]), row.getBigDecimal(2));
+        });
+        assertEquals(values.length, index[0]);
+
+        CsvFile.read(new ByteArrayInputStream("12.3,+7,-0.50,1.234,99999999999999999999,2147483648,,abc"
+                .getBytes(StandardCharsets.UTF_8)), "UTF-8", row -> {
+                    assertEquals(1230, row.getDecimal(0, 2));
+                    assertEquals(7, row.getLong(1));
+                    assertEquals(-5, row.getDecimal(2, 1)); // 多出来的0可以去掉
+                    assertNumberFormat(() -> row.getDecimal(3, 2)); // 多出来的不是0
+                    assertNumberFormat(() -> row.getLong(4));
+                    assertNumberFormat(() -> row.getInt(5));
+                    assertNumberFormat(() -> row.getLong(6));
+                    assertNumberFormat(() -> row.getDecimal(7, 0));
+                    assertNull(row.getBigDecimal(6));
+                    assertTrue(row.isEmpty(6));
+                    assertEquals(3, row.getByteLength(7));
+                });
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnclosedQuote() throws IOException {
+        CsvFile.read(new ByteArrayInputStream("1,\"abc\r\n".getBytes(StandardCharsets.UTF_8)), "UTF-8", row -> {
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotAsciiCompatible() {
+        new CsvReader(StandardCharsets.UTF_16);
+    }
+
+    private static void assertNumberFormat(Runnable runnable) {
+        try {
+            runnable.run();
+            fail("expected NumberFormatException");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
+    private static List<String[]> readAll(Reading reading) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        reading.read(row -> rows.add(row.getStrings()));
+        return rows;
+    }
+
+    private static void assertRows(List<String[]> expected, List<String[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals("row " + i, expected.get(i), actual.get(i));
+        }
+    }
+
+    private static byte[] write(List<String[]> rows) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(output, Charset.forName("UTF-8"))) {
+            for (String[] row : rows) {
+                writer.writeRecord(Arrays.asList(row));
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static List<String[]> randomRows(Random random, int count) {
+        String[] words = { "大脸猫", "cat", "😀", "a,b", "", "\"", "\r\n", "\n", "1234567890" };
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String[] row = new String[1 + random.nextInt(5)];
+            for (int j = 0; j < row.length; j++) {
+                StringBuilder builder = new StringBuilder();
+                for (int k = random.nextInt(4); k >= 0; k--) {
+                    builder.append(words[random.nextInt(words.length)]);
+                }
+                row[j] = builder.toString();
+            }
+            if (row.length == 1 && row[0].isEmpty()) {
+                row[0] = "cat"; // 只有一个空列的行写出来是空行，读的时候会跳过
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Path createFile() {
+        try {
+            return Files.createTempFile("csv-reader-test", ".csv");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 用给定的{@code RowHandler}读一遍
+     */
+    @FunctionalInterface
+    private interface Reading {
+
+        void read(RowHandler handler) throws IOException;
+
+    }
+}
@@ -0,0 +1,109 @@
+package me.dalianmao.utils.heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import me.dalianmao.util.heap.IndexedMinHeap;
+
+/**
+ * test for {@code IndexedMinHeap}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class IndexedMinHeapTest {
+
+    @Test
+    public void testBasic() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.add(0, 50);
+        heap.add(1, 30);
+        heap.add(7, 40); // 超过容量，自动扩容
+        assertEquals(1, heap.topHandle());
+        assertEquals(30, heap.topKey());
+
+        heap.decreaseKey(0, 10);
+        assertEquals(0, heap.topHandle());
+        heap.increaseKey(0, 100);
+        assertEquals(1, heap.topHandle());
+        heap.changeKey(7, 20);
+        assertEquals(7, heap.topHandle());
+
+        assertTrue(heap.remove(7));
+        assertFalse(heap.remove(7));
+        assertFalse(heap.contains(7));
+        assertEquals(1, heap.pop());
+        assertEquals(0, heap.pop());
+        assertTrue(heap.isEmpty());
+
+        heap.add(7, 1); // 删除之后可以重新加入
+        assertEquals(1, heap.keyOf(7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateHandle() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        heap.add(3, 1);
+        heap.add(3, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreaseToGreater() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        heap.add(3, 1);
+        heap.decreaseKey(3, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAbsentHandle() {
+        new IndexedMinHeap().changeKey(0, 1);
+    }
+
+    /**
+     * 随机操作，和{@code TreeSet}模拟的结果对比
+     */
+    @Test
+    public void testRandomOperations() {
+        for (int arity = 2; arity <= 5; arity++) {
+            Random random = new Random(arity);
+            int handles = 200;
+            IndexedMinHeap heap = new IndexedMinHeap(16, arity);
+            long[] keys = new long[handles];
+            TreeSet<Long> model = new TreeSet<>(); // key * handles + handle，保证唯一
+            for (int i = 0; i < 20000; i++) {
+                int handle = random.nextInt(handles);
+                long key = random.nextInt(1000);
+                if (heap.contains(handle)) {
+                    model.remove(keys[handle] * handles + handle);
+                    if (random.nextInt(4) == 0) {
+                        assertTrue(heap.remove(handle));
+                        continue;
+                    }
+                    heap.changeKey(handle, key);
+                } else {
+                    heap.add(handle, key);
+                }
+                keys[handle] = key;
+                model.add(key * handles + handle);
+                assertEquals(model.size(), heap.size());
+                assertEquals(model.first() / handles, heap.topKey());
+                if (random.nextInt(10) == 0) {
+                    long first = model.pollFirst();
+                    assertEquals(first / handles, heap.topKey());
+                    int popped = heap.pop();
+                    assertEquals(first / handles, keys[popped]);
+                    if (popped != (int) (first % handles)) { // 优先级相同时弹出的句柄可能不同
+                        model.remove(keys[popped] * handles + popped);
+                        model.add(first);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package me.dalianmao.utils.heap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import me.dalianmao.util.heap.LongMergeIterator;
+import me.dalianmao.util.heap.MergeIterator;
+
+/**
+ * test for {@code MergeIterator}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class MergeIteratorTest {
+
+    @Test
+    public void testMerge() {
+        List<List<Integer>> sources = Arrays.asList(Arrays.asList(1, 4, 7), Collections.<Integer> emptyList(),
+                Arrays.asList(2, 5, 8, 9), Arrays.asList(3, 6));
+        MergeIterator<Integer> iterator = MergeIterator.of(sources, Comparator.naturalOrder(), false);
+        List<Integer> merged = new ArrayList<>();
+        while (iterator.hasNext()) {
+            merged.add(iterator.next());
+        }
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), merged);
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testEmpty() {
+        MergeIterator<Integer> iterator = new MergeIterator<>(Collections.<Iterator<Integer>> emptyList(),
+                Comparator.naturalOrder());
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    @Test
+    public void testStable() {
+        // 按长度比较，长度相同时按来源的顺序输出
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        List<List<String>> sources = Arrays.asList(Arrays.asList("b", "bb"), Arrays.asList("a", "aa", "aaa"),
+                Arrays.asList("c", "ccc"));
+        List<String> merged = MergeIterator.of(sources, byLength, false).stream().collect(Collectors.toList());
+        assertEquals(Arrays.asList("b", "a", "c", "bb", "aa", "aaa", "ccc"), merged);
+
+        List<String> distinct = MergeIterator.of(sources, byLength, true).stream().collect(Collectors.toList());
+        assertEquals(Arrays.asList("b", "bb", "aaa"), distinct);
+    }
+
+    @Test
+    public void testDistinct() {
+        List<List<Integer>> sources = Arrays.asList(Arrays.asList(1, 1, 3, 5), Arrays.asList(1, 3, 3, 6),
+                Arrays.asList(5, 6, 6));
+        List<Integer> merged = MergeIterator.of(sources, Comparator.naturalOrder(), true).stream()
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 3, 5, 6), merged);
+    }
+
+    @Test
+    public void testReverseOrder() {
+        List<List<Integer>> sources = Arrays.asList(Arrays.asList(9, 5, 1), Arrays.asList(8, 5, 2));
+        List<Integer> merged = MergeIterator.of(sources, Comparator.<Integer> reverseOrder(), false).stream()
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(9, 8, 5, 5, 2, 1), merged);
+    }
+
+    @Test
+    public void testSpliterator() {
+        Comparator<Integer> comparator = Comparator.reverseOrder();
+        MergeIterator<Integer> iterator = MergeIterator.of(Arrays.asList(Arrays.asList(2, 1)), comparator, true);
+        Spliterator<Integer> spliterator = iterator.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+        assertSame(comparator, spliterator.getComparator());
+        assertEquals(Arrays.asList(2, 1), iterator.stream().sorted(comparator).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(1);
+        for (int round = 0; round < 50; round++) {
+            int k = 1 + random.nextInt(20);
+            List<List<Integer>> sources = new ArrayList<>();
+            List<Integer> all = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                List<Integer> source = new ArrayList<>();
+                for (int j = random.nextInt(100); j > 0; j--) {
+                    source.add(random.nextInt(200));
+                }
+                Collections.sort(source);
+                sources.add(source);
+                all.addAll(source);
+            }
+            Collections.sort(all);
+            assertEquals(all, MergeIterator.of(sources, Comparator.naturalOrder(), false).stream()
+                    .collect(Collectors.toList()));
+            assertEquals(all.stream().distinct().collect(Collectors.toList()),
+                    MergeIterator.of(sources, Comparator.naturalOrder(), true).stream().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testLong() {
+        long[] merged = LongMergeIterator.of(false, new long[] { Long.MIN_VALUE, 0, 10 }, new long[0],
+                new long[] { -5, 0, Long.MAX_VALUE }).stream().toArray();
+        assertArrayEquals(new long[] { Long.MIN_VALUE, -5, 0, 0, 10, Long.MAX_VALUE }, merged);
+
+        long[] distinct = LongMergeIterator.of(true, new long[] { 1, 1, 2 }, new long[] { 1, 2, 3 }).stream()
+                .toArray();
+        assertArrayEquals(new long[] { 1, 2, 3 }, distinct);
+    }
+
+    @Test
+    public void testLongRandom() {
+        Random random = new Random(2);
+        for (int round = 0; round < 50; round++) {
+            int k = 1 + random.nextInt(20);
+            List<PrimitiveIterator.OfLong> sources = new ArrayList<>();
+            List<long[]> arrays = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                long[] array = random.longs(random.nextInt(100), -100, 100).sorted().toArray();
+                arrays.add(array);
+                sources.add(LongStream.of(array).iterator());
+            }
+            long[] all = arrays.stream().flatMapToLong(LongStream::of).sorted().toArray();
+            LongMergeIterator iterator = new LongMergeIterator(sources);
+            long[] merged = new long[all.length];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = iterator.nextLong();
+            }
+            assertFalse(iterator.hasNext());
+            assertArrayEquals(all, merged);
+
+            long[][] copies = arrays.toArray(new long[0][]);
+            assertArrayEquals(LongStream.of(all).distinct().toArray(),
+                    LongMergeIterator.of(true, copies).stream().toArray());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package me.dalianmao.utils.heap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.dalianmao.util.heap.IntMinHeap;
+import me.dalianmao.util.heap.LongMinHeap;
+import me.dalianmao.util.heap.ObjectMinHeap;
+
+/**
+ * test for {@code IntMinHeap}, {@code LongMinHeap} and {@code ObjectMinHeap}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class MinHeapTest {
+
+    @Test
+    public void testIntHeap() {
+        for (int arity = 2; arity <= 8; arity++) {
+            Random random = new Random(arity);
+            int[] values = random.ints(1000, -500, 500).toArray();
+            IntMinHeap heap = new IntMinHeap(1, arity); // 从1开始，覆盖扩容
+            for (int value : values) {
+                heap.add(value);
+            }
+            assertEquals(values.length, heap.size());
+            int[] expected = values.clone();
+            Arrays.sort(expected);
+            assertArrayEquals(expected, heap.toSortedArray());
+            for (int value : expected) {
+                assertEquals(value, heap.pop());
+            }
+            assertTrue(heap.isEmpty());
+
+            heap = new IntMinHeap(values, arity); // O(n)建堆
+            for (int value : expected) {
+                assertEquals(value, heap.pop());
+            }
+        }
+    }
+
+    @Test
+    public void testAddAllAndReplaceTop() {
+        IntMinHeap heap = IntMinHeap.of(5, 3, 9);
+        heap.addAll(8, 1, 7, 2, 6); // 比已有的多，重新建堆
+        heap.addAll(4); // 逐个上浮
+        assertEquals(9, heap.size());
+        assertEquals(1, heap.replaceTop(10));
+        assertEquals(2, heap.top());
+        assertArrayEquals(new int[] { 2, 3, 4, 5, 6, 7, 8, 9, 10 }, heap.toSortedArray());
+
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.add(42);
+        assertEquals(42, heap.replaceTop(1));
+        assertEquals(1, heap.pop());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPopEmpty() {
+        new IntMinHeap().pop();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalArity() {
+        new LongMinHeap(16, 1);
+    }
+
+    @Test
+    public void testLongHeap() {
+        long[] values = new Random(7).longs(500).toArray();
+        LongMinHeap heap = new LongMinHeap(values, 2);
+        heap.addAll(Long.MIN_VALUE, Long.MAX_VALUE);
+        long[] expected = Arrays.copyOf(values, values.length + 2);
+        expected[values.length] = Long.MIN_VALUE;
+        expected[values.length + 1] = Long.MAX_VALUE;
+        Arrays.sort(expected);
+        for (long value : expected) {
+            assertEquals(value, heap.pop());
+        }
+    }
+
+    @Test
+    public void testObjectHeap() {
+        List<String> values = Arrays.asList("pear", "apple", "fig", "banana", "kiwi", "cherry");
+        ObjectMinHeap<String> heap = new ObjectMinHeap<>();
+        heap.addAll(values);
+        assertEquals("apple", heap.pop());
+        assertEquals("banana", heap.replaceTop("zucchini"));
+        assertArrayEquals(new String[] { "cherry", "fig", "kiwi", "pear", "zucchini" }, heap.toSortedArray(new String[0]));
+
+        // 大根堆
+        heap = new ObjectMinHeap<>(Comparator.comparing(String::length).reversed(), values, 3);
+        assertEquals(6, heap.pop().length());
+        assertEquals(6, heap.pop().length());
+        assertEquals(5, heap.pop().length());
+        assertEquals(3, heap.size());
+    }
+
+    @Test
+    public void testObjectHeapAddAllNull() {
+        ObjectMinHeap<String> heap = new ObjectMinHeap<>();
+        heap.addAll(Arrays.asList("fig", "apple"));
+        for (List<String> values : Arrays.asList(Arrays.asList("kiwi", null), Arrays.asList("pear", "banana", null))) {
+            try {
+                heap.addAll(values); // 逐个上浮、重新建堆两种情况
+                fail("expected NullPointerException");
+            } catch (NullPointerException e) {
+                // expected
+            }
+            assertEquals(2, heap.size());
+        }
+        heap.addAll(Arrays.asList("cherry"));
+        assertEquals("apple", heap.pop());
+        assertEquals("cherry", heap.pop());
+        assertEquals("fig", heap.pop());
+        assertTrue(heap.isEmpty());
+    }
+
+}
@@ -0,0 +1,103 @@
+package me.dalianmao.utils.heap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import me.dalianmao.util.heap.IntTopK;
+import me.dalianmao.util.heap.LongTopK;
+import me.dalianmao.util.heap.ObjectTopK;
+import me.dalianmao.util.heap.TopKUtil;
+
+/**
+ * test for {@code TopKUtil}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class TopKUtilTest {
+
+    @Test
+    public void testInts() {
+        int[] values = new Random(1).ints(10000).toArray();
+        values[0] = Integer.MIN_VALUE;
+        values[1] = Integer.MAX_VALUE;
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        int[] largest = TopKUtil.largest(values, 100);
+        assertEquals(100, largest.length);
+        for (int i = 0; i < largest.length; i++) {
+            assertEquals(sorted[sorted.length - 1 - i], largest[i]);
+        }
+        assertArrayEquals(Arrays.copyOf(sorted, 100), TopKUtil.smallest(values, 100));
+
+        // k比元素多、k为0
+        assertArrayEquals(new int[] { 3, 2, 1 }, TopKUtil.largest(new int[] { 1, 3, 2 }, 10));
+        assertEquals(0, TopKUtil.largest(values, 0).length);
+    }
+
+    @Test
+    public void testParallelStream() {
+        int[] values = new Random(2).ints(100000, 0, 1000).toArray();
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(Arrays.copyOf(sorted, 50), TopKUtil.smallest(IntStream.of(values).parallel(), 50));
+
+        long[] longs = new Random(3).longs(100000).toArray();
+        long[] sortedLongs = longs.clone();
+        Arrays.sort(sortedLongs);
+        long[] largest = TopKUtil.largest(Arrays.stream(longs).parallel(), 10);
+        for (int i = 0; i < largest.length; i++) {
+            assertEquals(sortedLongs[sortedLongs.length - 1 - i], largest[i]);
+        }
+    }
+
+    @Test
+    public void testCollector() {
+        List<String> words = Arrays.asList("pear", "apple", null, "fig", "banana", "kiwi", "cherry", "date");
+        Comparator<String> byLength = Comparator.comparing(String::length);
+        List<String> longest = words.stream().collect(TopKUtil.toLargest(2, byLength));
+        assertEquals(2, longest.size());
+        assertTrue(longest.containsAll(Arrays.asList("banana", "cherry")));
+        assertEquals(Arrays.asList("fig"), words.stream().collect(TopKUtil.toSmallest(1, byLength)));
+
+        List<Integer> numbers = IntStream.range(0, 100000).boxed().collect(Collectors.toList());
+        assertEquals(Arrays.asList(99999, 99998, 99997),
+                numbers.parallelStream().collect(TopKUtil.toLargest(3, Comparator.<Integer> naturalOrder())));
+        assertEquals(Arrays.asList(0, 1, 2), TopKUtil.smallest(numbers, 3, Comparator.naturalOrder()));
+    }
+
+    @Test
+    public void testMerge() {
+        ObjectTopK<Integer> left = ObjectTopK.largest(3, Comparator.naturalOrder());
+        ObjectTopK<Integer> right = ObjectTopK.largest(3, Comparator.naturalOrder());
+        Arrays.asList(1, 9, 4, 7).forEach(left);
+        Arrays.asList(8, 2, 6).forEach(right);
+        assertEquals(Arrays.asList(9, 8, 7), left.merge(right).toList());
+
+        IntTopK ints = IntTopK.smallest(2).acceptAll(5, 3).merge(IntTopK.smallest(2).acceptAll(4, 1));
+        assertArrayEquals(new int[] { 1, 3 }, ints.toArray());
+        LongTopK longs = LongTopK.largest(2).acceptAll(5L, Long.MAX_VALUE).merge(LongTopK.largest(2).acceptAll(6L));
+        assertArrayEquals(new long[] { Long.MAX_VALUE, 6L }, longs.toArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeMismatch() {
+        IntTopK.largest(1).merge(IntTopK.smallest(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeK() {
+        TopKUtil.toLargest(-1, Comparator.<Integer> naturalOrder());
+    }
+}
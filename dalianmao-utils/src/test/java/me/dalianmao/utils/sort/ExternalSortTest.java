@@ -0,0 +1,149 @@
+package me.dalianmao.utils.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import me.dalianmao.util.sort.ExternalSort;
+import me.dalianmao.util.sort.ExternalSort.SortedIterator;
+import me.dalianmao.util.sort.RecordCodec;
+
+/**
+ * test for {@code ExternalSort}，输入都是内存预算的好几倍
+ *
+ * @author xiezhenzong
+ *
+ */
+public class ExternalSortTest {
+
+    private static final long BUDGET = 64 << 10;
+
+    private final Path directory = createDirectory();
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testLongs() throws IOException {
+        // 每条24字节，64KB大约2700条一个run，70多个run，超过一趟能归并的15个
+        long[] values = new Random(1).longs(200000).toArray();
+        ExternalSort<Long> sorter = new ExternalSort<>(RecordCodec.LONG, Comparator.naturalOrder(), BUDGET,
+                ExternalSort.DEFAULT_RUN_SIZE, directory);
+        long[] sorted = new long[values.length];
+        int size = 0;
+        try (SortedIterator<Long> iterator = sorter.sort(boxed(values))) {
+            assertTrue(countFiles() > 0);
+            while (iterator.hasNext()) {
+                sorted[size++] = iterator.next();
+            }
+        }
+        assertEquals(values.length, size);
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, sorted);
+        assertEquals(0, countFiles()); // 迭代完删除了临时文件
+    }
+
+    @Test
+    public void testStrings() throws IOException {
+        Random random = new Random(2);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = random.nextInt(20); j >= 0; j--) {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+            values.add(i % 100 == 0 ? builder + "大脸猫" : builder.toString());
+        }
+        ExternalSort<String> sorter = new ExternalSort<>(RecordCodec.STRING, Comparator.reverseOrder(), BUDGET, 1000,
+                directory);
+        List<String> sorted = new ArrayList<>();
+        sorter.sort(values.iterator()).forEachRemaining(sorted::add);
+        values.sort(Comparator.reverseOrder());
+        assertEquals(values, sorted);
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void testInMemory() throws IOException {
+        ExternalSort<Long> sorter = new ExternalSort<>(RecordCodec.LONG, Comparator.naturalOrder(), BUDGET, 100,
+                directory);
+        SortedIterator<Long> iterator = sorter.sort(boxed(new long[] { 3, -1, 2 }));
+        assertEquals(0, countFiles()); // 一个run就放下了，不写文件
+        assertEquals(Long.valueOf(-1), iterator.next());
+        assertEquals(Long.valueOf(2), iterator.next());
+        assertEquals(Long.valueOf(3), iterator.next());
+        assertFalse(iterator.hasNext());
+
+        assertFalse(sorter.sort(Collections.<Long> emptyIterator()).hasNext());
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        // 内存预算放得下5000条，按runSize分成10个run，一趟归并
+        long[] values = new Random(3).longs(50000).toArray();
+        ExternalSort<Long> sorter = new ExternalSort<>(RecordCodec.LONG, Comparator.naturalOrder(), 1 << 20, 5000,
+                directory);
+        SortedIterator<Long> iterator = sorter.sort(boxed(values));
+        assertEquals(10, countFiles());
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long value = iterator.next();
+            assertTrue(previous <= value);
+            previous = value;
+        }
+        iterator.close();
+        assertEquals(0, countFiles());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalRunSize() {
+        new ExternalSort<>(RecordCodec.LONG, Comparator.<Long> naturalOrder(), BUDGET, 0, directory);
+    }
+
+    private long countFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Iterator<Long> boxed(long[] values) {
+        return LongStream.of(values).boxed().iterator();
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("external-sort-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package me.dalianmao.utils.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.dalianmao.util.sort.IntroSort;
+
+/**
+ * test for {@code IntroSort}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class IntroSortTest {
+
+    @Test
+    public void testInts() {
+        Random random = new Random(1);
+        for (int size : new int[] { 0, 1, 2, 10, 24, 25, 100, 1000, 100000 }) {
+            for (int[] array : shapes(random, size)) {
+                int[] expected = array.clone();
+                Arrays.sort(expected);
+                IntroSort.sort(array);
+                assertArrayEquals(expected, array);
+            }
+        }
+    }
+
+    @Test
+    public void testSortedInputDoesNotOverflowStack() {
+        int[] array = new int[2000000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i;
+        }
+        IntroSort.sort(array);
+        for (int i = array.length - 1; i >= 0; i--) {
+            array[i] = array.length - i;
+        }
+        IntroSort.sort(array);
+        for (int i = 1; i < array.length; i++) {
+            assertTrue(array[i - 1] <= array[i]);
+        }
+    }
+
+    @Test
+    public void testRange() {
+        int[] array = { 9, 8, 7, 6, 5, 4, 3, 2, 1, 0 };
+        IntroSort.sort(array, 2, 8);
+        assertArrayEquals(new int[] { 9, 8, 2, 3, 4, 5, 6, 7, 1, 0 }, array);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testIllegalRange() {
+        IntroSort.sort(new int[3], 0, 4);
+    }
+
+    @Test
+    public void testLongs() {
+        long[] array = new Random(2).longs(50000).toArray();
+        array[0] = Long.MIN_VALUE;
+        array[1] = Long.MAX_VALUE;
+        long[] expected = array.clone();
+        Arrays.sort(expected);
+        IntroSort.sort(array);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void testDoubles() {
+        Random random = new Random(3);
+        double[] array = new double[10000];
+        for (int i = 0; i < array.length; i++) {
+            int kind = random.nextInt(10);
+            array[i] = kind == 0 ? Double.NaN : kind == 1 ? -0.0 : kind == 2 ? 0.0 : random.nextGaussian();
+        }
+        array[0] = Double.NEGATIVE_INFINITY;
+        array[1] = Double.POSITIVE_INFINITY;
+        double[] expected = array.clone();
+        Arrays.sort(expected);
+        IntroSort.sort(array);
+        assertArrayEquals(expected, array, 0.0);
+        for (int i = 0; i < array.length; i++) { // assertArrayEquals认为-0.0和0.0相等，逐位比较
+            assertTrue(Double.doubleToRawLongBits(expected[i]) == Double.doubleToRawLongBits(array[i]));
+        }
+    }
+
+    @Test
+    public void testObjects() {
+        String[] array = new Random(4).ints(5000, 0, 700).mapToObj(i -> "s" + i).toArray(String[]::new);
+        String[] expected = array.clone();
+        Arrays.sort(expected, Comparator.reverseOrder());
+        IntroSort.sort(array, Comparator.reverseOrder());
+        assertArrayEquals(expected, array);
+    }
+
+    /**
+     * McIlroy的对抗比较器会把快速排序逼到O(n²)，内省排序应该切换到堆排序，比较次数保持在O(nlog(n))
+     */
+    @Test
+    public void testAdversary() {
+        int size = 20000;
+        Adversary adversary = new Adversary(size);
+        Integer[] array = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+        }
+        IntroSort.sort(array, adversary);
+        double nlogn = size * (Math.log(size) / Math.log(2));
+        assertTrue("comparisons: " + adversary.comparisons, adversary.comparisons < 10 * nlogn);
+    }
+
+    private static int[][] shapes(Random random, int size) {
+        int[] random1 = random.ints(size).toArray();
+        int[] sorted = new int[size], reversed = new int[size], organPipe = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = i;
+            reversed[i] = size - i;
+            organPipe[i] = Math.min(i, size - i);
+        }
+        int[] duplicates = random.ints(size, 0, 4).toArray();
+        int[] constant = new int[size];
+        return new int[][] { random1, sorted, reversed, organPipe, duplicates, constant };
+    }
+
+    private static class Adversary implements Comparator<Integer> {
+
+        private final int[] values;
+        private final int gas;
+        private int solid = 0;
+        private int candidate = -1;
+        private long comparisons = 0;
+
+        Adversary(int size) {
+            this.values = new int[size];
+            this.gas = size;
+            Arrays.fill(values, gas);
+        }
+
+        @Override
+        public int compare(Integer x, Integer y) {
+            comparisons++;
+            if (values[x] == gas && values[y] == gas) {
+                values[x == candidate ? x : y] = solid++;
+            }
+            if (values[x] == gas) {
+                candidate = x;
+            } else if (values[y] == gas) {
+                candidate = y;
+            }
+            return Integer.compare(values[x], values[y]);
+        }
+    }
+}
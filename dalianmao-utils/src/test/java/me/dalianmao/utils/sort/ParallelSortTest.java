@@ -0,0 +1,89 @@
+package me.dalianmao.utils.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import me.dalianmao.util.sort.ParallelSort;
+
+/**
+ * test for {@code ParallelSort}，在4个线程的{@code ForkJoinPool}里调用，单核机器上也会走并行分支
+ *
+ * @author xiezhenzong
+ *
+ */
+public class ParallelSortTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testInts() throws Exception {
+        Random random = new Random(1);
+        for (int size : new int[] { 0, 1, 100, 1000, 12345, 300000 }) {
+            int[] array = random.ints(size).toArray(), duplicates = random.ints(size, 0, 8).toArray();
+            int[] expected = array.clone(), expectedDuplicates = duplicates.clone();
+            Arrays.sort(expected);
+            Arrays.sort(expectedDuplicates);
+            pool.submit(() -> {
+                ParallelSort.sort(array, 64);
+                ParallelSort.sort(duplicates, 64);
+            }).get();
+            assertArrayEquals(expected, array);
+            assertArrayEquals(expectedDuplicates, duplicates);
+        }
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        int[] array = new Random(2).ints(10000).toArray();
+        int[] expected = array.clone();
+        Arrays.sort(expected, 1000, 9000);
+        pool.submit(() -> ParallelSort.sort(array, 1000, 9000, 100)).get();
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void testLongs() throws Exception {
+        long[] array = new Random(3).longs(100000).toArray();
+        long[] expected = array.clone();
+        Arrays.sort(expected);
+        pool.submit(() -> ParallelSort.sort(array, 1000)).get();
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void testDoubles() throws Exception {
+        Random random = new Random(4);
+        double[] array = new double[100000];
+        for (int i = 0; i < array.length; i++) {
+            int kind = random.nextInt(10);
+            array[i] = kind == 0 ? Double.NaN : kind == 1 ? -0.0 : kind == 2 ? 0.0 : random.nextDouble() - 0.5;
+        }
+        double[] expected = array.clone();
+        Arrays.sort(expected);
+        pool.submit(() -> ParallelSort.sort(array, 1000)).get();
+        for (int i = 0; i < array.length; i++) {
+            assertTrue(Double.doubleToRawLongBits(expected[i]) == Double.doubleToRawLongBits(array[i]));
+        }
+    }
+
+    @Test
+    public void testCommonPool() {
+        int[] array = new Random(5).ints(50000).toArray();
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        ParallelSort.sort(array);
+        assertArrayEquals(expected, array);
+    }
+}
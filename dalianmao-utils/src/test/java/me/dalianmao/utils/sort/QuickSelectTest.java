@@ -0,0 +1,75 @@
+package me.dalianmao.utils.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.dalianmao.util.sort.QuickSelect;
+
+/**
+ * test for {@code QuickSelect}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class QuickSelectTest {
+
+    @Test
+    public void testSelect() {
+        Random random = new Random(1);
+        for (int size : new int[] { 1, 2, 30, 1000, 100000 }) {
+            int[] array = random.ints(size, 0, size / 2 + 1).toArray();
+            int[] sorted = array.clone();
+            Arrays.sort(sorted);
+            for (int k : new int[] { 0, size / 3, size / 2, size - 1 }) {
+                assertEquals(sorted[k], QuickSelect.select(array, k));
+                for (int i = 0; i < size; i++) {
+                    assertTrue(i < k ? array[i] <= array[k] : array[i] >= array[k]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSortedInput() {
+        long[] array = new long[1000000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = array.length - i;
+        }
+        assertEquals(500000L, QuickSelect.median(array));
+    }
+
+    @Test
+    public void testQuantile() {
+        int[] latencies = new int[100];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = 100 - i;
+        }
+        assertEquals(99, QuickSelect.quantile(latencies, 0.99));
+        assertEquals(100, QuickSelect.quantile(latencies, 1));
+        assertEquals(1, QuickSelect.quantile(latencies, 0));
+        assertEquals(50, QuickSelect.median(latencies));
+    }
+
+    @Test
+    public void testDoubles() {
+        double[] array = { 3.0, Double.NaN, 1.0, 2.0, Double.NaN };
+        assertEquals(3.0, QuickSelect.median(array), 0.0); // NaN排在最后
+        assertEquals(Double.NaN, QuickSelect.select(array, 4), 0.0);
+        assertEquals(2.0, QuickSelect.quantile(array, 0.4), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalQuantile() {
+        QuickSelect.quantile(new int[] { 1 }, 1.5);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testEmpty() {
+        QuickSelect.median(new int[0]);
+    }
+}
@@ -0,0 +1,117 @@
+package me.dalianmao.utils.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import me.dalianmao.util.sort.RadixSort;
+
+/**
+ * test for {@code RadixSort}
+ *
+ * @author xiezhenzong
+ *
+ */
+public class RadixSortTest {
+
+    @Test
+    public void testInts() {
+        Random random = new Random(1);
+        for (int size : new int[] { 0, 1, 255, 256, 1000, 100000 }) {
+            int[][] inputs = { random.ints(size).toArray(), random.ints(size, -100, 100).toArray(),
+                    random.ints(size, 0, 1 << 16).toArray(), new int[size] };
+            for (int[] array : inputs) {
+                int[] expected = array.clone();
+                Arrays.sort(expected);
+                RadixSort.sort(array);
+                assertArrayEquals(expected, array);
+            }
+        }
+        int[] extremes = { Integer.MAX_VALUE, 0, -1, Integer.MIN_VALUE, 1 };
+        int[] array = new int[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = extremes[i % extremes.length];
+        }
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        RadixSort.sort(array);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void testRange() {
+        int[] array = new Random(2).ints(2000).toArray();
+        int[] expected = array.clone();
+        Arrays.sort(expected, 300, 1700);
+        RadixSort.sort(array, 300, 1700);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void testLongs() {
+        Random random = new Random(3);
+        long now = System.currentTimeMillis();
+        long[][] inputs = { random.longs(100000).toArray(), random.longs(100000, now - 86400000L, now).toArray(),
+                random.longs(100000, -1000, 1000).toArray() };
+        for (long[] array : inputs) {
+            long[] expected = array.clone();
+            Arrays.sort(expected);
+            RadixSort.sort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void testSortedOrder() {
+        long[] keys = { 5, -3, 5, Long.MIN_VALUE, 0, -3 };
+        long[] copy = keys.clone();
+        assertArrayEquals(new int[] { 3, 1, 5, 4, 0, 2 }, RadixSort.sortedOrder(keys)); // 相等的key保持原顺序
+        assertArrayEquals(copy, keys);
+        assertArrayEquals(new int[] { 0, 1, 2 }, RadixSort.sortedOrder(new long[3]));
+    }
+
+    @Test
+    public void testSortByKey() {
+        Random random = new Random(4);
+        Item[] items = new Item[50000];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item(random.nextInt(1000) - 500, i);
+        }
+        Item[] expected = items.clone();
+        Arrays.sort(expected, Comparator.comparingLong(Item::getScore)); // 稳定排序
+        RadixSort.sortByKey(items, Item::getScore);
+        assertArrayEquals(expected, items);
+
+        List<Item> list = new LinkedList<>(Arrays.asList(expected));
+        RadixSort.sortByKey(list, item -> -item.getSequence());
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(list.size() - 1 - i, list.get(i).getSequence());
+        }
+    }
+
+    private static class Item {
+
+        private final long score;
+        private final long sequence;
+
+        Item(long score, long sequence) {
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        long getScore() {
+            return score;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+    }
+}